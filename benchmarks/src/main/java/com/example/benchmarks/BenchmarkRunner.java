@@ -0,0 +1,81 @@
+package com.example.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Locale;
+
+// Runs the JMH suites, writes JSON results and exits non-zero when a benchmark regressed against the baseline
+public final class BenchmarkRunner {
+    
+    private BenchmarkRunner() {
+    }
+    
+    public static void main(String[] args) throws Exception {
+        String include = System.getProperty("benchmarks.include", ".*");
+        Path result = Paths.get(System.getProperty("benchmarks.result", "target/jmh-result.json")).toAbsolutePath();
+        Path baseline = Paths.get(System.getProperty("benchmarks.baseline", "baseline.json")).toAbsolutePath();
+        double tolerance = Double.parseDouble(System.getProperty("benchmarks.tolerance", "0.10"));
+        boolean updateBaseline = Boolean.parseBoolean(System.getProperty("benchmarks.update-baseline", "false"));
+        boolean requireBaseline = Boolean.parseBoolean(System.getProperty("benchmarks.require-baseline", "true"));
+        
+        Files.createDirectories(result.getParent());
+        Options options = new OptionsBuilder()
+                .include(include)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+        System.out.println("Benchmark results written to " + result);
+        
+        if (updateBaseline) {
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Baseline updated: " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            // A missing baseline must not pass as "no regressions"
+            System.err.println("No baseline at " + baseline + ", so nothing was checked for regressions. Record one "
+                    + "with -Dbenchmarks.update-baseline=true, or run without the check using "
+                    + "-Dbenchmarks.require-baseline=false");
+            if (requireBaseline) {
+                System.exit(1);
+            }
+            return;
+        }
+        
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode before = objectMapper.readTree(baseline.toFile());
+        JsonNode after = objectMapper.readTree(result.toFile());
+        List<RegressionCheck.Comparison> comparisons = RegressionCheck.compare(before, after, tolerance);
+        int regressions = 0;
+        System.out.println();
+        System.out.println("Compared with " + baseline + " (tolerance " + Math.round(tolerance * 100) + "%):");
+        for (RegressionCheck.Comparison comparison : comparisons) {
+            if (comparison.isRegression()) {
+                regressions++;
+            }
+            System.out.println(String.format(Locale.ROOT, "%-11s %+7.1f%%  %14.3f -> %14.3f %-8s %s",
+                    comparison.isRegression() ? "REGRESSION" : "ok",
+                    comparison.getImprovement() * 100, comparison.getBaseline(), comparison.getCurrent(),
+                    comparison.getUnit(), comparison.getKey()));
+        }
+        for (String key : RegressionCheck.added(before, after)) {
+            System.out.println(String.format(Locale.ROOT, "%-11s %s", "new", key));
+        }
+        if (regressions > 0) {
+            System.err.println(regressions + " benchmark(s) regressed by more than "
+                    + Math.round(tolerance * 100) + "%");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compares two JMH JSON result files benchmark by benchmark
+public final class RegressionCheck {
+    
+    private RegressionCheck() {
+    }
+    
+    @Value
+    public static class Comparison {
+        String key;
+        String unit;
+        double baseline;
+        double current;
+        // Relative change, positive when the current run is better
+        double improvement;
+        boolean regression;
+    }
+    
+    // A result is a regression when it is worse than the baseline by more than the tolerance and by more than
+    // the two runs' combined error margins, so noisy benchmarks do not fail the build on their own
+    public static List<Comparison> compare(JsonNode baseline, JsonNode current, double tolerance) {
+        Map<String, JsonNode> baselineByKey = index(baseline);
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : index(current).entrySet()) {
+            JsonNode before = baselineByKey.get(entry.getKey());
+            if (before == null) {
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double baselineScore = score(before);
+            double currentScore = score(after);
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double delta = higherIsBetter ? currentScore - baselineScore : baselineScore - currentScore;
+            double improvement = baselineScore == 0 ? 0 : delta / baselineScore;
+            double noise = error(before) + error(after);
+            boolean regression = improvement < -tolerance && -delta > noise;
+            comparisons.add(new Comparison(entry.getKey(), after.path("primaryMetric").path("scoreUnit").asText(),
+                    baselineScore, currentScore, improvement, regression));
+        }
+        return comparisons;
+    }
+    
+    // Benchmarks present in the current run but not in the baseline
+    public static List<String> added(JsonNode baseline, JsonNode current) {
+        Map<String, JsonNode> baselineByKey = index(baseline);
+        List<String> added = new ArrayList<>();
+        for (String key : index(current).keySet()) {
+            if (!baselineByKey.containsKey(key)) {
+                added.add(key);
+            }
+        }
+        return added;
+    }
+    
+    // Key a result by benchmark method, mode, thread count and parameter values
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new HashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText())
+                    .append(" [").append(result.path("mode").asText())
+                    .append(", threads=").append(result.path("threads").asInt());
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                params.put(field.getKey(), field.getValue().asText());
+            }
+            params.forEach((name, value) -> key.append(", ").append(name).append('=').append(value));
+            byKey.put(key.append(']').toString(), result);
+        }
+        return byKey;
+    }
+    
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+    
+    // JMH writes "NaN" when a run had too few iterations to estimate the error
+    private static double error(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
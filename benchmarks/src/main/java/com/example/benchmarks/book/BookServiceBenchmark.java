@@ -0,0 +1,130 @@
+package com.example.benchmarks.book;
+
+import com.example.benchmarks.support.Fixtures;
+import com.example.benchmarks.support.Seeder;
+import com.example.benchmarks.support.StandIns;
+import com.example.bookservice.BookServiceApplication;
+import com.example.bookservice.dto.BookFacetQuery;
+import com.example.bookservice.facet.BookFacetSnapshot;
+import com.example.bookservice.search.BookSearchIndex;
+import com.example.bookservice.service.BookService;
+import com.example.bookservice.typeahead.TypeaheadIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// BookService read paths over a seeded catalog: lookups, keyset pages, genre listing, search, typeahead and facets
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class BookServiceBenchmark {
+    
+    @Param("50000")
+    public int books;
+    
+    private ConfigurableApplicationContext context;
+    private BookService bookService;
+    private String secondPageCursor;
+    private List<Long> batchIds;
+    private BookFacetQuery facetQuery;
+    
+    @Setup
+    public void setUp() {
+        context = StandIns.start(BookServiceApplication.class);
+        Seeder.books(context.getBean(JdbcTemplate.class), books);
+        // The in-memory indexes load on startup, before the catalog was seeded
+        context.getBean(BookSearchIndex.class).rebuild();
+        context.getBean(TypeaheadIndex.class).rebuild();
+        context.getBean(BookFacetSnapshot.class).rebuild();
+        
+        bookService = context.getBean(BookService.class);
+        secondPageCursor = bookService.getBooksPage(null, 50).getNextCursor();
+        batchIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            batchIds.add(1 + (long) ThreadLocalRandom.current().nextInt(books));
+        }
+        facetQuery = new BookFacetQuery(Collections.singletonList("Fantasy"), 1950, 2000, 200, 600, 20);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Object getBookById() {
+        return bookService.getBookById(randomId());
+    }
+    
+    @Benchmark
+    public Object getBooksByIds() {
+        return bookService.getBooksByIds(batchIds);
+    }
+    
+    @Benchmark
+    public Object getBooksPage() {
+        return bookService.getBooksPage(secondPageCursor, 50);
+    }
+    
+    @Benchmark
+    public Object getBookByIsbn() {
+        return bookService.getBookByIsbn(String.format("978%010d", randomId()));
+    }
+    
+    @Benchmark
+    public Object getBooksByGenre() {
+        return bookService.getBooksByGenre(randomGenre());
+    }
+    
+    @Benchmark
+    public Object searchBooksByTitle() {
+        return bookService.searchBooksByTitle(randomWord().substring(1));
+    }
+    
+    @Benchmark
+    public Object searchBooksByTitleAndAuthor() {
+        return bookService.searchBooksByTitleAndAuthor(randomWord(), "sen");
+    }
+    
+    @Benchmark
+    public Object suggest() {
+        return bookService.suggest("the " + randomWord().substring(0, 2), 10);
+    }
+    
+    @Benchmark
+    public Object findFacets() {
+        return bookService.findFacets(facetQuery);
+    }
+    
+    private long randomId() {
+        return 1 + ThreadLocalRandom.current().nextInt(books);
+    }
+    
+    private static String randomGenre() {
+        return Fixtures.GENRES[ThreadLocalRandom.current().nextInt(Fixtures.GENRES.length)];
+    }
+    
+    private static String randomWord() {
+        return Fixtures.WORDS[ThreadLocalRandom.current().nextInt(Fixtures.WORDS.length)];
+    }
+}
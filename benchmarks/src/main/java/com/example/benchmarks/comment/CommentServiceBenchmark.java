@@ -0,0 +1,96 @@
+package com.example.benchmarks.comment;
+
+import com.example.benchmarks.support.Fixtures;
+import com.example.benchmarks.support.Seeder;
+import com.example.benchmarks.support.StandIns;
+import com.example.commentservice.CommentServiceApplication;
+import com.example.commentservice.entity.Comment;
+import com.example.commentservice.service.CommentService;
+import com.example.commentservice.thread.CommentTreeAssembler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// CommentService read paths: per-review pages, batched counts and thread assembly. The recursive thread queries
+// use Postgres CTE features H2 cannot run, so only the in-memory assembly step of a thread read is measured here
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class CommentServiceBenchmark {
+    
+    @Param("25000")
+    public int reviews;
+    
+    @Param("10")
+    public int commentsPerReview;
+    
+    private ConfigurableApplicationContext context;
+    private CommentService commentService;
+    private List<Long> countReviewIds;
+    private List<Comment> threadRows;
+    private List<Long> threadRootIds;
+    
+    @Setup
+    public void setUp() {
+        context = StandIns.start(CommentServiceApplication.class);
+        Seeder.comments(context.getBean(JdbcTemplate.class), reviews, commentsPerReview);
+        commentService = context.getBean(CommentService.class);
+        countReviewIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            countReviewIds.add(randomReviewId());
+        }
+        // One busy discussion: 500 comments under a handful of top-level ones
+        threadRows = new ArrayList<>();
+        threadRootIds = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            Comment comment = Fixtures.comment(id, 500);
+            threadRows.add(comment);
+            if (comment.getParentCommentId() == null) {
+                threadRootIds.add(comment.getId());
+            }
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Object getCommentsByReviewId() {
+        return commentService.getCommentsByReviewId(randomReviewId(), null, 20);
+    }
+    
+    @Benchmark
+    public Object assembleThread() {
+        return CommentTreeAssembler.assemble(threadRows, threadRootIds, 5, 20);
+    }
+    
+    @Benchmark
+    public Object getCommentCounts() {
+        return commentService.getCommentCounts(countReviewIds);
+    }
+    
+    private long randomReviewId() {
+        return 1 + ThreadLocalRandom.current().nextInt(reviews);
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.benchmarks.instrumentation;
+
+import com.example.benchmarks.support.Seeder;
+import com.example.benchmarks.support.StandIns;
+import com.example.commentservice.CommentServiceApplication;
+import com.example.commentservice.controller.CommentController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// A whole read through the comment-service controller (one controller timer, two repository timers and row
+// counts when instrumented), to put the interceptor cost next to a real query
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class InstrumentedReadBenchmark {
+    
+    @Param({"false", "true"})
+    public boolean instrumented;
+    
+    @Param("10000")
+    public int reviews;
+    
+    private ConfigurableApplicationContext context;
+    private CommentController commentController;
+    
+    @Setup
+    public void setUp() {
+        context = StandIns.start(CommentServiceApplication.class, "--instrumentation.enabled=" + instrumented);
+        Seeder.comments(context.getBean(JdbcTemplate.class), reviews, 10);
+        commentController = context.getBean(CommentController.class);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Object getCommentsByReviewId() {
+        return commentController.getCommentsByReviewId(1L + ThreadLocalRandom.current().nextInt(reviews), null, 20);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.benchmarks.instrumentation;
+
+import com.example.common.instrumentation.ControllerTimingInterceptor;
+import com.example.common.instrumentation.InstrumentationMeters;
+import com.example.common.instrumentation.InstrumentationProperties;
+import com.example.common.instrumentation.RepositoryTimingInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Per-call cost of the common-library timing interceptors on a trivial target, with percentiles and histogram
+// buckets enabled as in production. instrumented=false is the same proxy without the advice, so the difference
+// between the two parameter values is what the instrumentation adds
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterceptorOverheadBenchmark {
+    
+    @Param({"false", "true"})
+    public boolean instrumented;
+    
+    private Lookup repository;
+    private Handler controller;
+    
+    public interface Lookup {
+        
+        List<Long> findByParentId(long parentId);
+    }
+    
+    public static class Handler {
+        
+        public ResponseEntity<Long> get(long id) {
+            return ResponseEntity.ok(id);
+        }
+    }
+    
+    @Setup
+    public void setUp() {
+        MeterRegistry registry = new SimpleMeterRegistry();
+        InstrumentationMeters meters = new InstrumentationMeters(() -> registry, "benchmark",
+                new InstrumentationProperties());
+        List<Long> rows = Arrays.asList(1L, 2L, 3L);
+        
+        ProxyFactory repositoryProxy = new ProxyFactory((Lookup) parentId -> rows);
+        repositoryProxy.addInterface(Lookup.class);
+        ProxyFactory controllerProxy = new ProxyFactory(new Handler());
+        controllerProxy.setProxyTargetClass(true);
+        if (instrumented) {
+            repositoryProxy.addAdvice(new RepositoryTimingInterceptor(meters, Lookup.class));
+            controllerProxy.addAdvice(new ControllerTimingInterceptor(meters));
+        }
+        repository = (Lookup) repositoryProxy.getProxy();
+        controller = (Handler) controllerProxy.getProxy();
+    }
+    
+    @Benchmark
+    public Object repositoryCall() {
+        return repository.findByParentId(ThreadLocalRandom.current().nextLong(1000));
+    }
+    
+    // Timers and row summaries are shared by every request thread
+    @Benchmark
+    @Threads(8)
+    public Object repositoryCallEightThreads() {
+        return repository.findByParentId(ThreadLocalRandom.current().nextLong(1000));
+    }
+    
+    @Benchmark
+    public Object controllerCall() {
+        return controller.get(ThreadLocalRandom.current().nextLong(1000));
+    }
+}
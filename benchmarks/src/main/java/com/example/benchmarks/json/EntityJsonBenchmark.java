@@ -0,0 +1,88 @@
+package com.example.benchmarks.json;
+
+import com.example.benchmarks.support.Fixtures;
+import com.example.common.pagination.Cursor;
+import com.example.common.pagination.CursorPage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+// Jackson (de)serialization of the entities as the REST layer does it, with Boot's default mapper settings
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EntityJsonBenchmark {
+    
+    @Param({"book", "review", "comment", "survey"})
+    public String entity;
+    
+    private ObjectMapper objectMapper;
+    private Object sample;
+    private Class<?> type;
+    private byte[] json;
+    private CursorPage<Object> page;
+    
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LongFunction<Object> fixture = fixture(entity);
+        sample = fixture.apply(42);
+        type = sample.getClass();
+        json = objectMapper.writeValueAsBytes(sample);
+        
+        List<Object> rows = new ArrayList<>();
+        for (long id = 1; id <= 51; id++) {
+            rows.add(fixture.apply(id));
+        }
+        page = CursorPage.of(rows, 50, row -> Cursor.of(50));
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(sample);
+    }
+    
+    @Benchmark
+    public Object deserialize() throws Exception {
+        return objectMapper.readValue(json, type);
+    }
+    
+    // A full 50-row list page, the most common response body
+    @Benchmark
+    public byte[] serializePage() throws Exception {
+        return objectMapper.writeValueAsBytes(page);
+    }
+    
+    private static LongFunction<Object> fixture(String entity) {
+        switch (entity) {
+            case "book":
+                return Fixtures::book;
+            case "review":
+                return id -> Fixtures.review(id, 50_000);
+            case "comment":
+                return id -> Fixtures.comment(id, 10);
+            case "survey":
+                return id -> Fixtures.survey(id, 50_000);
+            default:
+                throw new IllegalArgumentException("Unknown entity: " + entity);
+        }
+    }
+}
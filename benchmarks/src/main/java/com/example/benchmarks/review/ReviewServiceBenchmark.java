@@ -0,0 +1,107 @@
+package com.example.benchmarks.review;
+
+import com.example.benchmarks.support.Seeder;
+import com.example.benchmarks.support.StandIns;
+import com.example.reviewservice.ReviewServiceApplication;
+import com.example.reviewservice.leaderboard.LeaderboardService;
+import com.example.reviewservice.repository.ReviewRepository;
+import com.example.reviewservice.service.ReviewService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// ReviewService read paths and the rating aggregates: per-book pages, histograms, batch summaries, leaderboards
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ReviewServiceBenchmark {
+    
+    @Param("50000")
+    public int books;
+    
+    @Param("250000")
+    public int reviews;
+    
+    private ConfigurableApplicationContext context;
+    private ReviewService reviewService;
+    private ReviewRepository reviewRepository;
+    private LeaderboardService leaderboardService;
+    private TransactionTemplate readOnly;
+    private List<Long> summaryBookIds;
+    
+    @Setup
+    public void setUp() {
+        context = StandIns.start(ReviewServiceApplication.class);
+        Seeder.reviews(context.getBean(JdbcTemplate.class), reviews, books);
+        leaderboardService = context.getBean(LeaderboardService.class);
+        leaderboardService.reconcile();
+        
+        reviewService = context.getBean(ReviewService.class);
+        reviewRepository = context.getBean(ReviewRepository.class);
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+        summaryBookIds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            summaryBookIds.add(randomBookId());
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Object getReviewsByBookId() {
+        return reviewService.getReviewsByBookId(randomBookId(), null, 20);
+    }
+    
+    @Benchmark
+    public Object getRatingHistogram() {
+        return reviewService.getRatingHistogram(randomBookId());
+    }
+    
+    @Benchmark
+    public Object getRatingSummaries() {
+        return reviewService.getRatingSummaries(summaryBookIds);
+    }
+    
+    // The from-scratch aggregate query the reconcile job runs per book
+    @Benchmark
+    public Object findRatingStats() {
+        return readOnly.execute(status -> reviewRepository.findRatingStats(randomBookId()));
+    }
+    
+    @Benchmark
+    public Object topWeekly() {
+        return leaderboardService.top(10, Duration.ofDays(7));
+    }
+    
+    // Popular books are the ones read most, matching the skew of the seeded reviews
+    private long randomBookId() {
+        double skew = ThreadLocalRandom.current().nextDouble();
+        return 1 + (long) (books * skew * skew);
+    }
+}
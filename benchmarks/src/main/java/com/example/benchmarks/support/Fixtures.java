@@ -0,0 +1,182 @@
+package com.example.benchmarks.support;
+
+import com.example.bookservice.entity.Book;
+import com.example.commentservice.entity.Comment;
+import com.example.reviewservice.entity.Review;
+import com.example.surveyservice.entity.Survey;
+
+import java.time.LocalDateTime;
+import java.util.Random;
+
+// Deterministic, realistically shaped sample data; the same index always yields the same row
+public final class Fixtures {
+    
+    public static final String[] GENRES = {
+            "Fiction", "Mystery", "Thriller", "Romance", "Science Fiction", "Fantasy", "Horror", "Biography",
+            "History", "Poetry", "Travel", "Cooking", "Science", "Philosophy", "Business", "Self-Help",
+            "Children", "Young Adult", "Graphic Novel", "Drama"
+    };
+    
+    public static final String[] WORDS = {
+            "shadow", "river", "garden", "silent", "winter", "empire", "stone", "light", "house", "night",
+            "ocean", "secret", "journey", "memory", "fire", "glass", "kingdom", "letter", "mountain", "island",
+            "summer", "broken", "golden", "last", "forgotten", "city", "storm", "crown", "echo", "wild",
+            "midnight", "paper", "iron", "silver", "promise", "harbor", "forest", "daughter", "stranger", "war",
+            "dream", "north", "orchard", "lantern", "thunder", "library", "voyage", "whisper", "bridge", "season"
+    };
+    
+    public static final String[] FIRST_NAMES = {
+            "Anna", "Ben", "Clara", "David", "Elena", "Felix", "Grace", "Hugo", "Iris", "Jonas",
+            "Kara", "Leo", "Maya", "Noah", "Olivia", "Paul", "Rosa", "Samuel", "Tara", "Victor"
+    };
+    
+    public static final String[] LAST_NAMES = {
+            "Adler", "Brooks", "Castillo", "Dalton", "Ellis", "Fischer", "Garcia", "Hughes", "Ivanova", "Jensen",
+            "Kowalski", "Larsen", "Moreau", "Nakamura", "Okafor", "Petrov", "Quinn", "Rossi", "Silva", "Turner",
+            "Underwood", "Vargas", "Walsh", "Xu", "Young", "Zimmermann"
+    };
+    
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+    
+    private Fixtures() {
+    }
+    
+    public static Book book(long id) {
+        Random random = new Random(id);
+        Book book = new Book();
+        book.setId(id);
+        book.setTitle(title(random));
+        book.setAuthor(name(random));
+        book.setIsbn(String.format("978%010d", id));
+        book.setDescription(sentence(random, 25 + random.nextInt(25)));
+        book.setPublishedYear(1900 + random.nextInt(125));
+        book.setGenre(GENRES[random.nextInt(GENRES.length)]);
+        book.setPageCount(80 + random.nextInt(1100));
+        book.setCreatedAt(EPOCH.plusMinutes(id));
+        book.setUpdatedAt(book.getCreatedAt());
+        return book;
+    }
+    
+    // Popular books get most reviews: book IDs are skewed towards the low end
+    public static Review review(long id, int books) {
+        Random random = new Random(id * 31 + 7);
+        double skew = random.nextDouble();
+        Review review = new Review();
+        review.setId(id);
+        review.setBookId(1 + (long) (books * skew * skew));
+        review.setUserId(1 + (long) random.nextInt(100_000));
+        review.setRating(rating(random));
+        review.setComment(sentence(random, 10 + random.nextInt(60)));
+        review.setReviewerName(name(random));
+        review.setCreatedAt(LocalDateTime.now().minusMinutes(random.nextInt(365 * 24 * 60)));
+        review.setUpdatedAt(review.getCreatedAt());
+        return review;
+    }
+    
+    // Comments come in per-review blocks of perReview; the first few are top-level, the rest reply to earlier ones
+    public static Comment comment(long id, int perReview) {
+        Random random = new Random(id * 17 + 3);
+        long position = (id - 1) % perReview;
+        long blockStart = id - position;
+        Comment comment = new Comment();
+        comment.setId(id);
+        comment.setReviewId(1 + (id - 1) / perReview);
+        comment.setUserId(1 + (long) random.nextInt(100_000));
+        comment.setContent(sentence(random, 5 + random.nextInt(40)));
+        comment.setCommenterName(name(random));
+        comment.setParentCommentId(position < 3 ? null : blockStart + random.nextInt((int) position));
+        comment.setCreatedAt(EPOCH.plusSeconds(id * 10));
+        comment.setUpdatedAt(comment.getCreatedAt());
+        return comment;
+    }
+    
+    // Half active, the rest drafts (some starting soon), paused or closed
+    public static Survey survey(long id, int books) {
+        Random random = new Random(id * 13 + 11);
+        LocalDateTime now = LocalDateTime.now();
+        Survey survey = new Survey();
+        survey.setId(id);
+        survey.setTitle("What did you think of the " + WORDS[random.nextInt(WORDS.length)] + " chapter?");
+        survey.setDescription(sentence(random, 20));
+        survey.setCreatorId(1 + (long) random.nextInt(10_000));
+        survey.setCreatorName(name(random));
+        survey.setBookId(1 + (long) random.nextInt(books));
+        int kind = random.nextInt(10);
+        if (kind < 5) {
+            survey.setStatus(Survey.SurveyStatus.ACTIVE);
+            survey.setStartDate(now.minusDays(1 + random.nextInt(30)));
+            survey.setEndDate(now.plusDays(1 + random.nextInt(60)));
+        } else if (kind < 7) {
+            survey.setStatus(Survey.SurveyStatus.DRAFT);
+            survey.setStartDate(now.plusHours(1 + random.nextInt(24 * 14)));
+            survey.setEndDate(survey.getStartDate().plusDays(30));
+        } else if (kind < 8) {
+            survey.setStatus(Survey.SurveyStatus.PAUSED);
+            survey.setStartDate(now.minusDays(10));
+            survey.setEndDate(now.plusDays(10));
+        } else {
+            survey.setStatus(Survey.SurveyStatus.CLOSED);
+            survey.setStartDate(now.minusDays(90));
+            survey.setEndDate(now.minusDays(30));
+        }
+        survey.setMaxResponses(random.nextBoolean() ? null : 100 + random.nextInt(10_000));
+        int ceiling = survey.getMaxResponses() == null ? 5_000 : survey.getMaxResponses();
+        survey.setResponseCount(random.nextInt(ceiling));
+        survey.setCreatedAt(now.minusDays(100));
+        survey.setUpdatedAt(survey.getCreatedAt());
+        return survey;
+    }
+    
+    // A JSON answers document of the size the survey form produces
+    public static String answers(Random random) {
+        StringBuilder json = new StringBuilder("{");
+        int questions = 3 + random.nextInt(8);
+        for (int q = 1; q <= questions; q++) {
+            if (q > 1) {
+                json.append(',');
+            }
+            json.append("\"q").append(q).append("\":");
+            if (random.nextBoolean()) {
+                json.append(1 + random.nextInt(5));
+            } else {
+                json.append('"').append(sentence(random, 3 + random.nextInt(12))).append('"');
+            }
+        }
+        return json.append('}').toString();
+    }
+    
+    public static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+    
+    private static String title(Random random) {
+        StringBuilder title = new StringBuilder("The");
+        int words = 1 + random.nextInt(3);
+        for (int i = 0; i < words; i++) {
+            String word = word(random);
+            title.append(' ').append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        return title.toString();
+    }
+    
+    private static String name(Random random) {
+        return FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+    }
+    
+    private static String sentence(Random random, int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(word(random));
+        }
+        return sentence.append('.').toString();
+    }
+    
+    // Ratings lean positive, as they do in practice
+    private static int rating(Random random) {
+        int roll = random.nextInt(100);
+        return roll < 5 ? 1 : roll < 12 ? 2 : roll < 30 ? 3 : roll < 65 ? 4 : 5;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.benchmarks.support;
+
+// H2 stand-ins for the Postgres functions the services call; advisory locks always succeed in a single process
+public final class PostgresFunctions {
+    
+    private PostgresFunctions() {
+    }
+    
+    public static void advisoryXactLock(int namespace, int key) {
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.benchmarks.support;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+// Bulk-loads fixture rows with JDBC batches, bypassing the services so setup stays fast at realistic scale
+public final class Seeder {
+    
+    private static final int BATCH_SIZE = 1000;
+    
+    private Seeder() {
+    }
+    
+    public static void books(JdbcTemplate jdbcTemplate, int count) {
+        insert(jdbcTemplate, "INSERT INTO books (id, title, author, isbn, description, published_year, genre, " +
+                "page_count, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                count, Fixtures::book, (ps, book) -> {
+                    ps.setLong(1, book.getId());
+                    ps.setString(2, book.getTitle());
+                    ps.setString(3, book.getAuthor());
+                    ps.setString(4, book.getIsbn());
+                    ps.setString(5, book.getDescription());
+                    ps.setInt(6, book.getPublishedYear());
+                    ps.setString(7, book.getGenre());
+                    ps.setInt(8, book.getPageCount());
+                    ps.setTimestamp(9, Timestamp.valueOf(book.getCreatedAt()));
+                    ps.setTimestamp(10, Timestamp.valueOf(book.getUpdatedAt()));
+                });
+        // Keep generated IDs clear of the seeded ones
+        jdbcTemplate.execute("ALTER SEQUENCE books_id_seq RESTART WITH " + (count + 1000));
+    }
+    
+    // Reviews plus the per-book aggregates the write path would have maintained
+    public static void reviews(JdbcTemplate jdbcTemplate, int count, int books) {
+        insert(jdbcTemplate, "INSERT INTO reviews (id, book_id, user_id, rating, comment, reviewer_name, " +
+                "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                count, id -> Fixtures.review(id, books), (ps, review) -> {
+                    ps.setLong(1, review.getId());
+                    ps.setLong(2, review.getBookId());
+                    ps.setLong(3, review.getUserId());
+                    ps.setInt(4, review.getRating());
+                    ps.setString(5, review.getComment());
+                    ps.setString(6, review.getReviewerName());
+                    ps.setTimestamp(7, Timestamp.valueOf(review.getCreatedAt()));
+                    ps.setTimestamp(8, Timestamp.valueOf(review.getUpdatedAt()));
+                });
+        jdbcTemplate.execute("ALTER TABLE reviews ALTER COLUMN id RESTART WITH " + (count + 1));
+        jdbcTemplate.update("INSERT INTO book_rating_aggregates (book_id, review_count, rating_sum, " +
+                "stars_1, stars_2, stars_3, stars_4, stars_5) " +
+                "SELECT book_id, COUNT(*), SUM(rating), " +
+                "SUM(CASE WHEN rating = 1 THEN 1 ELSE 0 END), SUM(CASE WHEN rating = 2 THEN 1 ELSE 0 END), " +
+                "SUM(CASE WHEN rating = 3 THEN 1 ELSE 0 END), SUM(CASE WHEN rating = 4 THEN 1 ELSE 0 END), " +
+                "SUM(CASE WHEN rating = 5 THEN 1 ELSE 0 END) FROM reviews GROUP BY book_id");
+    }
+    
+    // perReview comments for each of the given reviews, plus the per-review counters
+    public static void comments(JdbcTemplate jdbcTemplate, int reviews, int perReview) {
+        insert(jdbcTemplate, "INSERT INTO comments (id, review_id, user_id, content, commenter_name, " +
+                "parent_comment_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                reviews * perReview, id -> Fixtures.comment(id, perReview), (ps, comment) -> {
+                    ps.setLong(1, comment.getId());
+                    ps.setLong(2, comment.getReviewId());
+                    ps.setLong(3, comment.getUserId());
+                    ps.setString(4, comment.getContent());
+                    ps.setString(5, comment.getCommenterName());
+                    if (comment.getParentCommentId() == null) {
+                        ps.setNull(6, Types.BIGINT);
+                    } else {
+                        ps.setLong(6, comment.getParentCommentId());
+                    }
+                    ps.setTimestamp(7, Timestamp.valueOf(comment.getCreatedAt()));
+                    ps.setTimestamp(8, Timestamp.valueOf(comment.getUpdatedAt()));
+                });
+        jdbcTemplate.execute("ALTER TABLE comments ALTER COLUMN id RESTART WITH " + (reviews * perReview + 1));
+        jdbcTemplate.update("INSERT INTO review_comment_counts (review_id, comment_count) " +
+                "SELECT review_id, COUNT(*) FROM comments GROUP BY review_id");
+    }
+    
+    public static void surveys(JdbcTemplate jdbcTemplate, int count, int books) {
+        insert(jdbcTemplate, "INSERT INTO surveys (id, title, description, creator_id, creator_name, status, " +
+                "book_id, start_date, end_date, max_responses, response_count, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                count, id -> Fixtures.survey(id, books), (ps, survey) -> {
+                    ps.setLong(1, survey.getId());
+                    ps.setString(2, survey.getTitle());
+                    ps.setString(3, survey.getDescription());
+                    ps.setLong(4, survey.getCreatorId());
+                    ps.setString(5, survey.getCreatorName());
+                    ps.setString(6, survey.getStatus().name());
+                    ps.setLong(7, survey.getBookId());
+                    ps.setTimestamp(8, Timestamp.valueOf(survey.getStartDate()));
+                    ps.setTimestamp(9, Timestamp.valueOf(survey.getEndDate()));
+                    if (survey.getMaxResponses() == null) {
+                        ps.setNull(10, Types.INTEGER);
+                    } else {
+                        ps.setInt(10, survey.getMaxResponses());
+                    }
+                    ps.setInt(11, survey.getResponseCount());
+                    ps.setTimestamp(12, Timestamp.valueOf(survey.getCreatedAt()));
+                    ps.setTimestamp(13, Timestamp.valueOf(survey.getUpdatedAt()));
+                });
+        jdbcTemplate.execute("ALTER TABLE surveys ALTER COLUMN id RESTART WITH " + (count + 1));
+    }
+    
+    private static <T> void insert(JdbcTemplate jdbcTemplate, String sql, int count,
+                                   LongFunction<T> row, RowBinder<T> binder) {
+        List<T> batch = new ArrayList<>(BATCH_SIZE);
+        for (long id = 1; id <= count; id++) {
+            batch.add(row.apply(id));
+            if (batch.size() == BATCH_SIZE || id == count) {
+                jdbcTemplate.batchUpdate(sql, batch, batch.size(), binder::bind);
+                batch.clear();
+            }
+        }
+    }
+    
+    private interface RowBinder<T> {
+        void bind(PreparedStatement ps, T row) throws SQLException;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.benchmarks.support;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Boots a service application against local stand-ins: in-memory H2 in PostgreSQL mode and no reachable Kafka
+public final class StandIns {
+    
+    // Runs when the in-memory database is created; statements are separated by an escaped semicolon
+    private static final String INIT = String.join("\\;",
+            alias("pg_advisory_xact_lock", "advisoryXactLock"));
+    
+    private StandIns() {
+    }
+    
+    // Extra arguments use the --name=value form and win over the service's application.yml
+    public static ConfigurableApplicationContext start(Class<?> application, String... extraArgs) {
+        String database = application.getSimpleName();
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--spring.config.location=" + ownConfig(application),
+                "--spring.main.web-application-type=none",
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=jdbc:h2:mem:" + database
+                        + ";MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1"
+                        + ";INIT=" + INIT,
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.kafka.admin.auto-create=false",
+                "--spring.kafka.listener.auto-startup=false",
+                "--logging.level.root=WARN"));
+        args.addAll(Arrays.asList(extraArgs));
+        return new SpringApplicationBuilder(application).run(args.toArray(new String[0]));
+    }
+    
+    // Every service jar has an application.yml at its root, and classpath:application.yml would resolve to
+    // whichever comes first; read the one next to the application class instead
+    private static String ownConfig(Class<?> application) {
+        String location = application.getProtectionDomain().getCodeSource().getLocation().toString();
+        if (location.endsWith(".jar")) {
+            return "jar:" + location + "!/application.yml";
+        }
+        return location + (location.endsWith("/") ? "" : "/") + "application.yml";
+    }
+    
+    private static String alias(String name, String method) {
+        return "CREATE ALIAS IF NOT EXISTS " + name
+                + " FOR '" + PostgresFunctions.class.getName() + "." + method + "'";
+    }
+}
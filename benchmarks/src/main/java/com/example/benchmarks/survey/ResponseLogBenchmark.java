@@ -0,0 +1,92 @@
+package com.example.benchmarks.survey;
+
+import com.example.benchmarks.support.Fixtures;
+import com.example.benchmarks.support.StandIns;
+import com.example.surveyservice.SurveyServiceApplication;
+import com.example.surveyservice.responselog.LogRecord;
+import com.example.surveyservice.responselog.ResponseLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Durable appends to the survey response log: each call returns only once its record has been fsynced
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ResponseLogBenchmark {
+    
+    private static final int ANSWER_VARIANTS = 256;
+    
+    private ConfigurableApplicationContext context;
+    private ResponseLog responseLog;
+    private String[] answers;
+    
+    @Setup
+    public void setUp() throws Exception {
+        // Compaction is drained between iterations instead, so only the append path is measured
+        context = StandIns.start(SurveyServiceApplication.class,
+                "--survey.responses.log-dir=" + Files.createTempDirectory("survey-responses"),
+                "--survey.responses.compaction-interval=PT24H");
+        responseLog = context.getBean(ResponseLog.class);
+        Random random = new Random(1);
+        answers = new String[ANSWER_VARIANTS];
+        for (int i = 0; i < ANSWER_VARIANTS; i++) {
+            answers[i] = Fixtures.answers(random);
+        }
+    }
+    
+    // Stand in for the compactor so the in-memory tail and the segment files stay bounded
+    @TearDown(Level.Iteration)
+    public void drain() {
+        List<LogRecord> batch;
+        while (!(batch = responseLog.nextForCompaction(10_000)).isEmpty()) {
+            responseLog.markCompacted(batch.get(batch.size() - 1).getSeq());
+        }
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    // Many concurrent submitters share each fsync
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(32)
+    public LogRecord appendConcurrent() {
+        return append();
+    }
+    
+    // A lone submitter pays a whole fsync per response
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @Threads(1)
+    public LogRecord appendSingle() {
+        return append();
+    }
+    
+    private LogRecord append() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return responseLog.append(1 + (long) random.nextInt(1000), (long) random.nextInt(1_000_000),
+                answers[random.nextInt(ANSWER_VARIANTS)]);
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.benchmarks.survey;
+
+import com.example.benchmarks.support.Fixtures;
+import com.example.benchmarks.support.Seeder;
+import com.example.benchmarks.support.StandIns;
+import com.example.surveyservice.SurveyServiceApplication;
+import com.example.surveyservice.schedule.SurveyLifecycleScheduler;
+import com.example.surveyservice.service.SurveyService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.file.Files;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// SurveyService read paths: active/available lists served from memory, keyset pages and title search
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class SurveyServiceBenchmark {
+    
+    @Param("10000")
+    public int surveys;
+    
+    private ConfigurableApplicationContext context;
+    private SurveyService surveyService;
+    private String secondPageCursor;
+    
+    @Setup
+    public void setUp() throws Exception {
+        context = StandIns.start(SurveyServiceApplication.class,
+                "--survey.responses.log-dir=" + Files.createTempDirectory("survey-responses"));
+        Seeder.surveys(context.getBean(JdbcTemplate.class), surveys, 50_000);
+        context.getBean(SurveyLifecycleScheduler.class).resync();
+        surveyService = context.getBean(SurveyService.class);
+        secondPageCursor = surveyService.getSurveysPage(null, 50).getNextCursor();
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Object getActiveSurveys() {
+        return surveyService.getActiveSurveys();
+    }
+    
+    @Benchmark
+    public Object getAvailableSurveys() {
+        return surveyService.getAvailableSurveys();
+    }
+    
+    @Benchmark
+    public Object getSurveysPage() {
+        return surveyService.getSurveysPage(secondPageCursor, 50);
+    }
+    
+    @Benchmark
+    public Object getSurveyById() {
+        return surveyService.getSurveyById(1 + (long) ThreadLocalRandom.current().nextInt(surveys));
+    }
+    
+    @Benchmark
+    public Object searchSurveysByTitle() {
+        String word = Fixtures.WORDS[ThreadLocalRandom.current().nextInt(Fixtures.WORDS.length)];
+        return surveyService.searchSurveysByTitle(word);
+    }
+}
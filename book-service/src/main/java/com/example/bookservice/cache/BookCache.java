@@ -0,0 +1,267 @@
+package com.example.bookservice.cache;
+
+import com.example.bookservice.config.BookCacheProperties;
+import com.example.bookservice.entity.Book;
+import com.example.bookservice.event.BookChangedEvent;
+import com.example.bookservice.event.BookInvalidationMessage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Bounded read-through cache for book lookups by ID and ISBN, invalidated across replicas via Kafka
+@Slf4j
+@Component
+public class BookCache implements ConsumerSeekAware {
+    
+    private static final int BASE_ENTRY_BYTES = 160;
+    private static final int GENERATION_STRIPES = 1024;
+    
+    private final Cache<Long, Book> booksById;
+    private final Cache<String, Long> idsByIsbn;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String invalidationTopic;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Counter localInvalidations;
+    private final Counter remoteInvalidations;
+    // Bumped by every eviction, striped by book ID. A load only stays cached if no eviction for its book happened
+    // since it started, so a reader that fetched the old row can't put it back after a writer's post-commit evict
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    // ISBN lookups don't know the book ID until the row is loaded, so they check for any eviction instead
+    private final AtomicLong evictions = new AtomicLong();
+    
+    public BookCache(BookCacheProperties properties,
+                     KafkaTemplate<String, Object> kafkaTemplate,
+                     MeterRegistry meterRegistry) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.invalidationTopic = properties.getInvalidationTopic();
+        this.booksById = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxWeightBytes())
+                .weigher((Long id, Book book) -> estimateSize(book))
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        this.idsByIsbn = Caffeine.newBuilder()
+                .maximumSize(Math.max(1, properties.getMaxWeightBytes() / BASE_ENTRY_BYTES))
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        
+        CaffeineCacheMetrics.monitor(meterRegistry, booksById, "books.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByIsbn, "books.byIsbn");
+        Gauge.builder("book.cache.hit.ratio", booksById, cache -> cache.stats().hitRate())
+                .description("Hit ratio of the book-by-ID cache")
+                .register(meterRegistry);
+        Gauge.builder("book.cache.weight.bytes", booksById,
+                        cache -> cache.policy().eviction().map(e -> e.weightedSize().orElse(0L)).orElse(0L))
+                .description("Estimated heap held by cached books")
+                .register(meterRegistry);
+        this.localInvalidations = Counter.builder("book.cache.invalidations")
+                .tag("source", "local")
+                .register(meterRegistry);
+        this.remoteInvalidations = Counter.builder("book.cache.invalidations")
+                .tag("source", "remote")
+                .register(meterRegistry);
+    }
+    
+    // Return the cached book or load it; misses are not cached
+    public Optional<Book> getById(Long id, Function<Long, Optional<Book>> loader) {
+        Book cached = booksById.getIfPresent(id);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long generation = generation(id);
+        Optional<Book> loaded = loader.apply(id);
+        loaded.ifPresent(book -> putIfUnchanged(id, generation, book));
+        return loaded;
+    }
+    
+    // Resolve many IDs at once: hits come from the cache, misses are loaded together and cached
+    public Map<Long, Book> getAllById(Collection<Long> ids, Function<List<Long>, List<Book>> loader) {
+        Map<Long, Book> found = new HashMap<>(booksById.getAllPresent(ids));
+        List<Long> misses = new ArrayList<>();
+        for (Long id : ids) {
+            if (!found.containsKey(id)) {
+                misses.add(id);
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<Long, Long> missGenerations = new HashMap<>();
+            for (Long id : misses) {
+                missGenerations.put(id, generation(id));
+            }
+            for (Book book : loader.apply(misses)) {
+                Long generation = missGenerations.get(book.getId());
+                if (generation != null) {
+                    putIfUnchanged(book.getId(), generation, book);
+                }
+                found.put(book.getId(), book);
+            }
+        }
+        return found;
+    }
+    
+    // Resolve ISBN to ID through the cache, reloading if the mapping went stale
+    public Optional<Book> getByIsbn(String isbn, Supplier<Optional<Book>> loader) {
+        Book cached = cachedByIsbn(isbn);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long evictionCount = evictionCount();
+        Optional<Book> loaded = loader.get();
+        loaded.ifPresent(book -> putIfNoEvictionSince(evictionCount, book));
+        return loaded;
+    }
+    
+    // Take before loading a book by ID, then pass to putIfUnchanged with the loaded book
+    public long generation(Long id) {
+        return generations.get(stripe(id));
+    }
+    
+    // Take before loading a book by anything but its ID, then pass to putIfNoEvictionSince
+    public long evictionCount() {
+        return evictions.get();
+    }
+    
+    // Cache a loaded book unless it was evicted since generation was taken. The second check catches an eviction
+    // that ran between the first one and the put
+    public void putIfUnchanged(Long id, long generation, Book book) {
+        if (generation(id) != generation) {
+            return;
+        }
+        put(book);
+        if (generation(id) != generation) {
+            invalidate(book.getId(), book.getIsbn());
+        }
+    }
+    
+    // Same, for loads stamped with evictionCount
+    public void putIfNoEvictionSince(long evictionCount, Book book) {
+        if (evictionCount() != evictionCount) {
+            return;
+        }
+        put(book);
+        if (evictionCount() != evictionCount) {
+            invalidate(book.getId(), book.getIsbn());
+        }
+    }
+    
+    // Cache lookups without a loader, for the reactive read path; it loads misses itself and caches them through
+    // putIfUnchanged / putIfNoEvictionSince
+    public Optional<Book> peek(Long id) {
+        return Optional.ofNullable(booksById.getIfPresent(id));
+    }
+    
+    public Optional<Book> peekByIsbn(String isbn) {
+        return Optional.ofNullable(cachedByIsbn(isbn));
+    }
+    
+    private Book cachedByIsbn(String isbn) {
+        Long id = idsByIsbn.getIfPresent(isbn);
+        if (id == null) {
+            return null;
+        }
+        Book cached = booksById.getIfPresent(id);
+        return cached != null && isbn.equals(cached.getIsbn()) ? cached : null;
+    }
+    
+    // Evict locally and tell the other replicas once the write has committed
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        Book book = event.getBook();
+        evict(book.getId(), book.getIsbn());
+        localInvalidations.increment();
+        if (event.getType() == BookChangedEvent.ChangeType.CREATED) {
+            return;
+        }
+        try {
+            kafkaTemplate.send(invalidationTopic, String.valueOf(book.getId()),
+                    new BookInvalidationMessage(book.getId(), book.getIsbn(), instanceId));
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish cache invalidation for book {}: {}", book.getId(), e.getMessage());
+        }
+    }
+    
+    // Every replica must see every invalidation, so the (single) partition is assigned directly instead of shared
+    // through a consumer group; one fixed group id instead of a new one per start, and no committed position matters
+    // because each replica starts reading at the end
+    @KafkaListener(topicPartitions = @TopicPartition(
+                           topic = "${book.cache.invalidation-topic:book-cache-invalidations}", partitions = "0"),
+                   groupId = "book-cache-invalidations")
+    public void onInvalidation(BookInvalidationMessage message) {
+        if (instanceId.equals(message.getSourceInstance())) {
+            return;
+        }
+        evict(message.getBookId(), message.getIsbn());
+        remoteInvalidations.increment();
+    }
+    
+    // Invalidations from before this replica started are for entries it never cached
+    @Override
+    public void onPartitionsAssigned(Map<org.apache.kafka.common.TopicPartition, Long> assignments,
+                                     ConsumerSeekCallback callback) {
+        callback.seekToEnd(assignments.keySet());
+    }
+    
+    public void evict(Long id, String isbn) {
+        if (id != null) {
+            generations.incrementAndGet(stripe(id));
+        }
+        evictions.incrementAndGet();
+        invalidate(id, isbn);
+    }
+    
+    private void invalidate(Long id, String isbn) {
+        if (id != null) {
+            booksById.invalidate(id);
+        }
+        if (isbn != null) {
+            idsByIsbn.invalidate(isbn);
+        }
+    }
+    
+    private static int stripe(Long id) {
+        int hash = id.hashCode();
+        return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+    
+    // Only through putIfUnchanged and putIfNoEvictionSince, so no load can re-cache a row evicted while it ran
+    private void put(Book book) {
+        booksById.put(book.getId(), book);
+        if (book.getIsbn() != null) {
+            idsByIsbn.put(book.getIsbn(), book.getId());
+        }
+    }
+    
+    // Rough heap footprint: object headers plus two bytes per string character
+    static int estimateSize(Book book) {
+        return BASE_ENTRY_BYTES
+                + 2 * (length(book.getTitle()) + length(book.getAuthor()) + length(book.getIsbn())
+                + length(book.getDescription()) + length(book.getGenre()));
+    }
+    
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bookservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "book.batch")
+public class BookBatchProperties {
+    
+    // IDs per IN (...) query; keeps statements and bind lists a reasonable size
+    private int chunkSize = 1000;
+    
+    // Most IDs accepted in a single multi-get request
+    private int maxIds = 10000;
+}
@@ -0,0 +1,19 @@
+package com.example.bookservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class BookCacheConfig {
+    
+    // One partition: BookCache assigns partition 0 to itself on every replica
+    @Bean
+    public NewTopic bookCacheInvalidationTopic(BookCacheProperties properties) {
+        return TopicBuilder.name(properties.getInvalidationTopic())
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.bookservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "book.cache")
+public class BookCacheProperties {
+    
+    // Upper bound on the estimated heap held by cached books
+    private long maxWeightBytes = 64L * 1024 * 1024;
+    
+    // Safety net in case an invalidation message is lost
+    private Duration expireAfterWrite = Duration.ofMinutes(30);
+    
+    // Topic used to tell other replicas to evict a book
+    private String invalidationTopic = "book-cache-invalidations";
+}
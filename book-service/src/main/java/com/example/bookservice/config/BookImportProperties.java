@@ -0,0 +1,18 @@
+package com.example.bookservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "book.import")
+public class BookImportProperties {
+    
+    // Rows inserted per transaction; should be a multiple of hibernate.jdbc.batch_size
+    private int batchSize = 500;
+    
+    // Upper bound a client may request per call
+    private int maxBatchSize = 5000;
+    
+    // Per-row errors kept in the response; further failures are only counted
+    private int maxReportedErrors = 1000;
+}
@@ -0,0 +1,17 @@
+package com.example.bookservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "book.sync")
+public class BookSyncProperties {
+    
+    // Rows newer than now minus this lag are held back, so transactions still committing are not skipped
+    private Duration safetyLag = Duration.ofSeconds(5);
+    
+    // How long deletions stay visible to sync clients
+    private Duration tombstoneRetention = Duration.ofDays(30);
+}
@@ -0,0 +1,12 @@
+package com.example.bookservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "book.reactive")
+public class ReactiveBookProperties {
+    
+    // Port of the WebFlux server for /api/reactive/books, next to server.port's Tomcat; 0 picks a free one
+    private int port = 8091;
+}
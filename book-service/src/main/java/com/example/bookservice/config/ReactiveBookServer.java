@@ -0,0 +1,61 @@
+package com.example.bookservice.config;
+
+import com.example.bookservice.cache.BookCache;
+import com.example.bookservice.reactive.BookServiceBeans;
+import com.example.bookservice.reactive.ReactiveBookApplication;
+import com.example.bookservice.search.BookSearchIndex;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContextInitializer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// Runs ReactiveBookApplication next to this one, with the same command line, once this one is ready, and closes it
+// when this one shuts down. It is a separate context rather than a child, so its startup events don't reach the
+// listeners here, which would build the search index and facets again
+@Slf4j
+@Component
+public class ReactiveBookServer {
+    
+    private final ApplicationArguments arguments;
+    private final BookServiceBeans bookServiceBeans;
+    private volatile ConfigurableApplicationContext context;
+    
+    public ReactiveBookServer(ApplicationArguments arguments, BookCache bookCache, BookSearchIndex bookSearchIndex) {
+        this.arguments = arguments;
+        this.bookServiceBeans = new BookServiceBeans(bookCache, bookSearchIndex);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ApplicationContextInitializer<ConfigurableApplicationContext> lend = reactiveContext ->
+                reactiveContext.getBeanFactory().registerSingleton("bookServiceBeans", bookServiceBeans);
+        context = new SpringApplicationBuilder(ReactiveBookApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .registerShutdownHook(false)
+                .initializers(lend)
+                .run(arguments.getSourceArgs());
+        log.info("Reactive book reads served by WebFlux on port {}", getPort());
+    }
+    
+    // The port actually bound, which differs from book.reactive.port when that is 0
+    public int getPort() {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+    
+    @PreDestroy
+    public void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+}
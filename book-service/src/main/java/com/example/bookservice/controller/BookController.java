@@ -1,14 +1,34 @@
 package com.example.bookservice.controller;
 
 import com.example.bookservice.entity.Book;
+import com.example.bookservice.dto.BookBatchResult;
+import com.example.bookservice.dto.BookChangesResult;
+import com.example.bookservice.dto.BookFacetQuery;
+import com.example.bookservice.dto.BookFacetResult;
+import com.example.bookservice.dto.BookImportResult;
+import com.example.bookservice.dto.Suggestion;
+import com.example.bookservice.service.BookExportService;
+import com.example.bookservice.service.BookImportService;
 import com.example.bookservice.service.BookService;
+import com.example.bookservice.sync.BookSyncService;
+import com.example.bookservice.sync.SyncWatermark;
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.InvalidCursorException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/books")
@@ -16,6 +36,9 @@ import java.util.Optional;
 public class BookController {
     
     private final BookService bookService;
+    private final BookExportService bookExportService;
+    private final BookImportService bookImportService;
+    private final BookSyncService bookSyncService;
     
     // Create a new book
     @PostMapping
@@ -24,11 +47,88 @@ public class BookController {
         return new ResponseEntity<>(createdBook, HttpStatus.CREATED);
     }
     
-    // Get all books
+    // Bulk import books from a streamed CSV (with header row) or NDJSON body
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<BookImportResult> importBooks(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                        @RequestParam(required = false) Integer batchSize,
+                                                        InputStream body) throws IOException {
+        BookImportService.Format format = contentType.startsWith("text/csv")
+                ? BookImportService.Format.CSV
+                : BookImportService.Format.NDJSON;
+        try {
+            BookImportResult result = bookImportService.importBooks(body, format, batchSize);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Get all books, one page at a time
     @GetMapping
-    public ResponseEntity<List<Book>> getAllBooks() {
-        List<Book> books = bookService.getAllBooks();
-        return ResponseEntity.ok(books);
+    public ResponseEntity<CursorPage<Book>> getAllBooks(@RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Book> books = bookService.getBooksPage(cursor, size);
+            return ResponseEntity.ok(books);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Export the full catalog as newline-delimited JSON, optionally gzipped
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportBooks(@RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024, true);
+                bookExportService.exportBooks(gzipOut);
+                gzipOut.finish();
+            } else {
+                bookExportService.exportBooks(out);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"));
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+    
+    // Books created, updated or deleted after a watermark (or an ISO timestamp for the first call)
+    @GetMapping("/changes")
+    public ResponseEntity<BookChangesResult> getChanges(@RequestParam(required = false) String watermark,
+                                                        @RequestParam(required = false)
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime since,
+                                                        @RequestParam(required = false) Integer size) {
+        try {
+            SyncWatermark from = watermark != null ? SyncWatermark.decode(watermark)
+                    : since != null ? SyncWatermark.since(since)
+                    : SyncWatermark.origin();
+            BookChangesResult changes = bookSyncService.getChanges(from, size);
+            return ResponseEntity.ok(changes);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (BookSyncService.WatermarkExpiredException e) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        }
+    }
+    
+    // Get many books by ID, e.g. GET /api/books?ids=1,2,3
+    @GetMapping(params = "ids")
+    public ResponseEntity<BookBatchResult> getBooksByIds(@RequestParam List<Long> ids) {
+        try {
+            BookBatchResult result = bookService.getBooksByIds(ids);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Get many books by ID from a JSON array body, for ID lists too long for a URL
+    @PostMapping("/batch")
+    public ResponseEntity<BookBatchResult> getBooksByIdsBatch(@RequestBody List<Long> ids) {
+        return getBooksByIds(ids);
     }
     
     // Get book by ID
@@ -75,6 +175,44 @@ public class BookController {
         return ResponseEntity.ok(books);
     }
     
+    // Search books by title and author
+    @GetMapping("/search")
+    public ResponseEntity<List<Book>> searchBooksByTitleAndAuthor(@RequestParam String title,
+                                                                  @RequestParam String author) {
+        List<Book> books = bookService.searchBooksByTitleAndAuthor(title, author);
+        return ResponseEntity.ok(books);
+    }
+    
+    // Faceted filter over genre, published year and page count
+    @GetMapping("/facets")
+    public ResponseEntity<BookFacetResult> findFacets(@RequestParam(required = false) List<String> genre,
+                                                      @RequestParam(required = false) Integer yearFrom,
+                                                      @RequestParam(required = false) Integer yearTo,
+                                                      @RequestParam(required = false) Integer pagesFrom,
+                                                      @RequestParam(required = false) Integer pagesTo,
+                                                      @RequestParam(defaultValue = "100") int limit) {
+        BookFacetQuery query = new BookFacetQuery(genre, yearFrom, yearTo, pagesFrom, pagesTo,
+                Math.max(0, Math.min(limit, 1000)));
+        try {
+            BookFacetResult result = bookService.findFacets(query);
+            return ResponseEntity.ok(result);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
+    // Typeahead suggestions for titles and authors
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<Suggestion>> autocomplete(@RequestParam String q,
+                                                         @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<Suggestion> suggestions = bookService.suggest(q, Math.max(1, Math.min(limit, 50)));
+            return ResponseEntity.ok(suggestions);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
     // Get books by genre
     @GetMapping("/genre/{genre}")
     public ResponseEntity<List<Book>> getBooksByGenre(@PathVariable String genre) {
@@ -0,0 +1,19 @@
+package com.example.bookservice.dto;
+
+import com.example.bookservice.entity.Book;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookBatchResult {
+    
+    // Found books in the order their IDs were requested
+    private List<Book> books;
+    
+    private List<Long> missing;
+}
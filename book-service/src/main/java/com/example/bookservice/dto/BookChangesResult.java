@@ -0,0 +1,24 @@
+package com.example.bookservice.dto;
+
+import com.example.bookservice.entity.Book;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookChangesResult {
+    
+    private List<Book> changed;
+    
+    private List<Long> deleted;
+    
+    // Pass back as ?watermark= to continue from here
+    private String watermark;
+    
+    // True when more changes are already available; call again right away
+    private boolean hasMore;
+}
@@ -0,0 +1,26 @@
+package com.example.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookFacetQuery {
+    
+    // Books in any of these genres; empty means every genre
+    private List<String> genres;
+    
+    private Integer yearFrom;
+    
+    private Integer yearTo;
+    
+    private Integer pagesFrom;
+    
+    private Integer pagesTo;
+    
+    private int limit;
+}
@@ -0,0 +1,23 @@
+package com.example.bookservice.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+// Facet counts ignore the facet's own filter, so clients can show how many books each alternative would add
+@Data
+@NoArgsConstructor
+public class BookFacetResult {
+    
+    private long total;
+    
+    private List<Long> ids;
+    
+    private Map<String, Long> genres;
+    
+    private Map<Integer, Long> publishedYears;
+    
+    private Map<String, Long> pageCounts;
+}
@@ -0,0 +1,35 @@
+package com.example.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class BookImportResult {
+    
+    private long inserted;
+    
+    private long failed;
+    
+    private List<RowError> errors = new ArrayList<>();
+    
+    private boolean errorsTruncated;
+    
+    private long elapsedMillis;
+    
+    private double rowsPerSecond;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        
+        private long line;
+        
+        private String message;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.bookservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Suggestion {
+    
+    public enum Kind {
+        TITLE, AUTHOR
+    }
+    
+    private String text;
+    
+    private Kind kind;
+    
+    // Number of books carrying this title or author; used for ranking
+    private int count;
+}
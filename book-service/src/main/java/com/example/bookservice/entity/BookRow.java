@@ -0,0 +1,49 @@
+package com.example.bookservice.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDateTime;
+
+// R2DBC mapping of the books table for the reactive read path. It is never written through, so Book stays the only
+// mapping Hibernate manages
+@Table("books")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookRow {
+    
+    @Id
+    private Long id;
+    
+    private String title;
+    
+    private String author;
+    
+    private String isbn;
+    
+    private String description;
+    
+    @Column("published_year")
+    private Integer publishedYear;
+    
+    private String genre;
+    
+    @Column("page_count")
+    private Integer pageCount;
+    
+    @Column("created_at")
+    private LocalDateTime createdAt;
+    
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Same shape the servlet API returns and BookCache holds
+    public Book toBook() {
+        return new Book(id, title, author, isbn, description, publishedYear, genre, pageCount, createdAt, updatedAt);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.bookservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Marker left behind by a deleted book so delta-sync clients learn about the deletion
+@Entity
+@Table(name = "book_tombstones", indexes = {
+        @Index(name = "idx_book_tombstones_deleted", columnList = "deleted_at, book_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookTombstone {
+    
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
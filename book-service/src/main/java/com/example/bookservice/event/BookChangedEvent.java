@@ -0,0 +1,17 @@
+package com.example.bookservice.event;
+
+import com.example.bookservice.entity.Book;
+import lombok.Value;
+
+// Published by BookService on every write; in-memory views listen after commit
+@Value
+public class BookChangedEvent {
+    
+    ChangeType type;
+    
+    Book book;
+    
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.bookservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Kafka payload asking every book-service replica to evict a cached book
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookInvalidationMessage {
+    
+    private Long bookId;
+    
+    private String isbn;
+    
+    private String sourceInstance;
+}
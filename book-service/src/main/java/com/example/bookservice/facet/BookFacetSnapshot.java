@@ -0,0 +1,249 @@
+package com.example.bookservice.facet;
+
+import com.example.bookservice.dto.BookFacetQuery;
+import com.example.bookservice.dto.BookFacetResult;
+import com.example.bookservice.entity.Book;
+import com.example.bookservice.event.BookChangedEvent;
+import com.example.bookservice.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Columnar, in-memory copy of the Book fields used for faceted filtering.
+// Each book occupies one slot; columns are primitive arrays indexed by slot and genres are bitmaps over slots.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookFacetSnapshot {
+    
+    private static final int NULL_VALUE = Integer.MIN_VALUE;
+    private static final int PAGE_BUCKET_WIDTH = 100;
+    private static final int PAGE_BUCKET_LAST = 500;
+    
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Map<String, BitSet> genreBitmaps = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet freeSlots = new BitSet();
+    private long[] ids = new long[1024];
+    private int[] years = new int[1024];
+    private int[] pageCounts = new int[1024];
+    private String[] genres = new String[1024];
+    private int slotCount;
+    private volatile boolean ready;
+    
+    // Load the snapshot once the application has started
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            try (Stream<Book> books = bookRepository.streamAllOrderById()) {
+                Iterator<Book> iterator = books.iterator();
+                while (iterator.hasNext()) {
+                    Book book = iterator.next();
+                    upsert(book);
+                    entityManager.detach(book);
+                }
+            }
+            ready = true;
+            log.info("Book facet snapshot built: {} books, {} genres, ~{} KB",
+                    slotById.size(), genreBitmaps.size(), estimatedBytes() / 1024);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    // Apply committed writes to the snapshot
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == BookChangedEvent.ChangeType.DELETED) {
+                remove(event.getBook().getId());
+            } else {
+                upsert(event.getBook());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    // Filter and count every facet in a single pass over live slots
+    public BookFacetResult query(BookFacetQuery query) {
+        lock.readLock().lock();
+        try {
+            BitSet genreFilter = genreFilter(query.getGenres());
+            int yearFrom = query.getYearFrom() == null ? Integer.MIN_VALUE : query.getYearFrom();
+            int yearTo = query.getYearTo() == null ? Integer.MAX_VALUE : query.getYearTo();
+            int pagesFrom = query.getPagesFrom() == null ? Integer.MIN_VALUE : query.getPagesFrom();
+            int pagesTo = query.getPagesTo() == null ? Integer.MAX_VALUE : query.getPagesTo();
+            boolean yearFiltered = query.getYearFrom() != null || query.getYearTo() != null;
+            boolean pagesFiltered = query.getPagesFrom() != null || query.getPagesTo() != null;
+            
+            Map<String, Long> genreCounts = new HashMap<>();
+            Map<Integer, Long> yearCounts = new TreeMap<>();
+            long[] pageBuckets = new long[PAGE_BUCKET_LAST / PAGE_BUCKET_WIDTH + 1];
+            PriorityQueue<Long> firstIds = new PriorityQueue<>(Collections.reverseOrder());
+            long total = 0;
+            
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                int year = years[slot];
+                int pages = pageCounts[slot];
+                boolean genreOk = genreFilter == null || genreFilter.get(slot);
+                boolean yearOk = !yearFiltered || (year != NULL_VALUE && year >= yearFrom && year <= yearTo);
+                boolean pagesOk = !pagesFiltered || (pages != NULL_VALUE && pages >= pagesFrom && pages <= pagesTo);
+                
+                if (yearOk && pagesOk && genres[slot] != null) {
+                    genreCounts.merge(genres[slot], 1L, Long::sum);
+                }
+                if (genreOk && pagesOk && year != NULL_VALUE) {
+                    yearCounts.merge(year, 1L, Long::sum);
+                }
+                if (genreOk && yearOk && pages != NULL_VALUE && pages >= 0) {
+                    pageBuckets[Math.min(pages, PAGE_BUCKET_LAST) / PAGE_BUCKET_WIDTH]++;
+                }
+                if (genreOk && yearOk && pagesOk) {
+                    total++;
+                    keepSmallest(firstIds, ids[slot], query.getLimit());
+                }
+            }
+            
+            List<Long> matchingIds = new ArrayList<>(firstIds);
+            Collections.sort(matchingIds);
+            BookFacetResult result = new BookFacetResult();
+            result.setTotal(total);
+            result.setIds(matchingIds);
+            result.setGenres(genreCounts);
+            result.setPublishedYears(yearCounts);
+            result.setPageCounts(pageBucketLabels(pageBuckets));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Approximate heap used by columns, bitmaps and the slot map
+    public long estimatedBytes() {
+        long columns = (long) ids.length * (8 + 4 + 4 + 4);
+        long bitmaps = (live.size() + freeSlots.size()) / 8;
+        for (BitSet bitmap : genreBitmaps.values()) {
+            bitmaps += bitmap.size() / 8;
+        }
+        return columns + bitmaps + slotById.size() * 48L;
+    }
+    
+    private void upsert(Book book) {
+        Integer existing = slotById.get(book.getId());
+        int slot = existing != null ? existing : allocateSlot(book.getId());
+        if (genres[slot] != null) {
+            BitSet previous = genreBitmaps.get(genres[slot]);
+            previous.clear(slot);
+            if (previous.isEmpty()) {
+                genreBitmaps.remove(genres[slot]);
+            }
+        }
+        years[slot] = book.getPublishedYear() == null ? NULL_VALUE : book.getPublishedYear();
+        pageCounts[slot] = book.getPageCount() == null ? NULL_VALUE : book.getPageCount();
+        genres[slot] = book.getGenre() == null ? null : book.getGenre().intern();
+        if (genres[slot] != null) {
+            genreBitmaps.computeIfAbsent(genres[slot], g -> new BitSet()).set(slot);
+        }
+    }
+    
+    private void remove(Long id) {
+        Integer slot = slotById.remove(id);
+        if (slot == null) {
+            return;
+        }
+        if (genres[slot] != null) {
+            BitSet bitmap = genreBitmaps.get(genres[slot]);
+            bitmap.clear(slot);
+            if (bitmap.isEmpty()) {
+                genreBitmaps.remove(genres[slot]);
+            }
+            genres[slot] = null;
+        }
+        live.clear(slot);
+        freeSlots.set(slot);
+    }
+    
+    private int allocateSlot(long id) {
+        int slot = freeSlots.nextSetBit(0);
+        if (slot >= 0) {
+            freeSlots.clear(slot);
+        } else {
+            slot = slotCount++;
+            if (slot == ids.length) {
+                int capacity = ids.length + (ids.length >> 1);
+                ids = Arrays.copyOf(ids, capacity);
+                years = Arrays.copyOf(years, capacity);
+                pageCounts = Arrays.copyOf(pageCounts, capacity);
+                genres = Arrays.copyOf(genres, capacity);
+            }
+        }
+        ids[slot] = id;
+        live.set(slot);
+        slotById.put(id, slot);
+        return slot;
+    }
+    
+    private BitSet genreFilter(List<String> requested) {
+        if (requested == null || requested.isEmpty()) {
+            return null;
+        }
+        BitSet filter = new BitSet();
+        for (String genre : requested) {
+            BitSet bitmap = genreBitmaps.get(genre);
+            if (bitmap != null) {
+                filter.or(bitmap);
+            }
+        }
+        return filter;
+    }
+    
+    private static void keepSmallest(PriorityQueue<Long> heap, long id, int limit) {
+        if (heap.size() < limit) {
+            heap.add(id);
+        } else if (limit > 0 && id < heap.peek()) {
+            heap.poll();
+            heap.add(id);
+        }
+    }
+    
+    private static Map<String, Long> pageBucketLabels(long[] buckets) {
+        Map<String, Long> labelled = new LinkedHashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            int from = i * PAGE_BUCKET_WIDTH;
+            String label = from >= PAGE_BUCKET_LAST ? from + "+" : from + "-" + (from + PAGE_BUCKET_WIDTH - 1);
+            labelled.put(label, buckets[i]);
+        }
+        return labelled;
+    }
+}
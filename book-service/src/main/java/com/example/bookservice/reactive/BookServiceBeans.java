@@ -0,0 +1,15 @@
+package com.example.bookservice.reactive;
+
+import com.example.bookservice.cache.BookCache;
+import com.example.bookservice.search.BookSearchIndex;
+import lombok.Value;
+
+// The MVC application's book cache and search index, lent to ReactiveBookApplication so both APIs share them. Passed
+// in this wrapper rather than as beans of that context, which would run their event listeners a second time
+@Value
+public class BookServiceBeans {
+    
+    BookCache bookCache;
+    
+    BookSearchIndex bookSearchIndex;
+}
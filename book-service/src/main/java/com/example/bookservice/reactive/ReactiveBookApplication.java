@@ -0,0 +1,46 @@
+package com.example.bookservice.reactive;
+
+import com.example.bookservice.config.BookBatchProperties;
+import com.example.bookservice.config.ReactiveBookProperties;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.codec.CodecsAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.HttpHandlerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.WebFluxAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.reactive.error.ErrorWebFluxAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+// The reactive read API as an application of its own: WebFlux on Netty over R2DBC, started and stopped by
+// ReactiveBookServer inside the book-service process. Only what these reads need is configured, so it opens no JDBC
+// pool, Kafka consumer or Tomcat of its own
+@SpringBootConfiguration
+@ImportAutoConfiguration({
+        PropertyPlaceholderAutoConfiguration.class,
+        JacksonAutoConfiguration.class,
+        CodecsAutoConfiguration.class,
+        HttpHandlerAutoConfiguration.class,
+        WebFluxAutoConfiguration.class,
+        ErrorWebFluxAutoConfiguration.class,
+        R2dbcAutoConfiguration.class,
+        R2dbcDataAutoConfiguration.class
+})
+@ComponentScan
+@EnableR2dbcRepositories
+@EnableConfigurationProperties({ReactiveBookProperties.class, BookBatchProperties.class})
+public class ReactiveBookApplication {
+    
+    // Declared rather than auto-configured: Tomcat is on the classpath for the MVC application and would be chosen,
+    // on the MVC application's server.port
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ReactiveBookProperties properties) {
+        return new NettyReactiveWebServerFactory(properties.getPort());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.bookservice.reactive;
+
+import com.example.bookservice.entity.Book;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Reads mirroring BookController over R2DBC, served by WebFlux on Netty (ReactiveBookApplication). Lists are written
+// one book per line as newline-delimited JSON, and more rows are requested only while the connection can take more
+// writes, so a slow reader holds back the query instead of a thread
+@RestController
+@RequestMapping("/api/reactive/books")
+@RequiredArgsConstructor
+public class ReactiveBookController {
+    
+    private final ReactiveBookService reactiveBookService;
+    
+    // Get book by ID
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Book>> getBookById(@PathVariable Long id) {
+        return reactiveBookService.getBookById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    // Get book by ISBN
+    @GetMapping("/isbn/{isbn}")
+    public Mono<ResponseEntity<Book>> getBookByIsbn(@PathVariable String isbn) {
+        return reactiveBookService.getBookByIsbn(isbn)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    // Get books by genre
+    @GetMapping(value = "/genre/{genre}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Book> getBooksByGenre(@PathVariable String genre) {
+        return reactiveBookService.getBooksByGenre(genre);
+    }
+    
+    // Search books by title
+    @GetMapping(value = "/search/title", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Book> searchBooksByTitle(@RequestParam String title) {
+        return reactiveBookService.searchBooksByTitle(title);
+    }
+    
+    // Search books by author
+    @GetMapping(value = "/search/author", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Book> searchBooksByAuthor(@RequestParam String author) {
+        return reactiveBookService.searchBooksByAuthor(author);
+    }
+    
+    // Search books by title and author
+    @GetMapping(value = "/search", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Book> searchBooksByTitleAndAuthor(@RequestParam String title, @RequestParam String author) {
+        return reactiveBookService.searchBooksByTitleAndAuthor(title, author);
+    }
+}
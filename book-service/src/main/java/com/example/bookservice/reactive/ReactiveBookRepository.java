@@ -0,0 +1,61 @@
+package com.example.bookservice.reactive;
+
+import com.example.bookservice.entity.BookRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+// Non-blocking counterpart of BookRepository's queries; rows are emitted as the driver fetches them
+@Repository
+public interface ReactiveBookRepository extends R2dbcRepository<BookRow, Long> {
+    
+    // Find books by title (case-insensitive)
+    Flux<BookRow> findByTitleContainingIgnoreCase(String title);
+    
+    // Find books by author (case-insensitive)
+    Flux<BookRow> findByAuthorContainingIgnoreCase(String author);
+    
+    // Find books by genre
+    Flux<BookRow> findByGenre(String genre);
+    
+    // Find books by ISBN
+    Mono<BookRow> findByIsbn(String isbn);
+    
+    // Find books by published year
+    Flux<BookRow> findByPublishedYear(Integer year);
+    
+    // Custom query to find books by title and author
+    @Query("SELECT * FROM books WHERE title LIKE '%' || :title || '%' AND author LIKE '%' || :author || '%'")
+    Flux<BookRow> findByTitleAndAuthor(@Param("title") String title, @Param("author") String author);
+    
+    // Search index hits by primary key, in ID order
+    Flux<BookRow> findByIdInOrderByIdAsc(Collection<Long> ids);
+    
+    // Keyset pagination: first page ordered by ID
+    Flux<BookRow> findAllByOrderByIdAsc(Pageable pageable);
+    
+    // Keyset pagination: rows after the given ID
+    Flux<BookRow> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Keyset pagination for delta sync; string queries don't take a Pageable here, so the page size is a parameter
+    @Query("SELECT * FROM books " +
+           "WHERE (updated_at > :updatedAt OR (updated_at = :updatedAt AND id > :id)) " +
+           "AND updated_at <= :until " +
+           "ORDER BY updated_at, id " +
+           "LIMIT :limit")
+    Flux<BookRow> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                   @Param("id") Long id,
+                                   @Param("until") LocalDateTime until,
+                                   @Param("limit") int limit);
+    
+    // The whole catalog in ID order; with a fetch size the driver reads it through a cursor at the subscriber's pace
+    @Query("SELECT * FROM books ORDER BY id")
+    Flux<BookRow> streamAllOrderById();
+}
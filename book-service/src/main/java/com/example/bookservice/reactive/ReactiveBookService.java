@@ -0,0 +1,97 @@
+package com.example.bookservice.reactive;
+
+import com.example.bookservice.cache.BookCache;
+import com.example.bookservice.config.BookBatchProperties;
+import com.example.bookservice.entity.Book;
+import com.example.bookservice.entity.BookRow;
+import com.example.bookservice.search.BookSearchIndex;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Read-only mirror of BookService's lookups and searches over R2DBC; writes stay on the JPA path
+@Service
+public class ReactiveBookService {
+    
+    private final ReactiveBookRepository reactiveBookRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookCache bookCache;
+    private final BookBatchProperties batchProperties;
+    
+    public ReactiveBookService(ReactiveBookRepository reactiveBookRepository,
+                               BookServiceBeans bookServiceBeans,
+                               BookBatchProperties batchProperties) {
+        this.reactiveBookRepository = reactiveBookRepository;
+        this.bookSearchIndex = bookServiceBeans.getBookSearchIndex();
+        this.bookCache = bookServiceBeans.getBookCache();
+        this.batchProperties = batchProperties;
+    }
+    
+    // Get book by ID (cache hits never touch a connection). The generation is taken before the query, so a row
+    // evicted by a write while the query ran is not cached
+    public Mono<Book> getBookById(Long id) {
+        return Mono.justOrEmpty(bookCache.peek(id))
+                .switchIfEmpty(Mono.defer(() -> {
+                    long generation = bookCache.generation(id);
+                    return reactiveBookRepository.findById(id)
+                            .map(BookRow::toBook)
+                            .doOnNext(book -> bookCache.putIfUnchanged(id, generation, book));
+                }));
+    }
+    
+    // Get book by ISBN, through the same cache; the ID is unknown until the row arrives, so any eviction meanwhile
+    // skips the put
+    public Mono<Book> getBookByIsbn(String isbn) {
+        return Mono.justOrEmpty(bookCache.peekByIsbn(isbn))
+                .switchIfEmpty(Mono.defer(() -> {
+                    long evictionCount = bookCache.evictionCount();
+                    return reactiveBookRepository.findByIsbn(isbn)
+                            .map(BookRow::toBook)
+                            .doOnNext(book -> bookCache.putIfNoEvictionSince(evictionCount, book));
+                }));
+    }
+    
+    // Get books by genre
+    public Flux<Book> getBooksByGenre(String genre) {
+        return reactiveBookRepository.findByGenre(genre).map(BookRow::toBook);
+    }
+    
+    // Search books by title
+    public Flux<Book> searchBooksByTitle(String title) {
+        if (!bookSearchIndex.isReady()) {
+            return reactiveBookRepository.findByTitleContainingIgnoreCase(title).map(BookRow::toBook);
+        }
+        return findAllInIdOrder(bookSearchIndex.searchTitle(title));
+    }
+    
+    // Search books by author
+    public Flux<Book> searchBooksByAuthor(String author) {
+        if (!bookSearchIndex.isReady()) {
+            return reactiveBookRepository.findByAuthorContainingIgnoreCase(author).map(BookRow::toBook);
+        }
+        return findAllInIdOrder(bookSearchIndex.searchAuthor(author));
+    }
+    
+    // Search books by title and author
+    public Flux<Book> searchBooksByTitleAndAuthor(String title, String author) {
+        if (!bookSearchIndex.isReady()) {
+            return reactiveBookRepository.findByTitleAndAuthor(title, author).map(BookRow::toBook);
+        }
+        return findAllInIdOrder(bookSearchIndex.searchTitleAndAuthor(title, author));
+    }
+    
+    // One IN (...) query per chunk of sorted IDs, run one after another, so the stream comes out in ID order and a
+    // chunk is only queried once the client has taken the previous one
+    private Flux<Book> findAllInIdOrder(List<Long> ids) {
+        List<Long> sorted = new ArrayList<>(ids);
+        sorted.sort(null);
+        int chunkSize = batchProperties.getChunkSize();
+        return Flux.range(0, (sorted.size() + chunkSize - 1) / chunkSize)
+                .concatMap(chunk -> reactiveBookRepository.findByIdInOrderByIdAsc(
+                        sorted.subList(chunk * chunkSize, Math.min((chunk + 1) * chunkSize, sorted.size()))))
+                .map(BookRow::toBook);
+    }
+}
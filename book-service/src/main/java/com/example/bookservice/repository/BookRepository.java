@@ -1,13 +1,19 @@
 package com.example.bookservice.repository;
 
 import com.example.bookservice.entity.Book;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
@@ -30,4 +36,29 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     // Custom query to find books by title and author
     @Query("SELECT b FROM Book b WHERE b.title LIKE %:title% AND b.author LIKE %:author%")
     List<Book> findByTitleAndAuthor(@Param("title") String title, @Param("author") String author);
+    
+    // Keyset pagination: first page ordered by ID
+    List<Book> findAllByOrderByIdAsc(Pageable pageable);
+    
+    // Keyset pagination: rows after the given ID
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Keyset pagination for delta sync: books changed after (updatedAt, id), up to an upper time bound
+    @Query("SELECT b FROM Book b " +
+           "WHERE (b.updatedAt > :updatedAt OR (b.updatedAt = :updatedAt AND b.id > :id)) " +
+           "AND b.updatedAt <= :until " +
+           "ORDER BY b.updatedAt, b.id")
+    List<Book> findChangedAfter(@Param("updatedAt") LocalDateTime updatedAt,
+                                @Param("id") Long id,
+                                @Param("until") LocalDateTime until,
+                                Pageable pageable);
+    
+    // Forward-only cursor over the whole catalog for exports (caller must close the stream inside a transaction)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT b FROM Book b ORDER BY b.id")
+    Stream<Book> streamAllOrderById();
 }
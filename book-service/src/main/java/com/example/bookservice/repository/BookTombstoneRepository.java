@@ -0,0 +1,31 @@
+package com.example.bookservice.repository;
+
+import com.example.bookservice.entity.BookTombstone;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookTombstoneRepository extends JpaRepository<BookTombstone, Long> {
+    
+    // Keyset pagination: tombstones after (deletedAt, bookId), up to an upper time bound
+    @Query("SELECT t FROM BookTombstone t " +
+           "WHERE (t.deletedAt > :deletedAt OR (t.deletedAt = :deletedAt AND t.bookId > :bookId)) " +
+           "AND t.deletedAt <= :until " +
+           "ORDER BY t.deletedAt, t.bookId")
+    List<BookTombstone> findDeletedAfter(@Param("deletedAt") LocalDateTime deletedAt,
+                                         @Param("bookId") Long bookId,
+                                         @Param("until") LocalDateTime until,
+                                         Pageable pageable);
+    
+    // Drop tombstones older than the retention window
+    @Modifying
+    @Query("DELETE FROM BookTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") LocalDateTime cutoff);
+}
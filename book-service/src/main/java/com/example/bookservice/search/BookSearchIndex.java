@@ -0,0 +1,127 @@
+package com.example.bookservice.search;
+
+import com.example.bookservice.entity.Book;
+import com.example.bookservice.event.BookChangedEvent;
+import com.example.bookservice.repository.BookRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// In-memory trigram index over book titles and authors, used instead of LIKE '%q%' scans
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookSearchIndex {
+    
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    
+    private final TrigramIndex titles = new TrigramIndex();
+    private final TrigramIndex authors = new TrigramIndex();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    
+    // Build the index from the catalog once the application has started
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            try (Stream<Book> books = bookRepository.streamAllOrderById()) {
+                Iterator<Book> iterator = books.iterator();
+                while (iterator.hasNext()) {
+                    Book book = iterator.next();
+                    put(book);
+                    entityManager.detach(book);
+                }
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Book search index built: {} books, {} title trigrams in {} ms",
+                titles.size(), titles.trigramCount(), System.currentTimeMillis() - started);
+    }
+    
+    // Keep the index in step with committed writes
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == BookChangedEvent.ChangeType.DELETED) {
+                titles.remove(event.getBook().getId());
+                authors.remove(event.getBook().getId());
+            } else {
+                put(event.getBook());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    // IDs of books whose title contains the query, ignoring case
+    public List<Long> searchTitle(String title) {
+        lock.readLock().lock();
+        try {
+            return sorted(titles.containsIgnoreCase(title));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // IDs of books whose author contains the query, ignoring case
+    public List<Long> searchAuthor(String author) {
+        lock.readLock().lock();
+        try {
+            return sorted(authors.containsIgnoreCase(author));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // IDs of books whose title and author both contain the queries, case-sensitive like the JPQL query
+    public List<Long> searchTitleAndAuthor(String title, String author) {
+        lock.readLock().lock();
+        try {
+            List<Long> result = new ArrayList<>();
+            for (long id : titles.candidates(TrigramIndex.normalize(title))) {
+                String bookTitle = titles.valueOf(id);
+                String bookAuthor = authors.valueOf(id);
+                if (bookTitle != null && bookTitle.contains(title)
+                        && bookAuthor != null && bookAuthor.contains(author)) {
+                    result.add(id);
+                }
+            }
+            return sorted(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void put(Book book) {
+        titles.put(book.getId(), book.getTitle());
+        authors.put(book.getId(), book.getAuthor());
+    }
+    
+    private static List<Long> sorted(List<Long> ids) {
+        Collections.sort(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.bookservice.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Inverted index from lower-cased character trigrams to the IDs of the values containing them.
+// Not thread-safe; BookSearchIndex guards access.
+class TrigramIndex {
+    
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Long, String> values = new HashMap<>();
+    
+    int size() {
+        return values.size();
+    }
+    
+    int trigramCount() {
+        return postings.size();
+    }
+    
+    void put(long id, String value) {
+        remove(id);
+        if (value == null) {
+            return;
+        }
+        values.put(id, value);
+        for (long trigram : trigrams(normalize(value))) {
+            postings.computeIfAbsent(trigram, k -> new PostingList()).add(id);
+        }
+    }
+    
+    void remove(long id) {
+        String previous = values.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (long trigram : trigrams(normalize(previous))) {
+            PostingList list = postings.get(trigram);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(trigram);
+                }
+            }
+        }
+    }
+    
+    String valueOf(long id) {
+        return values.get(id);
+    }
+    
+    // IDs whose value contains the query, ignoring case (LIKE '%query%' semantics)
+    List<Long> containsIgnoreCase(String query) {
+        String needle = normalize(query);
+        List<Long> result = new ArrayList<>();
+        for (long id : candidates(needle)) {
+            if (normalize(values.get(id)).contains(needle)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+    
+    // Candidate IDs for a normalized query; every trigram of the query must be present
+    Iterable<Long> candidates(String needle) {
+        Set<Long> grams = trigrams(needle);
+        if (grams.isEmpty()) {
+            // Too short to use trigrams: verify every value
+            return new ArrayList<>(values.keySet());
+        }
+        PostingList smallest = null;
+        List<PostingList> lists = new ArrayList<>(grams.size());
+        for (long gram : grams) {
+            PostingList list = postings.get(gram);
+            if (list == null) {
+                return new ArrayList<>();
+            }
+            lists.add(list);
+            if (smallest == null || list.size() < smallest.size()) {
+                smallest = list;
+            }
+        }
+        List<Long> result = new ArrayList<>(smallest.size());
+        for (int i = 0; i < smallest.size(); i++) {
+            long id = smallest.get(i);
+            boolean inAll = true;
+            for (PostingList list : lists) {
+                if (list != smallest && !list.contains(id)) {
+                    inAll = false;
+                    break;
+                }
+            }
+            if (inAll) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+    
+    static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+    
+    // Pack each 3-char window into a long (16 bits per char)
+    static Set<Long> trigrams(String normalized) {
+        Set<Long> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            grams.add(((long) normalized.charAt(i) << 32)
+                    | ((long) normalized.charAt(i + 1) << 16)
+                    | normalized.charAt(i + 2));
+        }
+        return grams;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.bookservice.service;
+
+import com.example.bookservice.entity.Book;
+import com.example.bookservice.repository.BookRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookExportService {
+    
+    // Push bytes to the client at least this often so slow consumers see steady progress
+    private static final int FLUSH_EVERY = 500;
+    
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    
+    // Write every book as newline-delimited JSON, holding at most one fetch batch in memory
+    @Transactional(readOnly = true)
+    public long exportBooks(OutputStream out) throws IOException {
+        // Flush only where FLUSH_EVERY says, and no root-value separator: each line is just the object
+        ObjectWriter writer = objectMapper.writerFor(Book.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("");
+        long count = 0;
+        try (Stream<Book> books = bookRepository.streamAllOrderById();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            Iterator<Book> iterator = books.iterator();
+            while (iterator.hasNext()) {
+                Book book = iterator.next();
+                writer.writeValue(generator, book);
+                generator.writeRaw('\n');
+                entityManager.detach(book);
+                if (++count % FLUSH_EVERY == 1) {
+                    generator.flush();
+                }
+            }
+            generator.flush();
+        }
+        log.info("Exported {} books", count);
+        return count;
+    }
+}
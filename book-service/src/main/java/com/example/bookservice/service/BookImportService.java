@@ -0,0 +1,227 @@
+package com.example.bookservice.service;
+
+import com.example.bookservice.config.BookImportProperties;
+import com.example.bookservice.dto.BookImportResult;
+import com.example.bookservice.entity.Book;
+import com.example.bookservice.event.BookChangedEvent;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Streams CSV or NDJSON book records from a request body and inserts them in JDBC batches
+@Slf4j
+@Service
+public class BookImportService {
+    
+    public enum Format {
+        CSV, NDJSON
+    }
+    
+    private static final List<String> CSV_COLUMNS = List.of(
+            "title", "author", "isbn", "description", "publishedyear", "genre", "pagecount");
+    
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader bookReader;
+    private final BookImportProperties properties;
+    
+    public BookImportService(EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             ApplicationEventPublisher eventPublisher,
+                             ObjectMapper objectMapper,
+                             BookImportProperties properties) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.bookReader = objectMapper.readerFor(Book.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.properties = properties;
+    }
+    
+    // Import every record in the stream; memory is bounded by one batch plus the error report
+    public BookImportResult importBooks(InputStream body, Format format, Integer requestedBatchSize) throws IOException {
+        int batchSize = resolveBatchSize(requestedBatchSize);
+        BookImportResult result = new BookImportResult();
+        long started = System.nanoTime();
+        
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<Book> batch = new ArrayList<>(batchSize);
+        List<Long> batchLines = new ArrayList<>(batchSize);
+        Map<String, Integer> header = null;
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (format == Format.CSV && header == null) {
+                header = parseHeader(line);
+                continue;
+            }
+            try {
+                Book book = format == Format.CSV ? fromCsv(line, header) : fromJson(line);
+                validate(book);
+                batch.add(book);
+                batchLines.add(lineNumber);
+            } catch (RuntimeException | IOException e) {
+                recordError(result, lineNumber, e.getMessage());
+            }
+            if (batch.size() >= batchSize) {
+                flushBatch(batch, batchLines, result);
+            }
+        }
+        flushBatch(batch, batchLines, result);
+        
+        result.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+        result.setRowsPerSecond(result.getElapsedMillis() == 0
+                ? result.getInserted()
+                : result.getInserted() * 1000.0 / result.getElapsedMillis());
+        log.info("Book import finished: {} inserted, {} failed in {} ms",
+                result.getInserted(), result.getFailed(), result.getElapsedMillis());
+        return result;
+    }
+    
+    // Insert a batch in one transaction; if it fails, retry row by row to pinpoint the bad rows
+    private void flushBatch(List<Book> batch, List<Long> batchLines, BookImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> persistAll(batch));
+            result.setInserted(result.getInserted() + batch.size());
+        } catch (RuntimeException batchFailure) {
+            log.debug("Batch insert failed, retrying rows individually: {}", batchFailure.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                Book book = batch.get(i);
+                book.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persistAll(List.of(book)));
+                    result.setInserted(result.getInserted() + 1);
+                } catch (RuntimeException rowFailure) {
+                    recordError(result, batchLines.get(i), rootMessage(rowFailure));
+                }
+            }
+        }
+        batch.clear();
+        batchLines.clear();
+    }
+    
+    private void persistAll(List<Book> books) {
+        for (Book book : books) {
+            entityManager.persist(book);
+            eventPublisher.publishEvent(new BookChangedEvent(BookChangedEvent.ChangeType.CREATED, book));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    private int resolveBatchSize(Integer requested) {
+        if (requested == null || requested < 1) {
+            return properties.getBatchSize();
+        }
+        return Math.min(requested, properties.getMaxBatchSize());
+    }
+    
+    private Map<String, Integer> parseHeader(String line) {
+        Map<String, Integer> header = new HashMap<>();
+        List<String> names = CsvLineParser.parse(line);
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase(Locale.ROOT).replace("_", "");
+            if (CSV_COLUMNS.contains(name)) {
+                header.put(name, i);
+            }
+        }
+        if (!header.containsKey("title") || !header.containsKey("author")) {
+            throw new IllegalArgumentException("CSV header must include title and author columns");
+        }
+        return header;
+    }
+    
+    private Book fromCsv(String line, Map<String, Integer> header) {
+        List<String> fields = CsvLineParser.parse(line);
+        Book book = new Book();
+        book.setTitle(field(fields, header, "title"));
+        book.setAuthor(field(fields, header, "author"));
+        book.setIsbn(field(fields, header, "isbn"));
+        book.setDescription(field(fields, header, "description"));
+        book.setGenre(field(fields, header, "genre"));
+        book.setPublishedYear(intField(fields, header, "publishedyear"));
+        book.setPageCount(intField(fields, header, "pagecount"));
+        return book;
+    }
+    
+    private Book fromJson(String line) throws IOException {
+        Book book = bookReader.readValue(line);
+        book.setId(null);
+        return book;
+    }
+    
+    private static String field(List<String> fields, Map<String, Integer> header, String name) {
+        Integer index = header.get(name);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+    
+    private static Integer intField(List<String> fields, Map<String, Integer> header, String name) {
+        String value = field(fields, header, name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Column " + name + " is not a number: " + value);
+        }
+    }
+    
+    private static void validate(Book book) {
+        if (book.getTitle() == null || book.getTitle().isBlank()) {
+            throw new IllegalArgumentException("title is required");
+        }
+        if (book.getAuthor() == null || book.getAuthor().isBlank()) {
+            throw new IllegalArgumentException("author is required");
+        }
+        if (book.getDescription() != null && book.getDescription().length() > 1000) {
+            throw new IllegalArgumentException("description exceeds 1000 characters");
+        }
+    }
+    
+    private void recordError(BookImportResult result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < properties.getMaxReportedErrors()) {
+            result.getErrors().add(new BookImportResult.RowError(line, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+    
+    private static String rootMessage(Throwable e) {
+        Throwable root = e;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        return root.getMessage();
+    }
+}
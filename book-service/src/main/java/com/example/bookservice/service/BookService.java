@@ -1,13 +1,38 @@
 package com.example.bookservice.service;
 
+import com.example.bookservice.cache.BookCache;
+import com.example.bookservice.config.BookBatchProperties;
+import com.example.bookservice.dto.BookBatchResult;
+import com.example.bookservice.dto.BookFacetQuery;
+import com.example.bookservice.dto.BookFacetResult;
+import com.example.bookservice.dto.Suggestion;
 import com.example.bookservice.entity.Book;
+import com.example.bookservice.entity.BookTombstone;
+import com.example.bookservice.event.BookChangedEvent;
+import com.example.bookservice.facet.BookFacetSnapshot;
 import com.example.bookservice.repository.BookRepository;
+import com.example.bookservice.repository.BookTombstoneRepository;
+import com.example.bookservice.search.BookSearchIndex;
+import com.example.bookservice.typeahead.TypeaheadIndex;
+import com.example.common.pagination.Cursor;
+import com.example.common.pagination.CursorCodec;
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.PageLimits;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -15,22 +40,59 @@ import java.util.Optional;
 public class BookService {
     
     private final BookRepository bookRepository;
+    private final BookTombstoneRepository bookTombstoneRepository;
+    private final BookSearchIndex bookSearchIndex;
+    private final BookCache bookCache;
+    private final BookFacetSnapshot bookFacetSnapshot;
+    private final TypeaheadIndex typeaheadIndex;
+    private final BookBatchProperties batchProperties;
+    private final ApplicationEventPublisher eventPublisher;
     
     // Create a new book
     public Book createBook(Book book) {
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(BookChangedEvent.ChangeType.CREATED, savedBook));
+        return savedBook;
     }
     
-    // Get all books
+    // Get a page of books ordered by ID
     @Transactional(readOnly = true)
-    public List<Book> getAllBooks() {
-        return bookRepository.findAll();
+    public CursorPage<Book> getBooksPage(String cursor, Integer size) {
+        int limit = PageLimits.resolve(size);
+        Cursor after = CursorCodec.decode(cursor);
+        PageRequest probe = PageRequest.ofSize(PageLimits.probeSize(limit));
+        List<Book> rows = after == null
+                ? bookRepository.findAllByOrderByIdAsc(probe)
+                : bookRepository.findByIdGreaterThanOrderByIdAsc(after.getId(), probe);
+        return CursorPage.of(rows, limit, book -> Cursor.of(book.getId()));
     }
     
-    // Get book by ID
-    @Transactional(readOnly = true)
+    // Get book by ID (cache hits never touch a connection)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<Book> getBookById(Long id) {
-        return bookRepository.findById(id);
+        return bookCache.getById(id, bookRepository::findById);
+    }
+    
+    // Get many books by ID in one round trip, preserving request order and reporting missing IDs
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public BookBatchResult getBooksByIds(List<Long> ids) {
+        if (ids.size() > batchProperties.getMaxIds()) {
+            throw new IllegalArgumentException("At most " + batchProperties.getMaxIds() + " IDs per request");
+        }
+        Set<Long> requested = new LinkedHashSet<>(ids);
+        requested.remove(null);
+        Map<Long, Book> found = bookCache.getAllById(requested, this::findAllInChunks);
+        List<Book> books = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requested) {
+            Book book = found.get(id);
+            if (book != null) {
+                books.add(book);
+            } else {
+                missing.add(id);
+            }
+        }
+        return new BookBatchResult(books, missing);
     }
     
     // Update book
@@ -46,7 +108,9 @@ public class BookService {
         book.setGenre(bookDetails.getGenre());
         book.setPageCount(bookDetails.getPageCount());
         
-        return bookRepository.save(book);
+        Book savedBook = bookRepository.save(book);
+        eventPublisher.publishEvent(new BookChangedEvent(BookChangedEvent.ChangeType.UPDATED, savedBook));
+        return savedBook;
     }
     
     // Delete book
@@ -54,18 +118,44 @@ public class BookService {
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Book not found with id: " + id));
         bookRepository.delete(book);
+        bookTombstoneRepository.save(new BookTombstone(book.getId(), LocalDateTime.now()));
+        eventPublisher.publishEvent(new BookChangedEvent(BookChangedEvent.ChangeType.DELETED, book));
     }
     
     // Search books by title
     @Transactional(readOnly = true)
     public List<Book> searchBooksByTitle(String title) {
-        return bookRepository.findByTitleContainingIgnoreCase(title);
+        if (!bookSearchIndex.isReady()) {
+            return bookRepository.findByTitleContainingIgnoreCase(title);
+        }
+        return findAllInIdOrder(bookSearchIndex.searchTitle(title));
     }
     
     // Search books by author
     @Transactional(readOnly = true)
     public List<Book> searchBooksByAuthor(String author) {
-        return bookRepository.findByAuthorContainingIgnoreCase(author);
+        if (!bookSearchIndex.isReady()) {
+            return bookRepository.findByAuthorContainingIgnoreCase(author);
+        }
+        return findAllInIdOrder(bookSearchIndex.searchAuthor(author));
+    }
+    
+    // Search books by title and author
+    @Transactional(readOnly = true)
+    public List<Book> searchBooksByTitleAndAuthor(String title, String author) {
+        if (!bookSearchIndex.isReady()) {
+            return bookRepository.findByTitleAndAuthor(title, author);
+        }
+        return findAllInIdOrder(bookSearchIndex.searchTitleAndAuthor(title, author));
+    }
+    
+    // Autocomplete titles and authors from the in-memory prefix trie
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<Suggestion> suggest(String prefix, int limit) {
+        if (!typeaheadIndex.isReady()) {
+            throw new IllegalStateException("Typeahead index is still loading");
+        }
+        return typeaheadIndex.suggest(prefix, limit);
     }
     
     // Get books by genre
@@ -74,9 +164,35 @@ public class BookService {
         return bookRepository.findByGenre(genre);
     }
     
-    // Get book by ISBN
-    @Transactional(readOnly = true)
+    // Filter by genre, year and page count with facet counts, served from the in-memory snapshot
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public BookFacetResult findFacets(BookFacetQuery query) {
+        if (!bookFacetSnapshot.isReady()) {
+            throw new IllegalStateException("Book facet snapshot is still loading");
+        }
+        return bookFacetSnapshot.query(query);
+    }
+    
+    // Get book by ISBN (cache hits never touch a connection)
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Optional<Book> getBookByIsbn(String isbn) {
-        return bookRepository.findByIsbn(isbn);
+        return bookCache.getByIsbn(isbn, () -> bookRepository.findByIsbn(isbn));
+    }
+    
+    // Load index hits by primary key, keeping ID order
+    private List<Book> findAllInIdOrder(List<Long> ids) {
+        List<Book> books = findAllInChunks(ids);
+        books.sort(Comparator.comparing(Book::getId));
+        return books;
+    }
+    
+    // One IN (...) query per chunk so very large ID lists stay within driver and planner limits
+    private List<Book> findAllInChunks(List<Long> ids) {
+        List<Book> books = new ArrayList<>(ids.size());
+        int chunkSize = batchProperties.getChunkSize();
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            books.addAll(bookRepository.findAllById(ids.subList(from, Math.min(from + chunkSize, ids.size()))));
+        }
+        return books;
     }
 }
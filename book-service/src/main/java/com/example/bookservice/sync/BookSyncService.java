@@ -0,0 +1,95 @@
+package com.example.bookservice.sync;
+
+import com.example.bookservice.config.BookSyncProperties;
+import com.example.bookservice.dto.BookChangesResult;
+import com.example.bookservice.entity.Book;
+import com.example.bookservice.entity.BookTombstone;
+import com.example.bookservice.repository.BookRepository;
+import com.example.bookservice.repository.BookTombstoneRepository;
+import com.example.common.pagination.Cursor;
+import com.example.common.pagination.PageLimits;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// "Changes since" feed: books created or updated plus tombstones for deleted books, in keyset order
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BookSyncService {
+    
+    private final BookRepository bookRepository;
+    private final BookTombstoneRepository bookTombstoneRepository;
+    private final BookSyncProperties properties;
+    
+    // Thrown when the watermark is older than the tombstone retention window
+    public static class WatermarkExpiredException extends RuntimeException {
+        public WatermarkExpiredException() {
+            super("Watermark is older than the tombstone retention window; a full resync is required");
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public BookChangesResult getChanges(SyncWatermark watermark, Integer size) {
+        LocalDateTime now = LocalDateTime.now();
+        if (watermark.getTombstones().timeKey().isBefore(now.minus(properties.getTombstoneRetention()))
+                && !watermark.equals(SyncWatermark.origin())) {
+            throw new WatermarkExpiredException();
+        }
+        int limit = PageLimits.resolve(size);
+        LocalDateTime until = now.minus(properties.getSafetyLag());
+        PageRequest probe = PageRequest.ofSize(PageLimits.probeSize(limit));
+        
+        Cursor bookCursor = watermark.getBooks();
+        List<Book> books = bookRepository.findChangedAfter(
+                bookCursor.timeKey(), bookCursor.getId(), until, probe);
+        boolean moreBooks = books.size() > limit;
+        if (moreBooks) {
+            books = new ArrayList<>(books.subList(0, limit));
+        }
+        if (!moreBooks) {
+            // Caught up: everything up to the safety bound has been seen
+            bookCursor = Cursor.of(until, 0);
+        } else {
+            Book last = books.get(books.size() - 1);
+            bookCursor = Cursor.of(last.getUpdatedAt(), last.getId());
+        }
+        
+        Cursor tombstoneCursor = watermark.getTombstones();
+        List<BookTombstone> tombstones = bookTombstoneRepository.findDeletedAfter(
+                tombstoneCursor.timeKey(), tombstoneCursor.getId(), until, probe);
+        boolean moreTombstones = tombstones.size() > limit;
+        if (moreTombstones) {
+            tombstones = tombstones.subList(0, limit);
+        }
+        List<Long> deleted = new ArrayList<>(tombstones.size());
+        for (BookTombstone tombstone : tombstones) {
+            deleted.add(tombstone.getBookId());
+        }
+        if (!moreTombstones) {
+            tombstoneCursor = Cursor.of(until, 0);
+        } else {
+            BookTombstone last = tombstones.get(tombstones.size() - 1);
+            tombstoneCursor = Cursor.of(last.getDeletedAt(), last.getBookId());
+        }
+        
+        String next = new SyncWatermark(bookCursor, tombstoneCursor).encode();
+        return new BookChangesResult(books, deleted, next, moreBooks || moreTombstones);
+    }
+    
+    // Purge tombstones nobody can still need
+    @Scheduled(cron = "${book.sync.tombstone-purge-cron:0 30 3 * * *}")
+    @Transactional
+    public void purgeExpiredTombstones() {
+        int purged = bookTombstoneRepository.deleteOlderThan(
+                LocalDateTime.now().minus(properties.getTombstoneRetention()));
+        log.info("Purged {} expired book tombstones", purged);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.bookservice.sync;
+
+import com.example.common.pagination.Cursor;
+import com.example.common.pagination.CursorCodec;
+import com.example.common.pagination.InvalidCursorException;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Position in both the books stream (updatedAt, id) and the tombstone stream (deletedAt, bookId)
+@Value
+public class SyncWatermark {
+    
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(1970, 1, 1, 0, 0);
+    
+    Cursor books;
+    
+    Cursor tombstones;
+    
+    // Start of time: a full initial sync
+    public static SyncWatermark origin() {
+        return since(ORIGIN);
+    }
+    
+    public static SyncWatermark since(LocalDateTime time) {
+        return new SyncWatermark(Cursor.of(time, 0), Cursor.of(time, 0));
+    }
+    
+    public String encode() {
+        return CursorCodec.encode(books) + "." + CursorCodec.encode(tombstones);
+    }
+    
+    public static SyncWatermark decode(String token) {
+        int dot = token.indexOf('.');
+        if (dot < 0) {
+            throw new InvalidCursorException("Watermark format is not recognised");
+        }
+        Cursor books = CursorCodec.decode(token.substring(0, dot));
+        Cursor tombstones = CursorCodec.decode(token.substring(dot + 1));
+        if (books == null || tombstones == null) {
+            throw new InvalidCursorException("Watermark format is not recognised");
+        }
+        books.timeKey();
+        tombstones.timeKey();
+        return new SyncWatermark(books, tombstones);
+    }
+}
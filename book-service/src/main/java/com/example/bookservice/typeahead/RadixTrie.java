@@ -0,0 +1,225 @@
+package com.example.bookservice.typeahead;
+
+import com.example.bookservice.dto.Suggestion;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+// Compressed prefix trie from normalized terms to weighted suggestions.
+// Every node tracks the best weight in its subtree so top-k lookups can stop early. Not thread-safe.
+class RadixTrie {
+    
+    private static final class Node {
+        String edge;
+        Node parent;
+        final Map<Character, Node> children = new HashMap<>(2);
+        // Suggestions whose term ends exactly here, keyed by kind + display text
+        Map<String, Suggestion> entries;
+        int maxWeight;
+        
+        Node(String edge, Node parent) {
+            this.edge = edge;
+            this.parent = parent;
+        }
+    }
+    
+    private static final class QueueItem {
+        final int weight;
+        final Node node;
+        final Suggestion entry;
+        
+        QueueItem(int weight, Node node, Suggestion entry) {
+            this.weight = weight;
+            this.node = node;
+            this.entry = entry;
+        }
+    }
+    
+    private final Node root = new Node("", null);
+    private int nodeCount = 1;
+    private long edgeChars;
+    private int termCount;
+    private int entryCount;
+    
+    int nodeCount() {
+        return nodeCount;
+    }
+    
+    int termCount() {
+        return termCount;
+    }
+    
+    int entryCount() {
+        return entryCount;
+    }
+    
+    // Rough heap estimate: node objects and child maps, edge characters, suggestion entries
+    long estimatedBytes() {
+        return nodeCount * 120L + edgeChars * 2 + entryCount * 96L;
+    }
+    
+    // Add delta (positive or negative) to the weight of a suggestion under a term
+    void adjust(String term, Suggestion.Kind kind, String display, int delta) {
+        if (term.isEmpty()) {
+            return;
+        }
+        Node node = delta > 0 ? insertPath(term) : find(term, true);
+        if (node == null) {
+            return;
+        }
+        if (node.entries == null) {
+            node.entries = new HashMap<>(2);
+            termCount++;
+        }
+        String key = kind.name() + ':' + display;
+        Suggestion entry = node.entries.get(key);
+        if (entry == null) {
+            if (delta <= 0) {
+                return;
+            }
+            entry = new Suggestion(display, kind, 0);
+            node.entries.put(key, entry);
+            entryCount++;
+        }
+        entry.setCount(entry.getCount() + delta);
+        if (entry.getCount() <= 0) {
+            node.entries.remove(key);
+            entryCount--;
+            if (node.entries.isEmpty()) {
+                node.entries = null;
+                termCount--;
+            }
+        }
+        refreshUpwards(node);
+        prune(node);
+    }
+    
+    // Highest-weight suggestions for terms starting with prefix
+    List<Suggestion> top(String prefix, int limit) {
+        List<Suggestion> result = new ArrayList<>(limit);
+        Node start = find(prefix, false);
+        if (start == null || limit <= 0) {
+            return result;
+        }
+        // Best-first search: nodes are ranked by their subtree maximum, entries by their own weight
+        PriorityQueue<QueueItem> queue = new PriorityQueue<>((a, b) -> Integer.compare(b.weight, a.weight));
+        queue.add(new QueueItem(start.maxWeight, start, null));
+        Set<String> seen = new HashSet<>();
+        while (!queue.isEmpty() && result.size() < limit) {
+            QueueItem item = queue.poll();
+            if (item.entry != null) {
+                Suggestion entry = item.entry;
+                if (seen.add(entry.getKind().name() + ':' + entry.getText())) {
+                    result.add(new Suggestion(entry.getText(), entry.getKind(), entry.getCount()));
+                }
+                continue;
+            }
+            if (item.node.entries != null) {
+                for (Suggestion entry : item.node.entries.values()) {
+                    queue.add(new QueueItem(entry.getCount(), null, entry));
+                }
+            }
+            for (Node child : item.node.children.values()) {
+                queue.add(new QueueItem(child.maxWeight, child, null));
+            }
+        }
+        return result;
+    }
+    
+    private Node insertPath(String term) {
+        Node node = root;
+        int i = 0;
+        while (i < term.length()) {
+            Node child = node.children.get(term.charAt(i));
+            if (child == null) {
+                Node leaf = new Node(term.substring(i), node);
+                node.children.put(term.charAt(i), leaf);
+                nodeCount++;
+                edgeChars += leaf.edge.length();
+                return leaf;
+            }
+            int common = commonPrefix(child.edge, term, i);
+            if (common < child.edge.length()) {
+                // Split the edge at the divergence point
+                Node middle = new Node(child.edge.substring(0, common), node);
+                node.children.put(term.charAt(i), middle);
+                child.edge = child.edge.substring(common);
+                child.parent = middle;
+                middle.children.put(child.edge.charAt(0), child);
+                middle.maxWeight = child.maxWeight;
+                nodeCount++;
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+        return node;
+    }
+    
+    // Exact node for a term, or (when not exact) the node whose edge the prefix ends inside
+    private Node find(String term, boolean exact) {
+        Node node = root;
+        int i = 0;
+        while (i < term.length()) {
+            Node child = node.children.get(term.charAt(i));
+            if (child == null) {
+                return null;
+            }
+            int common = commonPrefix(child.edge, term, i);
+            if (common < child.edge.length()) {
+                return !exact && i + common == term.length() ? child : null;
+            }
+            node = child;
+            i += common;
+        }
+        return node;
+    }
+    
+    private void refreshUpwards(Node node) {
+        for (Node current = node; current != null; current = current.parent) {
+            int max = 0;
+            if (current.entries != null) {
+                for (Suggestion entry : current.entries.values()) {
+                    max = Math.max(max, entry.getCount());
+                }
+            }
+            for (Node child : current.children.values()) {
+                max = Math.max(max, child.maxWeight);
+            }
+            current.maxWeight = max;
+        }
+    }
+    
+    // Remove empty leaves and re-merge single-child chains left behind by deletions
+    private void prune(Node node) {
+        Node current = node;
+        while (current != root && current.entries == null && current.children.isEmpty()) {
+            Node parent = current.parent;
+            parent.children.remove(current.edge.charAt(0));
+            nodeCount--;
+            edgeChars -= current.edge.length();
+            current = parent;
+        }
+        if (current != root && current.entries == null && current.children.size() == 1) {
+            Node only = current.children.values().iterator().next();
+            only.edge = current.edge + only.edge;
+            only.parent = current.parent;
+            current.parent.children.put(only.edge.charAt(0), only);
+            nodeCount--;
+        }
+    }
+    
+    private static int commonPrefix(String edge, String term, int offset) {
+        int max = Math.min(edge.length(), term.length() - offset);
+        int i = 0;
+        while (i < max && edge.charAt(i) == term.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+}
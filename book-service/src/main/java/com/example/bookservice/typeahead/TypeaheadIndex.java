@@ -0,0 +1,182 @@
+package com.example.bookservice.typeahead;
+
+import com.example.bookservice.dto.Suggestion;
+import com.example.bookservice.entity.Book;
+import com.example.bookservice.event.BookChangedEvent;
+import com.example.bookservice.repository.BookRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Autocomplete over book titles and authors. Each title and author is indexed under its full normalized
+// form and under each of its words, so "ring" suggests "The Lord of the Rings".
+@Slf4j
+@Component
+public class TypeaheadIndex {
+    
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_WORD_LENGTH = 2;
+    
+    private final BookRepository bookRepository;
+    private final EntityManager entityManager;
+    private final RadixTrie trie = new RadixTrie();
+    private final Map<Long, String[]> indexedBooks = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+    
+    public TypeaheadIndex(BookRepository bookRepository, EntityManager entityManager, MeterRegistry meterRegistry) {
+        this.bookRepository = bookRepository;
+        this.entityManager = entityManager;
+        Gauge.builder("book.typeahead.terms", this, index -> index.read(trie::termCount))
+                .description("Distinct normalized terms in the typeahead trie")
+                .register(meterRegistry);
+        Gauge.builder("book.typeahead.nodes", this, index -> index.read(trie::nodeCount))
+                .description("Nodes in the typeahead trie")
+                .register(meterRegistry);
+        Gauge.builder("book.typeahead.memory.bytes", this, index -> index.read(trie::estimatedBytes))
+                .description("Estimated heap used by the typeahead trie")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("book.typeahead.memory.bytes.per.term", this,
+                        index -> index.read(() -> trie.termCount() == 0 ? 0 : trie.estimatedBytes() / trie.termCount()))
+                .description("Estimated heap per indexed term")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+    
+    // Build the trie once the application has started
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            try (Stream<Book> books = bookRepository.streamAllOrderById()) {
+                Iterator<Book> iterator = books.iterator();
+                while (iterator.hasNext()) {
+                    Book book = iterator.next();
+                    put(book);
+                    entityManager.detach(book);
+                }
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Typeahead index built: {} terms, {} nodes, ~{} KB in {} ms", trie.termCount(), trie.nodeCount(),
+                trie.estimatedBytes() / 1024, System.currentTimeMillis() - started);
+    }
+    
+    // Keep the trie in step with committed writes
+    @TransactionalEventListener
+    public void onBookChanged(BookChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == BookChangedEvent.ChangeType.DELETED) {
+                remove(event.getBook().getId());
+            } else {
+                put(event.getBook());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    // Top suggestions for what the user has typed so far
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            return trie.top(normalized, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void put(Book book) {
+        remove(book.getId());
+        String[] values = {book.getTitle(), book.getAuthor()};
+        indexedBooks.put(book.getId(), values);
+        apply(values, 1);
+    }
+    
+    private void remove(Long id) {
+        String[] previous = indexedBooks.remove(id);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+    }
+    
+    private void apply(String[] values, int delta) {
+        index(values[0], Suggestion.Kind.TITLE, delta);
+        index(values[1], Suggestion.Kind.AUTHOR, delta);
+    }
+    
+    private void index(String display, Suggestion.Kind kind, int delta) {
+        if (display == null) {
+            return;
+        }
+        for (String term : terms(display)) {
+            trie.adjust(term, kind, display, delta);
+        }
+    }
+    
+    private static Set<String> terms(String display) {
+        Set<String> terms = new LinkedHashSet<>();
+        String normalized = normalize(display);
+        if (normalized.isEmpty()) {
+            return terms;
+        }
+        terms.add(normalized);
+        for (String word : normalized.split(" ")) {
+            if (word.length() >= MIN_WORD_LENGTH) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+    
+    // Lower-case, strip accents and collapse punctuation to single spaces
+    static String normalize(String value) {
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(stripped.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+    
+    private <T extends Number> double read(Supplier<T> metric) {
+        lock.readLock().lock();
+        try {
+            return metric.get().doubleValue();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.bookservice.cache;
+
+import com.example.bookservice.config.BookCacheConfig;
+import com.example.bookservice.config.BookCacheProperties;
+import com.example.bookservice.entity.Book;
+import com.example.bookservice.event.BookChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+// Two replicas' caches against an embedded broker: an update on one evicts the book on the other
+class BookCacheInvalidationTest {
+    
+    private static final String TOPIC = "book-cache-invalidations";
+    
+    private static EmbeddedKafkaKraftBroker broker;
+    private static ConfigurableApplicationContext replicaA;
+    private static ConfigurableApplicationContext replicaB;
+    
+    @BeforeAll
+    static void startReplicas() {
+        broker = new EmbeddedKafkaKraftBroker(1, 1, TOPIC);
+        broker.afterPropertiesSet();
+        replicaA = startReplica();
+        replicaB = startReplica();
+    }
+    
+    @AfterAll
+    static void stopReplicas() {
+        replicaB.close();
+        replicaA.close();
+        broker.destroy();
+    }
+    
+    @Test
+    void updateOnOneReplicaEvictsOnTheOther() {
+        BookCache cacheA = replicaA.getBean(BookCache.class);
+        BookCache cacheB = replicaB.getBean(BookCache.class);
+        Book book = new Book(1L, "Title", "Author", "isbn-1", null, 2020, "Fiction", 100, null, null);
+        cacheB.putIfUnchanged(1L, cacheB.generation(1L), book);
+        
+        // Each replica seeks to the end once its partition is assigned, so keep publishing until B has seen one
+        await().atMost(Duration.ofSeconds(30)).pollInterval(Duration.ofMillis(200)).until(() -> {
+            cacheA.onBookChanged(new BookChangedEvent(BookChangedEvent.ChangeType.UPDATED, book));
+            return cacheB.peek(1L).isEmpty();
+        });
+        
+        assertThat(cacheB.peekByIsbn("isbn-1")).isEmpty();
+        assertThat(remoteInvalidations(replicaB)).isPositive();
+        // A evicted locally and skips its own messages
+        assertThat(remoteInvalidations(replicaA)).isZero();
+    }
+    
+    @Test
+    void listenersShareOneFixedGroup() {
+        for (ConfigurableApplicationContext replica : new ConfigurableApplicationContext[]{replicaA, replicaB}) {
+            assertThat(replica.getBean(KafkaListenerEndpointRegistry.class).getListenerContainers())
+                    .allSatisfy(container -> assertThat(container.getGroupId()).isEqualTo(TOPIC));
+        }
+    }
+    
+    private static double remoteInvalidations(ConfigurableApplicationContext replica) {
+        return replica.getBean(MeterRegistry.class).get("book.cache.invalidations")
+                .tag("source", "remote").counter().count();
+    }
+    
+    private static ConfigurableApplicationContext startReplica() {
+        return new SpringApplicationBuilder(ReplicaConfig.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.kafka.bootstrap-servers=" + broker.getBrokersAsString(),
+                        "spring.kafka.producer.value-serializer="
+                                + "org.springframework.kafka.support.serializer.JsonSerializer",
+                        "spring.kafka.consumer.value-deserializer="
+                                + "org.springframework.kafka.support.serializer.JsonDeserializer",
+                        "spring.kafka.consumer.properties.spring.json.trusted.packages=com.example.*")
+                .run();
+    }
+    
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration(KafkaAutoConfiguration.class)
+    @EnableConfigurationProperties(BookCacheProperties.class)
+    @Import({BookCache.class, BookCacheConfig.class})
+    static class ReplicaConfig {
+        
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
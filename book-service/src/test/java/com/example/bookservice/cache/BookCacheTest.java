@@ -0,0 +1,90 @@
+package com.example.bookservice.cache;
+
+import com.example.bookservice.config.BookCacheProperties;
+import com.example.bookservice.entity.Book;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class BookCacheTest {
+    
+    private BookCache cache;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cache = new BookCache(new BookCacheProperties(), mock(KafkaTemplate.class), new SimpleMeterRegistry());
+    }
+    
+    @Test
+    void getByIdCachesLoadedBook() {
+        cache.getById(1L, id -> Optional.of(book(id, "isbn-1", "v1")));
+        
+        assertThat(cache.peek(1L)).map(Book::getTitle).contains("v1");
+        assertThat(cache.peekByIsbn("isbn-1")).map(Book::getTitle).contains("v1");
+    }
+    
+    // A reader loads the old row, the writer commits and evicts, then the reader's put lands: it must not stick
+    @Test
+    void getByIdDropsLoadOverlappingEviction() {
+        Optional<Book> loaded = cache.getById(1L, id -> {
+            Book old = book(id, "isbn-1", "v1");
+            cache.evict(id, "isbn-1");
+            return Optional.of(old);
+        });
+        
+        assertThat(loaded).map(Book::getTitle).contains("v1");
+        assertThat(cache.peek(1L)).isEmpty();
+        assertThat(cache.peekByIsbn("isbn-1")).isEmpty();
+    }
+    
+    @Test
+    void getByIsbnDropsLoadOverlappingEviction() {
+        cache.getByIsbn("isbn-1", () -> {
+            Book old = book(1L, "isbn-1", "v1");
+            // The writer changed the ISBN, so the eviction names the new one
+            cache.evict(1L, "isbn-2");
+            return Optional.of(old);
+        });
+        
+        assertThat(cache.peek(1L)).isEmpty();
+        assertThat(cache.peekByIsbn("isbn-1")).isEmpty();
+    }
+    
+    @Test
+    void getAllByIdDropsOnlyEvictedBooks() {
+        Map<Long, Book> found = cache.getAllById(List.of(1L, 2L), ids -> {
+            List<Book> rows = List.of(book(1L, "isbn-1", "v1"), book(2L, "isbn-2", "v1"));
+            cache.evict(2L, "isbn-2");
+            return rows;
+        });
+        
+        assertThat(found).containsOnlyKeys(1L, 2L);
+        assertThat(cache.peek(1L)).isPresent();
+        assertThat(cache.peek(2L)).isEmpty();
+    }
+    
+    @Test
+    void putIfUnchangedSkipsStaleGeneration() {
+        long generation = cache.generation(1L);
+        cache.evict(1L, null);
+        
+        cache.putIfUnchanged(1L, generation, book(1L, "isbn-1", "v1"));
+        
+        assertThat(cache.peek(1L)).isEmpty();
+        cache.putIfUnchanged(1L, cache.generation(1L), book(1L, "isbn-1", "v2"));
+        assertThat(cache.peek(1L)).map(Book::getTitle).contains("v2");
+    }
+    
+    private static Book book(Long id, String isbn, String title) {
+        return new Book(id, title, "Author", isbn, null, 2020, "Fiction", 100, null, null);
+    }
+}
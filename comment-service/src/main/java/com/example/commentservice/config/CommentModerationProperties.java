@@ -0,0 +1,17 @@
+package com.example.commentservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "comment.moderation")
+public class CommentModerationProperties {
+    
+    // Comments deleted per transaction, so a large purge never holds many row locks at once
+    private int chunkSize = 1000;
+    
+    // Longest one request keeps deleting; after that it returns complete=false and the caller repeats it
+    private Duration maxDuration = Duration.ofSeconds(30);
+}
@@ -0,0 +1,19 @@
+package com.example.commentservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "comment.thread")
+public class CommentThreadProperties {
+    
+    // Reply levels returned below each top-level comment when the client does not ask
+    private int defaultDepth = 5;
+    
+    private int maxDepth = 20;
+    
+    // Replies returned per comment when the client does not ask; the rest are flagged with hasMoreReplies
+    private int defaultReplies = 20;
+    
+    private int maxReplies = 200;
+}
@@ -1,7 +1,15 @@
 package com.example.commentservice.controller;
 
+import com.example.commentservice.dto.CommentCount;
+import com.example.commentservice.dto.CommentNode;
+import com.example.commentservice.dto.CountReconcileReport;
+import com.example.commentservice.dto.ModerationResult;
 import com.example.commentservice.entity.Comment;
+import com.example.commentservice.job.CommentCountReconcileJob;
+import com.example.commentservice.service.CommentModerationService;
 import com.example.commentservice.service.CommentService;
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.InvalidCursorException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,6 +24,8 @@ import java.util.Optional;
 public class CommentController {
     
     private final CommentService commentService;
+    private final CommentModerationService commentModerationService;
+    private final CommentCountReconcileJob commentCountReconcileJob;
     
     // Create a new comment
     @PostMapping
@@ -24,11 +34,16 @@ public class CommentController {
         return new ResponseEntity<>(createdComment, HttpStatus.CREATED);
     }
     
-    // Get all comments
+    // Get all comments, one page at a time
     @GetMapping
-    public ResponseEntity<List<Comment>> getAllComments() {
-        List<Comment> comments = commentService.getAllComments();
-        return ResponseEntity.ok(comments);
+    public ResponseEntity<CursorPage<Comment>> getAllComments(@RequestParam(required = false) String cursor,
+                                                              @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Comment> comments = commentService.getCommentsPage(cursor, size);
+            return ResponseEntity.ok(comments);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     // Get comment by ID
@@ -61,11 +76,65 @@ public class CommentController {
         }
     }
     
-    // Get comments by review ID
+    // Delete a comment and all replies below it; repeat while the result says complete=false
+    @DeleteMapping("/{id}/subtree")
+    public ResponseEntity<ModerationResult> deleteSubtree(@PathVariable Long id) {
+        return commentModerationService.deleteSubtree(id).map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    // Delete every comment by a user and the replies to them, including other users' replies, which the caller
+    // must acknowledge with includeReplies=true; repeat while the result says complete=false
+    @DeleteMapping("/user/{userId}")
+    public ResponseEntity<ModerationResult> purgeUserComments(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "false") boolean includeReplies) {
+        if (!includeReplies) {
+            return ResponseEntity.badRequest().build();
+        }
+        ModerationResult result = commentModerationService.purgeUser(userId);
+        return ResponseEntity.ok(result);
+    }
+    
+    // Get comments by review ID, one page at a time
     @GetMapping("/review/{reviewId}")
-    public ResponseEntity<List<Comment>> getCommentsByReviewId(@PathVariable Long reviewId) {
-        List<Comment> comments = commentService.getCommentsByReviewId(reviewId);
-        return ResponseEntity.ok(comments);
+    public ResponseEntity<CursorPage<Comment>> getCommentsByReviewId(@PathVariable Long reviewId,
+                                                                     @RequestParam(required = false) String cursor,
+                                                                     @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Comment> comments = commentService.getCommentsByReviewId(reviewId, cursor, size);
+            return ResponseEntity.ok(comments);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Get a review's discussion as reply trees under a page of top-level comments
+    @GetMapping("/review/{reviewId}/thread")
+    public ResponseEntity<CursorPage<CommentNode>> getThread(@PathVariable Long reviewId,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer size,
+                                                             @RequestParam(required = false) Integer maxDepth,
+                                                             @RequestParam(required = false) Integer maxReplies) {
+        try {
+            CursorPage<CommentNode> thread = commentService.getThread(reviewId, cursor, size, maxDepth, maxReplies);
+            return ResponseEntity.ok(thread);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Get a comment with its reply tree
+    @GetMapping("/{id}/thread")
+    public ResponseEntity<CommentNode> getSubtree(@PathVariable Long id,
+                                                  @RequestParam(required = false) Integer maxDepth,
+                                                  @RequestParam(required = false) Integer maxReplies) {
+        try {
+            return commentService.getSubtree(id, maxDepth, maxReplies).map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     // Get comments by user ID
@@ -82,11 +151,16 @@ public class CommentController {
         return ResponseEntity.ok(replies);
     }
     
-    // Get top-level comments
+    // Get top-level comments, one page at a time
     @GetMapping("/top-level")
-    public ResponseEntity<List<Comment>> getTopLevelComments() {
-        List<Comment> comments = commentService.getTopLevelComments();
-        return ResponseEntity.ok(comments);
+    public ResponseEntity<CursorPage<Comment>> getTopLevelComments(@RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Comment> comments = commentService.getTopLevelComments(cursor, size);
+            return ResponseEntity.ok(comments);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     // Get top-level comments for a review
@@ -102,4 +176,28 @@ public class CommentController {
         Long count = commentService.getCommentCountByReviewId(reviewId);
         return ResponseEntity.ok(count);
     }
-}
\ No newline at end of file
+    
+    // Get comment counts for many reviews, e.g. GET /api/comments/review/counts?reviewIds=1,2,3
+    @GetMapping("/review/counts")
+    public ResponseEntity<List<CommentCount>> getCommentCounts(@RequestParam List<Long> reviewIds) {
+        try {
+            List<CommentCount> counts = commentService.getCommentCounts(reviewIds);
+            return ResponseEntity.ok(counts);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Same as above with the review IDs in a JSON array body
+    @PostMapping("/review/counts")
+    public ResponseEntity<List<CommentCount>> getCommentCountsBatch(@RequestBody List<Long> reviewIds) {
+        return getCommentCounts(reviewIds);
+    }
+    
+    // Recount comments per review and report drift
+    @PostMapping("/counts/reconcile")
+    public ResponseEntity<CountReconcileReport> reconcileCounts() {
+        CountReconcileReport report = commentCountReconcileJob.reconcile();
+        return ResponseEntity.ok(report);
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.commentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentCount {
+    
+    private Long reviewId;
+    
+    private long count;
+}
@@ -0,0 +1,30 @@
+package com.example.commentservice.dto;
+
+import com.example.commentservice.entity.Comment;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// A comment with its replies, as returned by the thread endpoints
+@Data
+@NoArgsConstructor
+public class CommentNode {
+    
+    @JsonUnwrapped
+    private Comment comment;
+    
+    private List<CommentNode> replies = new ArrayList<>();
+    
+    // Direct replies that exist, including any left out by the depth or sibling limit
+    private int replyCount;
+    
+    // True when some replies were left out; expand with GET /api/comments/{id}/thread
+    private boolean hasMoreReplies;
+    
+    public CommentNode(Comment comment) {
+        this.comment = comment;
+    }
+}
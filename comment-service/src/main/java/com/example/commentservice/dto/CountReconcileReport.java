@@ -0,0 +1,23 @@
+package com.example.commentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CountReconcileReport {
+    
+    private long reviewsChecked;
+    
+    // Reviews whose stored count differed from the comments table and were rewritten
+    private long reviewsCorrected;
+    
+    // First corrected review IDs, for investigation
+    private List<Long> correctedReviewIds;
+    
+    private long elapsedMillis;
+}
@@ -0,0 +1,25 @@
+package com.example.commentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ModerationResult {
+    
+    // Comments removed by this call, replies included
+    private long deleted;
+    
+    // Of those, replies written by other users that went with a purged user's comments (0 for subtree deletes)
+    private long repliesByOtherUsers;
+    
+    // Transactions committed by this call
+    private int chunks;
+    
+    // False when the time budget ran out first; repeating the same call carries on where this one stopped
+    private boolean complete;
+    
+    private long elapsedMillis;
+}
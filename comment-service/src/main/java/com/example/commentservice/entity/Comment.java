@@ -7,7 +7,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        @Index(name = "idx_comments_review_created", columnList = "review_id, created_at, id"),
+        @Index(name = "idx_comments_parent_created", columnList = "parent_comment_id, created_at, id"),
+        @Index(name = "idx_comments_user", columnList = "user_id, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,22 @@
+package com.example.commentservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Per-review comment count, maintained in the same transaction as comment writes
+@Entity
+@Table(name = "review_comment_counts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewCommentCount {
+    
+    @Id
+    @Column(name = "review_id")
+    private Long reviewId;
+    
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+}
@@ -0,0 +1,113 @@
+package com.example.commentservice.job;
+
+import com.example.commentservice.dto.CountReconcileReport;
+import com.example.commentservice.repository.CommentCountRow;
+import com.example.commentservice.repository.CommentRepository;
+import com.example.commentservice.repository.ReviewCommentCountRepository;
+import com.example.commentservice.service.CommentCountService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Recounts comments per review and repairs any drift in the stored counters
+@Slf4j
+@Component
+public class CommentCountReconcileJob {
+    
+    private static final int MAX_REPORTED_IDS = 100;
+    
+    private final CommentRepository commentRepository;
+    private final ReviewCommentCountRepository countRepository;
+    private final CommentCountService commentCountService;
+    private final TransactionTemplate readOnlyTransaction;
+    
+    public CommentCountReconcileJob(CommentRepository commentRepository,
+                                    ReviewCommentCountRepository countRepository,
+                                    CommentCountService commentCountService,
+                                    PlatformTransactionManager transactionManager) {
+        this.commentRepository = commentRepository;
+        this.countRepository = countRepository;
+        this.commentCountService = commentCountService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    @Scheduled(cron = "${comment.counts.reconcile-cron:0 30 4 * * *}")
+    public void scheduledReconcile() {
+        reconcile();
+    }
+    
+    // Pass 1 finds suspects without locks; pass 2 re-checks and fixes each one under its row lock,
+    // so comments written while the job runs are not reported as drift
+    public CountReconcileReport reconcile() {
+        long started = System.currentTimeMillis();
+        long[] checked = new long[1];
+        List<Long> suspects = readOnlyTransaction.execute(status -> findSuspects(checked));
+        
+        List<Long> corrected = new ArrayList<>();
+        long correctedCount = 0;
+        for (Long reviewId : suspects) {
+            if (commentCountService.reconcile(reviewId)) {
+                correctedCount++;
+                if (corrected.size() < MAX_REPORTED_IDS) {
+                    corrected.add(reviewId);
+                }
+            }
+        }
+        
+        CountReconcileReport report = new CountReconcileReport(
+                checked[0], correctedCount, corrected, System.currentTimeMillis() - started);
+        if (correctedCount > 0) {
+            log.warn("Comment counts had drifted for {} of {} reviews; corrected (first IDs: {})",
+                    correctedCount, checked[0], corrected);
+        } else {
+            log.info("Comment counts verified for {} reviews, no drift", checked[0]);
+        }
+        return report;
+    }
+    
+    // Merge join of two cursors in review order, so neither side is held in memory
+    private List<Long> findSuspects(long[] checked) {
+        List<Long> suspects = new ArrayList<>();
+        try (Stream<CommentCountRow> counted = commentRepository.streamCommentCounts();
+             Stream<CommentCountRow> stored = countRepository.streamAllOrderByReviewId()) {
+            Iterator<CommentCountRow> countedIterator = counted.iterator();
+            Iterator<CommentCountRow> storedIterator = stored.iterator();
+            CommentCountRow row = next(countedIterator);
+            CommentCountRow counter = next(storedIterator);
+            while (row != null || counter != null) {
+                checked[0]++;
+                int order = row == null ? 1 : counter == null ? -1 : row.getReviewId().compareTo(counter.getReviewId());
+                if (order < 0) {
+                    // Comments but no counter row
+                    suspects.add(row.getReviewId());
+                    row = next(countedIterator);
+                } else if (order > 0) {
+                    // Counter for a review without comments; it must be zero
+                    if (counter.getCommentCount() != 0) {
+                        suspects.add(counter.getReviewId());
+                    }
+                    counter = next(storedIterator);
+                } else {
+                    if (!row.getCommentCount().equals(counter.getCommentCount())) {
+                        suspects.add(row.getReviewId());
+                    }
+                    row = next(countedIterator);
+                    counter = next(storedIterator);
+                }
+            }
+        }
+        return suspects;
+    }
+    
+    private static <T> T next(Iterator<T> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+}
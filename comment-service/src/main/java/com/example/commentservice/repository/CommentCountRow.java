@@ -0,0 +1,9 @@
+package com.example.commentservice.repository;
+
+// Projection of a review's comment count, recomputed from the comments table or read from the stored counters
+public interface CommentCountRow {
+    
+    Long getReviewId();
+    
+    Long getCommentCount();
+}
@@ -1,14 +1,34 @@
 package com.example.commentservice.repository;
 
 import com.example.commentservice.entity.Comment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     
+    // Recursive part of the thread queries: walks parent_comment_id down from the anchor rows to :depth levels,
+    // taking only the first :replies replies of each comment (oldest first) so a popular comment can't flood a page
+    String THREAD_WALK = "thread AS (" +
+            "SELECT c.*, 0 AS depth FROM comments c JOIN anchors a ON c.id = a.id " +
+            "UNION ALL " +
+            "SELECT r.*, t.depth + 1 FROM thread t CROSS JOIN LATERAL (" +
+            "SELECT * FROM comments c WHERE c.parent_comment_id = t.id AND t.depth < :depth " +
+            "ORDER BY c.created_at, c.id LIMIT :replies) r) " +
+            "SELECT id, review_id, user_id, content, commenter_name, parent_comment_id, created_at, updated_at " +
+            "FROM thread ORDER BY created_at, id";
+    
     // Find comments by review ID
     List<Comment> findByReviewId(Long reviewId);
     
@@ -29,4 +49,71 @@ public interface CommentRepository extends JpaRepository<Comment, Long> {
     
     // Count comments by review ID
     Long countByReviewId(Long reviewId);
-}
\ No newline at end of file
+    
+    // Comment count of every review that has comments in review order, for counter reconciliation (caller must close
+    // the stream inside a transaction)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.reviewId AS reviewId, COUNT(c) AS commentCount FROM Comment c " +
+           "GROUP BY c.reviewId ORDER BY c.reviewId")
+    Stream<CommentCountRow> streamCommentCounts();
+    
+    // Keyset pagination: first page ordered by ID
+    List<Comment> findAllByOrderByIdAsc(Pageable pageable);
+    
+    // Keyset pagination: rows after the given ID
+    List<Comment> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Keyset pagination: first page of top-level comments ordered by ID
+    List<Comment> findByParentCommentIdIsNullOrderByIdAsc(Pageable pageable);
+    
+    // Keyset pagination: top-level comments after the given ID
+    List<Comment> findByParentCommentIdIsNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Keyset pagination: first page of a review's comments ordered by (createdAt, id)
+    @Query("SELECT c FROM Comment c WHERE c.reviewId = :reviewId ORDER BY c.createdAt, c.id")
+    List<Comment> findPageByReviewId(@Param("reviewId") Long reviewId, Pageable pageable);
+    
+    // Keyset pagination: a review's comments after the given (createdAt, id)
+    @Query("SELECT c FROM Comment c WHERE c.reviewId = :reviewId " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) " +
+           "ORDER BY c.createdAt, c.id")
+    List<Comment> findPageByReviewIdAfter(@Param("reviewId") Long reviewId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+    
+    // Thread: first page of a review's top-level comments with their replies, in one statement
+    @Query(value = "WITH RECURSIVE anchors AS (" +
+                   "SELECT id FROM comments WHERE review_id = :reviewId AND parent_comment_id IS NULL " +
+                   "ORDER BY created_at, id LIMIT :limit), " + THREAD_WALK,
+           nativeQuery = true)
+    List<Comment> findThread(@Param("reviewId") Long reviewId,
+                             @Param("limit") int limit,
+                             @Param("depth") int depth,
+                             @Param("replies") int replies);
+    
+    // Thread: top-level comments after the given (createdAt, id) with their replies
+    @Query(value = "WITH RECURSIVE anchors AS (" +
+                   "SELECT id FROM comments WHERE review_id = :reviewId AND parent_comment_id IS NULL " +
+                   "AND (created_at > :createdAt OR (created_at = :createdAt AND id > :id)) " +
+                   "ORDER BY created_at, id LIMIT :limit), " + THREAD_WALK,
+           nativeQuery = true)
+    List<Comment> findThreadAfter(@Param("reviewId") Long reviewId,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id,
+                                  @Param("limit") int limit,
+                                  @Param("depth") int depth,
+                                  @Param("replies") int replies);
+    
+    // Thread: one comment and its replies
+    @Query(value = "WITH RECURSIVE anchors AS (SELECT id FROM comments WHERE id = :commentId), " + THREAD_WALK,
+           nativeQuery = true)
+    List<Comment> findSubtree(@Param("commentId") Long commentId,
+                              @Param("depth") int depth,
+                              @Param("replies") int replies);
+    
+    // Direct reply counts of the given comments, for nodes whose replies were cut
+    @Query("SELECT c.parentCommentId AS parentCommentId, COUNT(c) AS replyCount FROM Comment c " +
+           "WHERE c.parentCommentId IN :ids GROUP BY c.parentCommentId")
+    List<ReplyCountRow> countReplies(@Param("ids") Collection<Long> ids);
+}
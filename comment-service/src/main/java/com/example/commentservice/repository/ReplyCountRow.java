@@ -0,0 +1,9 @@
+package com.example.commentservice.repository;
+
+// Projection of how many direct replies a comment has
+public interface ReplyCountRow {
+    
+    Long getParentCommentId();
+    
+    Long getReplyCount();
+}
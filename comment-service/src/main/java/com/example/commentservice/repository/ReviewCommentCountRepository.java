@@ -0,0 +1,40 @@
+package com.example.commentservice.repository;
+
+import com.example.commentservice.entity.ReviewCommentCount;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface ReviewCommentCountRepository extends JpaRepository<ReviewCommentCount, Long> {
+    
+    // Atomically add a delta to a review's count, creating the row on first use
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO review_comment_counts (review_id, comment_count) VALUES (:reviewId, :delta) " +
+                   "ON CONFLICT (review_id) DO UPDATE SET " +
+                   "comment_count = review_comment_counts.comment_count + EXCLUDED.comment_count",
+           nativeQuery = true)
+    int applyDelta(@Param("reviewId") Long reviewId, @Param("delta") long delta);
+    
+    // Lock a review's count so concurrent comment writes wait while it is recomputed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM ReviewCommentCount c WHERE c.reviewId = :reviewId")
+    Optional<ReviewCommentCount> findForUpdate(@Param("reviewId") Long reviewId);
+    
+    // Every stored count in review order, as projections so a full scan doesn't fill the persistence context
+    // (caller must close the stream inside a transaction)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.reviewId AS reviewId, c.commentCount AS commentCount FROM ReviewCommentCount c " +
+           "ORDER BY c.reviewId")
+    Stream<CommentCountRow> streamAllOrderByReviewId();
+}
@@ -0,0 +1,66 @@
+package com.example.commentservice.service;
+
+import com.example.commentservice.entity.ReviewCommentCount;
+import com.example.commentservice.repository.CommentRepository;
+import com.example.commentservice.repository.ReviewCommentCountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class CommentCountService {
+    
+    // Review IDs per IN (...) query
+    private static final int CHUNK_SIZE = 500;
+    
+    private final ReviewCommentCountRepository countRepository;
+    private final CommentRepository commentRepository;
+    
+    // Add (or with a negative delta, remove) comments from a review's count
+    public void adjust(Long reviewId, long delta) {
+        if (delta != 0) {
+            countRepository.applyDelta(reviewId, delta);
+        }
+    }
+    
+    // Get a review's count; reviews without comments have no row and count 0
+    @Transactional(readOnly = true)
+    public long getCount(Long reviewId) {
+        return countRepository.findById(reviewId).map(ReviewCommentCount::getCommentCount).orElse(0L);
+    }
+    
+    // Get counts for many reviews, one primary-key query per chunk; reviews without comments are absent
+    @Transactional(readOnly = true)
+    public Map<Long, Long> getCounts(List<Long> reviewIds) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (int from = 0; from < reviewIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = new ArrayList<>(reviewIds.subList(from, Math.min(from + CHUNK_SIZE, reviewIds.size())));
+            for (ReviewCommentCount count : countRepository.findAllById(chunk)) {
+                counts.put(count.getReviewId(), count.getCommentCount());
+            }
+        }
+        return counts;
+    }
+    
+    // Recount one review from the comments table while holding its counter row lock; true if it had drifted
+    public boolean reconcile(Long reviewId) {
+        // Make sure the row exists so there is something to lock
+        countRepository.applyDelta(reviewId, 0);
+        ReviewCommentCount stored = countRepository.findForUpdate(reviewId)
+                .orElseThrow(() -> new IllegalStateException("Count row vanished for review " + reviewId));
+        long actual = commentRepository.countByReviewId(reviewId);
+        if (stored.getCommentCount() == actual) {
+            return false;
+        }
+        stored.setCommentCount(actual);
+        countRepository.save(stored);
+        return true;
+    }
+}
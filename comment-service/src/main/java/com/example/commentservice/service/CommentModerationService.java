@@ -0,0 +1,142 @@
+package com.example.commentservice.service;
+
+import com.example.commentservice.config.CommentModerationProperties;
+import com.example.commentservice.dto.ModerationResult;
+import com.example.commentservice.repository.CommentRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+// Bulk deletes for moderators. Each chunk is one set-based DELETE in its own short transaction, and every chunk
+// leaves the table consistent, so an interrupted run is finished by simply repeating the call.
+@Slf4j
+@Service
+public class CommentModerationService {
+    
+    // Guards the reply walk against a corrupted parent chain that loops
+    private static final int MAX_WALK_DEPTH = 1000;
+    
+    // Deepest comments first: a chunk only removes comments whose replies are already gone, so a partly deleted
+    // subtree is never left with orphaned replies
+    private static final String DELETE_SUBTREE_CHUNK_SQL = "WITH RECURSIVE sub AS (" +
+            "SELECT id, 0 AS depth FROM comments WHERE id = ? " +
+            "UNION ALL " +
+            "SELECT c.id, s.depth + 1 FROM comments c JOIN sub s ON c.parent_comment_id = s.id " +
+            "WHERE s.depth < " + MAX_WALK_DEPTH + "), " +
+            "victims AS (SELECT id FROM sub ORDER BY depth DESC, id LIMIT ?) " +
+            "DELETE FROM comments c USING victims v WHERE c.id = v.id RETURNING c.review_id, c.user_id";
+    
+    // The user's comments together with the replies to them, which may be other users' comments. Bounded by rows
+    // deleted and deepest first like DELETE_SUBTREE_CHUNK_SQL; a comment reached at several depths (a user replying
+    // under their own comment) counts at its deepest. A short chunk means every comment by the user was covered
+    private static final String PURGE_USER_CHUNK_SQL = "WITH RECURSIVE roots AS (" +
+            "SELECT id FROM comments WHERE user_id = ? ORDER BY id LIMIT ?), " +
+            "sub AS (" +
+            "SELECT id, 0 AS depth FROM roots " +
+            "UNION ALL " +
+            "SELECT c.id, s.depth + 1 FROM comments c JOIN sub s ON c.parent_comment_id = s.id " +
+            "WHERE s.depth < " + MAX_WALK_DEPTH + "), " +
+            "victims AS (SELECT id FROM sub GROUP BY id ORDER BY MAX(depth) DESC, id LIMIT ?) " +
+            "DELETE FROM comments c USING victims v WHERE c.id = v.id RETURNING c.review_id, c.user_id";
+    
+    private static final class DeletedComment {
+        final long reviewId;
+        final long userId;
+        
+        DeletedComment(long reviewId, long userId) {
+            this.reviewId = reviewId;
+            this.userId = userId;
+        }
+    }
+    
+    private static final RowMapper<DeletedComment> DELETED_MAPPER =
+            (rs, rowNum) -> new DeletedComment(rs.getLong("review_id"), rs.getLong("user_id"));
+    
+    private final CommentRepository commentRepository;
+    private final CommentCountService commentCountService;
+    private final CommentModerationProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    public CommentModerationService(CommentRepository commentRepository,
+                                    CommentCountService commentCountService,
+                                    CommentModerationProperties properties,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager) {
+        this.commentRepository = commentRepository;
+        this.commentCountService = commentCountService;
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    // Delete a comment and every reply below it; empty if the comment does not exist
+    public Optional<ModerationResult> deleteSubtree(Long commentId) {
+        if (!commentRepository.existsById(commentId)) {
+            return Optional.empty();
+        }
+        ModerationResult result = run(() -> jdbcTemplate.query(DELETE_SUBTREE_CHUNK_SQL, DELETED_MAPPER,
+                commentId, properties.getChunkSize()), null);
+        log.info("Deleted {} comments in the subtree of comment {} (complete: {})",
+                result.getDeleted(), commentId, result.isComplete());
+        return Optional.of(result);
+    }
+    
+    // Delete every comment by a user. Replies to those comments go with them whoever wrote them, so the caller
+    // has to ask for that; how many were other users' is reported separately
+    public ModerationResult purgeUser(Long userId) {
+        ModerationResult result = run(() -> jdbcTemplate.query(PURGE_USER_CHUNK_SQL, DELETED_MAPPER,
+                userId, properties.getChunkSize(), properties.getChunkSize()), userId);
+        log.info("Purged {} comments for user {}, {} of them replies by other users (complete: {})",
+                result.getDeleted(), userId, result.getRepliesByOtherUsers(), result.isComplete());
+        return result;
+    }
+    
+    // Run chunks until one comes back short or the time budget is spent. Deleted comments not written by owner
+    // (when given) are counted as other users' replies
+    private ModerationResult run(Supplier<List<DeletedComment>> chunk, Long owner) {
+        long started = System.currentTimeMillis();
+        long deadline = started + properties.getMaxDuration().toMillis();
+        long deleted = 0;
+        long byOthers = 0;
+        int chunks = 0;
+        boolean complete = false;
+        while (!complete && System.currentTimeMillis() < deadline) {
+            List<DeletedComment> removed = transactionTemplate.execute(status -> {
+                List<DeletedComment> rows = chunk.get();
+                adjustCounts(rows);
+                return rows;
+            });
+            int count = removed == null ? 0 : removed.size();
+            if (count > 0) {
+                deleted += count;
+                chunks++;
+                if (owner != null) {
+                    byOthers += removed.stream().filter(row -> row.userId != owner).count();
+                }
+            }
+            complete = count < properties.getChunkSize();
+        }
+        return new ModerationResult(deleted, byOthers, chunks, complete, System.currentTimeMillis() - started);
+    }
+    
+    // One counter update per review touched by the chunk, in review ID order so concurrent chunks cannot deadlock
+    private void adjustCounts(List<DeletedComment> deletedComments) {
+        Map<Long, Long> perReview = new TreeMap<>();
+        for (DeletedComment comment : deletedComments) {
+            perReview.merge(comment.reviewId, 1L, Long::sum);
+        }
+        for (Map.Entry<Long, Long> entry : perReview.entrySet()) {
+            commentCountService.adjust(entry.getKey(), -entry.getValue());
+        }
+    }
+}
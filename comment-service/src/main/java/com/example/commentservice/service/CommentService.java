@@ -1,12 +1,27 @@
 package com.example.commentservice.service;
 
+import com.example.commentservice.config.CommentThreadProperties;
+import com.example.commentservice.dto.CommentCount;
+import com.example.commentservice.dto.CommentNode;
 import com.example.commentservice.entity.Comment;
 import com.example.commentservice.repository.CommentRepository;
+import com.example.commentservice.repository.ReplyCountRow;
+import com.example.commentservice.thread.CommentTreeAssembler;
+import com.example.common.pagination.Cursor;
+import com.example.common.pagination.CursorCodec;
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.PageLimits;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -15,16 +30,29 @@ import java.util.Optional;
 public class CommentService {
     
     private final CommentRepository commentRepository;
+    private final CommentCountService commentCountService;
+    private final CommentThreadProperties threadProperties;
+    
+    // Most review IDs accepted by one count request
+    public static final int MAX_COUNT_REVIEW_IDS = 5000;
     
     // Create a new comment
     public Comment createComment(Comment comment) {
-        return commentRepository.save(comment);
+        Comment savedComment = commentRepository.save(comment);
+        commentCountService.adjust(savedComment.getReviewId(), 1);
+        return savedComment;
     }
     
-    // Get all comments
+    // Get a page of comments ordered by ID
     @Transactional(readOnly = true)
-    public List<Comment> getAllComments() {
-        return commentRepository.findAll();
+    public CursorPage<Comment> getCommentsPage(String cursor, Integer size) {
+        int limit = PageLimits.resolve(size);
+        Cursor after = CursorCodec.decode(cursor);
+        PageRequest probe = PageRequest.ofSize(PageLimits.probeSize(limit));
+        List<Comment> rows = after == null
+                ? commentRepository.findAllByOrderByIdAsc(probe)
+                : commentRepository.findByIdGreaterThanOrderByIdAsc(after.getId(), probe);
+        return CursorPage.of(rows, limit, comment -> Cursor.of(comment.getId()));
     }
     
     // Get comment by ID
@@ -49,12 +77,71 @@ public class CommentService {
         Comment comment = commentRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Comment not found with id: " + id));
         commentRepository.delete(comment);
+        commentCountService.adjust(comment.getReviewId(), -1);
+    }
+    
+    // Get a page of comments for a review, oldest first
+    @Transactional(readOnly = true)
+    public CursorPage<Comment> getCommentsByReviewId(Long reviewId, String cursor, Integer size) {
+        int limit = PageLimits.resolve(size);
+        Cursor after = CursorCodec.decode(cursor);
+        PageRequest probe = PageRequest.ofSize(PageLimits.probeSize(limit));
+        List<Comment> rows = after == null
+                ? commentRepository.findPageByReviewId(reviewId, probe)
+                : commentRepository.findPageByReviewIdAfter(reviewId, after.timeKey(), after.getId(), probe);
+        return CursorPage.of(rows, limit, comment -> Cursor.of(comment.getCreatedAt(), comment.getId()));
+    }
+    
+    // Get a page of a review's discussion: top-level comments oldest first, each with its reply tree
+    @Transactional(readOnly = true)
+    public CursorPage<CommentNode> getThread(Long reviewId, String cursor, Integer size,
+                                             Integer maxDepth, Integer maxReplies) {
+        int limit = PageLimits.resolve(size);
+        int depth = resolve(maxDepth, threadProperties.getDefaultDepth(), threadProperties.getMaxDepth());
+        int replies = resolve(maxReplies, threadProperties.getDefaultReplies(), threadProperties.getMaxReplies());
+        Cursor after = CursorCodec.decode(cursor);
+        // One level deeper and one reply more than returned, so cut-off comments know whether they have replies
+        List<Comment> rows = after == null
+                ? commentRepository.findThread(reviewId, PageLimits.probeSize(limit), depth + 1, replies + 1)
+                : commentRepository.findThreadAfter(reviewId, after.timeKey(), after.getId(),
+                                                    PageLimits.probeSize(limit), depth + 1, replies + 1);
+        List<Long> rootIds = new ArrayList<>();
+        for (Comment row : rows) {
+            if (row.getParentCommentId() == null) {
+                rootIds.add(row.getId());
+            }
+        }
+        List<CommentNode> roots = CommentTreeAssembler.assemble(rows, rootIds, depth, replies);
+        countTruncatedReplies(roots);
+        return CursorPage.of(roots, limit,
+                node -> Cursor.of(node.getComment().getCreatedAt(), node.getComment().getId()));
     }
     
-    // Get comments by review ID
+    // Get one comment with its reply tree, e.g. to expand a node flagged with hasMoreReplies
     @Transactional(readOnly = true)
-    public List<Comment> getCommentsByReviewId(Long reviewId) {
-        return commentRepository.findByReviewId(reviewId);
+    public Optional<CommentNode> getSubtree(Long commentId, Integer maxDepth, Integer maxReplies) {
+        int depth = resolve(maxDepth, threadProperties.getDefaultDepth(), threadProperties.getMaxDepth());
+        int replies = resolve(maxReplies, threadProperties.getDefaultReplies(), threadProperties.getMaxReplies());
+        List<Comment> rows = commentRepository.findSubtree(commentId, depth + 1, replies + 1);
+        List<CommentNode> roots = CommentTreeAssembler.assemble(rows, Collections.singletonList(commentId),
+                                                                depth, replies);
+        countTruncatedReplies(roots);
+        return roots.stream().findFirst();
+    }
+    
+    // The thread queries load at most one reply more than shown, so cut-off comments get their full reply count
+    // from the parent index instead
+    private void countTruncatedReplies(List<CommentNode> roots) {
+        Map<Long, CommentNode> truncated = new HashMap<>();
+        for (CommentNode node : CommentTreeAssembler.truncated(roots)) {
+            truncated.put(node.getComment().getId(), node);
+        }
+        if (truncated.isEmpty()) {
+            return;
+        }
+        for (ReplyCountRow row : commentRepository.countReplies(truncated.keySet())) {
+            truncated.get(row.getParentCommentId()).setReplyCount(row.getReplyCount().intValue());
+        }
     }
     
     // Get comments by user ID
@@ -69,10 +156,16 @@ public class CommentService {
         return commentRepository.findByParentCommentId(parentCommentId);
     }
     
-    // Get top-level comments
+    // Get a page of top-level comments ordered by ID
     @Transactional(readOnly = true)
-    public List<Comment> getTopLevelComments() {
-        return commentRepository.findByParentCommentIdIsNull();
+    public CursorPage<Comment> getTopLevelComments(String cursor, Integer size) {
+        int limit = PageLimits.resolve(size);
+        Cursor after = CursorCodec.decode(cursor);
+        PageRequest probe = PageRequest.ofSize(PageLimits.probeSize(limit));
+        List<Comment> rows = after == null
+                ? commentRepository.findByParentCommentIdIsNullOrderByIdAsc(probe)
+                : commentRepository.findByParentCommentIdIsNullAndIdGreaterThanOrderByIdAsc(after.getId(), probe);
+        return CursorPage.of(rows, limit, comment -> Cursor.of(comment.getId()));
     }
     
     // Get top-level comments for a review
@@ -84,6 +177,32 @@ public class CommentService {
     // Get comment count for a review
     @Transactional(readOnly = true)
     public Long getCommentCountByReviewId(Long reviewId) {
-        return commentRepository.countByReviewId(reviewId);
+        return commentCountService.getCount(reviewId);
+    }
+    
+    // Get comment counts for many reviews in one call, in request order
+    @Transactional(readOnly = true)
+    public List<CommentCount> getCommentCounts(List<Long> reviewIds) {
+        if (reviewIds.size() > MAX_COUNT_REVIEW_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_COUNT_REVIEW_IDS + " review IDs per request");
+        }
+        List<Long> requested = new ArrayList<>(new LinkedHashSet<>(reviewIds));
+        requested.remove(null);
+        Map<Long, Long> counts = commentCountService.getCounts(requested);
+        List<CommentCount> result = new ArrayList<>(requested.size());
+        for (Long reviewId : requested) {
+            result.add(new CommentCount(reviewId, counts.getOrDefault(reviewId, 0L)));
+        }
+        return result;
+    }
+    
+    private static int resolve(Integer requested, int defaultValue, int max) {
+        if (requested == null) {
+            return defaultValue;
+        }
+        if (requested < 0) {
+            throw new IllegalArgumentException("Limit must not be negative: " + requested);
+        }
+        return Math.min(requested, max);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,80 @@
+package com.example.commentservice.thread;
+
+import com.example.commentservice.dto.CommentNode;
+import com.example.commentservice.entity.Comment;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Builds reply trees from a flat list of comments in O(n)
+public final class CommentTreeAssembler {
+    
+    private CommentTreeAssembler() {
+    }
+    
+    /**
+     * Link rows into trees under the given roots. Rows must be ordered by (createdAt, id) so replies come out in
+     * that order. Levels below maxDepth and replies beyond maxReplies per comment are cut, and the comment they
+     * hang off is marked with hasMoreReplies.
+     */
+    public static List<CommentNode> assemble(List<Comment> rows, List<Long> rootIds, int maxDepth, int maxReplies) {
+        Map<Long, CommentNode> nodes = new HashMap<>(rows.size() * 2);
+        for (Comment row : rows) {
+            nodes.put(row.getId(), new CommentNode(row));
+        }
+        for (Comment row : rows) {
+            CommentNode parent = row.getParentCommentId() == null ? null : nodes.get(row.getParentCommentId());
+            if (parent != null) {
+                parent.getReplies().add(nodes.get(row.getId()));
+            }
+        }
+        
+        List<CommentNode> roots = new ArrayList<>(rootIds.size());
+        for (Long rootId : rootIds) {
+            CommentNode root = nodes.get(rootId);
+            if (root != null) {
+                roots.add(root);
+            }
+        }
+        
+        // Walk down from the roots applying the limits; unreachable nodes are simply dropped
+        Deque<CommentNode> level = new ArrayDeque<>(roots);
+        for (int depth = 0; !level.isEmpty(); depth++) {
+            Deque<CommentNode> next = new ArrayDeque<>();
+            for (CommentNode node : level) {
+                List<CommentNode> replies = node.getReplies();
+                node.setReplyCount(replies.size());
+                if (depth >= maxDepth) {
+                    node.setHasMoreReplies(!replies.isEmpty());
+                    node.setReplies(new ArrayList<>());
+                    continue;
+                }
+                if (replies.size() > maxReplies) {
+                    node.setHasMoreReplies(true);
+                    node.setReplies(new ArrayList<>(replies.subList(0, maxReplies)));
+                }
+                next.addAll(node.getReplies());
+            }
+            level = next;
+        }
+        return roots;
+    }
+    
+    // Nodes marked with hasMoreReplies; their replyCount only covers the replies that were loaded
+    public static List<CommentNode> truncated(List<CommentNode> roots) {
+        List<CommentNode> truncated = new ArrayList<>();
+        Deque<CommentNode> pending = new ArrayDeque<>(roots);
+        while (!pending.isEmpty()) {
+            CommentNode node = pending.poll();
+            if (node.isHasMoreReplies()) {
+                truncated.add(node);
+            }
+            pending.addAll(node.getReplies());
+        }
+        return truncated;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.common.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+// Wraps the service's DataSource in a ConcurrencyLimitedDataSource when the limiter is on
+@AutoConfiguration
+@ConditionalOnClass(DelegatingDataSource.class)
+@Conditional(DataSourceLimiterAutoConfiguration.LimiterEnabledCondition.class)
+public class DataSourceLimiterAutoConfiguration {
+    
+    private static final int DEFAULT_POOL_SIZE = 10;
+    
+    // A post-processor rather than a replacement DataSource bean, so Boot's own DataSource setup is untouched
+    @Bean
+    static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment) {
+        Binder binder = Binder.get(environment);
+        DataSourceLimiterProperties properties = binder.bind("datasource.limiter", DataSourceLimiterProperties.class)
+                .orElseGet(DataSourceLimiterProperties::new);
+        int permits = properties.getPermits() != null ? properties.getPermits()
+                : binder.bind("spring.datasource.hikari.maximum-pool-size", Integer.class).orElse(DEFAULT_POOL_SIZE);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    return new ConcurrencyLimitedDataSource((DataSource) bean, permits,
+                            properties.getAcquireTimeout());
+                }
+                return bean;
+            }
+        };
+    }
+    
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class LimiterMetrics {
+        
+        @Bean
+        MeterBinder dataSourceLimiterMetrics(ObjectProvider<DataSource> dataSources) {
+            return registry -> dataSources.forEach(dataSource -> {
+                ConcurrencyLimitedDataSource limiter = unwrap(dataSource);
+                if (limiter == null) {
+                    return;
+                }
+                Gauge.builder("datasource.limiter.permits", limiter, ConcurrencyLimitedDataSource::getMaxPermits)
+                        .register(registry);
+                Gauge.builder("datasource.limiter.active", limiter, ConcurrencyLimitedDataSource::getActive)
+                        .description("Connections checked out through the limiter")
+                        .register(registry);
+                Gauge.builder("datasource.limiter.waiting", limiter, ConcurrencyLimitedDataSource::getWaiting)
+                        .description("Callers queued for a connection permit")
+                        .register(registry);
+                FunctionCounter.builder("datasource.limiter.rejected", limiter,
+                                ConcurrencyLimitedDataSource::getRejected)
+                        .description("Callers that gave up after datasource.limiter.acquire-timeout")
+                        .register(registry);
+                Timer wait = Timer.builder("datasource.limiter.wait")
+                        .description("Time spent queued for a connection permit")
+                        .publishPercentiles(0.5, 0.99)
+                        .register(registry);
+                limiter.setWaitListener(nanos -> wait.record(nanos, TimeUnit.NANOSECONDS));
+            });
+        }
+        
+        private static ConcurrencyLimitedDataSource unwrap(DataSource dataSource) {
+            try {
+                return dataSource.isWrapperFor(ConcurrencyLimitedDataSource.class)
+                        ? dataSource.unwrap(ConcurrencyLimitedDataSource.class) : null;
+            } catch (SQLException e) {
+                return null;
+            }
+        }
+    }
+    
+    // datasource.limiter.enabled wins when set; otherwise the limiter follows spring.threads.virtual.enabled
+    static class LimiterEnabledCondition extends SpringBootCondition {
+        
+        @Override
+        public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+            Environment environment = context.getEnvironment();
+            String explicit = environment.getProperty("datasource.limiter.enabled");
+            if (explicit != null) {
+                return Boolean.parseBoolean(explicit)
+                        ? ConditionOutcome.match("datasource.limiter.enabled is true")
+                        : ConditionOutcome.noMatch("datasource.limiter.enabled is false");
+            }
+            return environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)
+                    ? ConditionOutcome.match("virtual threads are enabled")
+                    : ConditionOutcome.noMatch("virtual threads are not enabled");
+        }
+    }
+}
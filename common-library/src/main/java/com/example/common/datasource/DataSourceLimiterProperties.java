@@ -0,0 +1,20 @@
+package com.example.common.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "datasource.limiter")
+public class DataSourceLimiterProperties {
+    
+    // Unset means "on when spring.threads.virtual.enabled is on"
+    private Boolean enabled;
+    
+    // Connections that may be checked out at once; unset means spring.datasource.hikari.maximum-pool-size
+    private Integer permits;
+    
+    // How long a request waits in line for a connection before failing (Hikari's own default is 30s)
+    private Duration acquireTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,80 @@
+package com.example.common.instrumentation;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// Times @RestController methods, tagged by endpoint (Controller.method) and response status class
+public class ControllerTimingInterceptor implements MethodInterceptor {
+    
+    // Controllers here report failures as ResponseEntity statuses, so the status class is the useful outcome
+    private static final String[] STATUSES = {"2xx", "3xx", "4xx", "5xx", "exception"};
+    private static final int EXCEPTION = 4;
+    private static final ReactiveAdapterRegistry REACTIVE_ADAPTERS = ReactiveAdapterRegistry.getSharedInstance();
+    
+    private final InstrumentationMeters meters;
+    // One lazily registered timer per status class, so the hot path is a map read and an array read
+    private final ConcurrentMap<Method, AtomicReferenceArray<Timer>> timers = new ConcurrentHashMap<>();
+    
+    public ControllerTimingInterceptor(InstrumentationMeters meters) {
+        this.meters = meters;
+    }
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            record(invocation, EXCEPTION, start);
+            throw e;
+        }
+        if (isReactive(result)) {
+            // The method only assembled the pipeline; http.server.requests times the response itself
+            return result;
+        }
+        record(invocation, statusSlot(result), start);
+        return result;
+    }
+    
+    private void record(MethodInvocation invocation, int slot, long start) {
+        long elapsed = System.nanoTime() - start;
+        Method method = invocation.getMethod();
+        AtomicReferenceArray<Timer> methodTimers = timers.get(method);
+        if (methodTimers == null) {
+            methodTimers = timers.computeIfAbsent(method, m -> new AtomicReferenceArray<>(STATUSES.length));
+        }
+        Timer timer = methodTimers.get(slot);
+        if (timer == null) {
+            String endpoint = ClassUtils.getUserClass(invocation.getThis()).getSimpleName() + "." + method.getName();
+            timer = meters.timer(InstrumentationMeters.CONTROLLER_TIMER,
+                    Tags.of("endpoint", endpoint, "status", STATUSES[slot]));
+            methodTimers.set(slot, timer);
+        }
+        timer.record(elapsed, TimeUnit.NANOSECONDS);
+    }
+    
+    private static boolean isReactive(Object result) {
+        return result != null && !(result instanceof ResponseEntity) && REACTIVE_ADAPTERS.hasAdapters()
+                && REACTIVE_ADAPTERS.getAdapter(result.getClass()) != null;
+    }
+    
+    private static int statusSlot(Object result) {
+        if (!(result instanceof ResponseEntity)) {
+            return 0;
+        }
+        int family = ((ResponseEntity<?>) result).getStatusCode().value() / 100;
+        return family >= 2 && family <= 5 ? family - 2 : 0;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.common.instrumentation;
+
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+// Wraps handler methods (@GetMapping etc.) of @RestController beans, or joins their existing proxy
+public class ControllerTimingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+    
+    public ControllerTimingPostProcessor(ControllerTimingInterceptor interceptor) {
+        this.advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(RestController.class, RequestMapping.class, true), interceptor);
+        // Outermost, so the timing includes any transaction or validation advice on the controller
+        setBeforeExistingAdvisors(true);
+        // Handler mapping needs the controller class, not an interface proxy
+        setProxyTargetClass(true);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.common.instrumentation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.web.bind.annotation.RestController;
+
+// Times controller methods and repository calls in every service that has common-library and Micrometer
+@AutoConfiguration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnProperty(prefix = "instrumentation", name = "enabled", matchIfMissing = true)
+public class InstrumentationAutoConfiguration {
+    
+    // Post-processors are created before configuration properties beans, so bind the properties directly
+    static InstrumentationMeters meters(ObjectProvider<MeterRegistry> registry, Environment environment) {
+        InstrumentationProperties properties = Binder.get(environment)
+                .bind("instrumentation", InstrumentationProperties.class)
+                .orElseGet(InstrumentationProperties::new);
+        return new InstrumentationMeters(SingletonSupplier.of(registry::getObject),
+                environment.getProperty("spring.application.name", "unknown"), properties);
+    }
+    
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RestController.class)
+    static class ControllerInstrumentation {
+        
+        @Bean
+        static ControllerTimingPostProcessor controllerTimingPostProcessor(ObjectProvider<MeterRegistry> registry,
+                                                                           Environment environment) {
+            return new ControllerTimingPostProcessor(new ControllerTimingInterceptor(meters(registry, environment)));
+        }
+    }
+    
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(RepositoryFactoryBeanSupport.class)
+    static class RepositoryInstrumentation {
+        
+        @Bean
+        static RepositoryTimingPostProcessor repositoryTimingPostProcessor(ObjectProvider<MeterRegistry> registry,
+                                                                           Environment environment) {
+            return new RepositoryTimingPostProcessor(meters(registry, environment));
+        }
+    }
+}
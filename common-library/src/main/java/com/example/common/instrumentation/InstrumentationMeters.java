@@ -0,0 +1,50 @@
+package com.example.common.instrumentation;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.function.Supplier;
+
+// Builds the timers and summaries shared by the controller and repository interceptors
+public class InstrumentationMeters {
+    
+    public static final String CONTROLLER_TIMER = "controller.invocations";
+    public static final String REPOSITORY_TIMER = "repository.invocations";
+    public static final String REPOSITORY_ROWS = "repository.rows";
+    
+    // Resolved on first use: the post-processors that create this run before the registry exists
+    private final Supplier<MeterRegistry> registry;
+    private final String service;
+    private final InstrumentationProperties properties;
+    
+    public InstrumentationMeters(Supplier<MeterRegistry> registry, String service,
+                                 InstrumentationProperties properties) {
+        this.registry = registry;
+        this.service = service;
+        this.properties = properties;
+    }
+    
+    public boolean countsRows() {
+        return properties.isRowCounts();
+    }
+    
+    public Timer timer(String name, Tags tags) {
+        return Timer.builder(name)
+                .tags(tags.and("service", service))
+                .publishPercentiles(properties.getPercentiles())
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .register(registry.get());
+    }
+    
+    public DistributionSummary rows(Tags tags) {
+        return DistributionSummary.builder(REPOSITORY_ROWS)
+                .description("Rows returned per repository query")
+                .baseUnit("rows")
+                .tags(tags.and("service", service))
+                .publishPercentiles(properties.getPercentiles())
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .register(registry.get());
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.common.instrumentation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "instrumentation")
+public class InstrumentationProperties {
+    
+    // Time controller methods and repository calls; off removes the proxies entirely
+    private boolean enabled = true;
+    
+    // Client-side percentiles published with every timer and row-count summary
+    private double[] percentiles = {0.5, 0.95, 0.99};
+    
+    // Also publish histogram buckets so percentiles can be aggregated across replicas
+    private boolean percentileHistogram = true;
+    
+    // Record how many rows each repository query returned
+    private boolean rowCounts = true;
+}
@@ -0,0 +1,98 @@
+package com.example.common.instrumentation;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Slice;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+// Times every call on one repository and records how many rows its queries return
+public class RepositoryTimingInterceptor implements MethodInterceptor {
+    
+    private static final int NOT_COUNTABLE = -1;
+    
+    private final InstrumentationMeters meters;
+    private final String repository;
+    private final ConcurrentMap<Method, MethodMeters> methodMeters = new ConcurrentHashMap<>();
+    
+    public RepositoryTimingInterceptor(InstrumentationMeters meters, Class<?> repositoryInterface) {
+        this.meters = meters;
+        this.repository = repositoryInterface.getSimpleName();
+    }
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            metersFor(invocation.getMethod()).failure().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        MethodMeters method = metersFor(invocation.getMethod());
+        method.success.record(elapsed, TimeUnit.NANOSECONDS);
+        if (meters.countsRows()) {
+            int rows = rows(result);
+            if (rows != NOT_COUNTABLE) {
+                method.rows().record(rows);
+            }
+        }
+        return result;
+    }
+    
+    private MethodMeters metersFor(Method method) {
+        MethodMeters existing = methodMeters.get(method);
+        return existing != null ? existing : methodMeters.computeIfAbsent(method, MethodMeters::new);
+    }
+    
+    // Entities and scalars (save, count, exists) are not queries over rows; streams are consumed later
+    private static int rows(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Slice) {
+            return ((Slice<?>) result).getNumberOfElements();
+        }
+        if (result instanceof Optional) {
+            return ((Optional<?>) result).isPresent() ? 1 : 0;
+        }
+        return NOT_COUNTABLE;
+    }
+    
+    private final class MethodMeters {
+        
+        private final Tags tags;
+        private final Timer success;
+        private volatile Timer failure;
+        private volatile DistributionSummary rows;
+        
+        private MethodMeters(Method method) {
+            this.tags = Tags.of("repository", repository, "method", method.getName());
+            this.success = meters.timer(InstrumentationMeters.REPOSITORY_TIMER, tags.and("outcome", "success"));
+        }
+        
+        private Timer failure() {
+            if (failure == null) {
+                failure = meters.timer(InstrumentationMeters.REPOSITORY_TIMER, tags.and("outcome", "exception"));
+            }
+            return failure;
+        }
+        
+        private DistributionSummary rows() {
+            if (rows == null) {
+                rows = meters.rows(tags);
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.common.instrumentation;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+// Adds a RepositoryTimingInterceptor to each Spring Data repository proxy as its factory builds it
+public class RepositoryTimingPostProcessor implements BeanPostProcessor {
+    
+    private final InstrumentationMeters meters;
+    
+    public RepositoryTimingPostProcessor(InstrumentationMeters meters) {
+        this.meters = meters;
+    }
+    
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport) {
+            ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                    factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) -> {
+                        // Reactive repositories return before the query runs, so a call timer would measure nothing
+                        if (repositoryInformation.isReactiveRepository()) {
+                            return;
+                        }
+                        // First, so the timing covers the repository's own transaction and exception translation
+                        proxyFactory.addAdvice(0, new RepositoryTimingInterceptor(meters,
+                                repositoryInformation.getRepositoryInterface()));
+                    }));
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.common.pagination;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+// Position of the last row of a page: the sort key it was ordered by plus its ID as tie-breaker
+@Value
+public class Cursor {
+    
+    String sortKey;
+    
+    long id;
+    
+    // Cursor for endpoints ordered by ID alone
+    public static Cursor of(long id) {
+        return new Cursor(null, id);
+    }
+    
+    // Cursor for endpoints ordered by a timestamp, then ID
+    public static Cursor of(LocalDateTime sortKey, long id) {
+        return new Cursor(sortKey == null ? null : sortKey.toString(), id);
+    }
+    
+    // Read the sort key back as a timestamp
+    public LocalDateTime timeKey() {
+        if (sortKey == null) {
+            throw new InvalidCursorException("Cursor has no time key");
+        }
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new InvalidCursorException("Cursor time key is malformed");
+        }
+    }
+}
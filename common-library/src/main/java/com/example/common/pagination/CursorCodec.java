@@ -0,0 +1,51 @@
+package com.example.common.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Turns cursors into opaque URL-safe tokens and back
+public final class CursorCodec {
+    
+    private static final String VERSION = "v1";
+    private static final char SEPARATOR = '|';
+    
+    private CursorCodec() {
+    }
+    
+    // Encode a cursor as a token for the client
+    public static String encode(Cursor cursor) {
+        if (cursor == null) {
+            return null;
+        }
+        String raw = VERSION + SEPARATOR + cursor.getId() + SEPARATOR
+                + (cursor.getSortKey() == null ? "" : cursor.getSortKey());
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    // Decode a client token; a missing token means "start from the first page"
+    public static Cursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String raw;
+        try {
+            raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Cursor is not valid base64");
+        }
+        int first = raw.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : raw.indexOf(SEPARATOR, first + 1);
+        if (second < 0 || !VERSION.equals(raw.substring(0, first))) {
+            throw new InvalidCursorException("Cursor format is not recognised");
+        }
+        long id;
+        try {
+            id = Long.parseLong(raw.substring(first + 1, second));
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Cursor ID is malformed");
+        }
+        String sortKey = raw.substring(second + 1);
+        return new Cursor(sortKey.isEmpty() ? null : sortKey, id);
+    }
+}
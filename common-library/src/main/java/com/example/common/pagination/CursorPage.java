@@ -0,0 +1,31 @@
+package com.example.common.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Standard page envelope returned by list endpoints
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+    
+    private List<T> items;
+    
+    private int size;
+    
+    private String nextCursor;
+    
+    private boolean hasMore;
+    
+    // Build a page from rows fetched with PageLimits.probeSize(size)
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, Cursor> cursorOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? List.copyOf(rows.subList(0, size)) : rows;
+        String nextCursor = hasMore ? CursorCodec.encode(cursorOf.apply(items.get(items.size() - 1))) : null;
+        return new CursorPage<>(items, items.size(), nextCursor, hasMore);
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.common.pagination;
+
+// Thrown when a client sends a cursor token this service did not issue
+public class InvalidCursorException extends IllegalArgumentException {
+    
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.common.pagination;
+
+// Page-size bounds shared by every list endpoint
+public final class PageLimits {
+    
+    public static final int DEFAULT_SIZE = 20;
+    public static final int MAX_SIZE = 100;
+    
+    private PageLimits() {
+    }
+    
+    // Clamp a requested page size into [1, MAX_SIZE], falling back to the default
+    public static int resolve(Integer requested) {
+        if (requested == null || requested < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(requested, MAX_SIZE);
+    }
+    
+    // Rows to fetch so we can tell whether another page exists without a COUNT query
+    public static int probeSize(int size) {
+        return size + 1;
+    }
+}
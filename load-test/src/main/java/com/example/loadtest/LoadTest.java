@@ -0,0 +1,204 @@
+package com.example.loadtest;
+
+import com.example.loadtest.report.EndpointResult;
+import com.example.loadtest.report.LoadReport;
+import com.example.loadtest.report.ReportComparison;
+import com.example.loadtest.report.StepResult;
+import com.example.loadtest.run.EndpointStats;
+import com.example.loadtest.run.OpenLoadGenerator;
+import com.example.loadtest.run.ResourceSampler;
+import com.example.loadtest.scenario.DataLoader;
+import com.example.loadtest.scenario.Endpoint;
+import com.example.loadtest.scenario.Endpoints;
+import com.example.loadtest.scenario.Scenario;
+import com.example.loadtest.scenario.Scenarios;
+import com.example.loadtest.scenario.TestData;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Boots the stand-in environment, seeds it, then offers each configured rate in turn and reports per endpoint
+@Slf4j
+public class LoadTest {
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        if (options.flag("help")) {
+            System.out.println(LoadTestOptions.USAGE);
+            return;
+        }
+        if (options.flag("list")) {
+            list();
+            return;
+        }
+        String label = options.string("label", gitDescribe());
+        Path reportFile = options.path("report", "target/load-report.json");
+        String threading = options.string("threading", null);
+        String bookReads = options.string("book-reads", "servlet");
+        
+        // Same steps against a fresh environment in each mode, then side by side
+        // Comparisons need every step in both runs, not just the ones up to saturation
+        if ("both".equals(threading) && "both".equals(bookReads)) {
+            throw new IllegalArgumentException("--threading=both and --book-reads=both can't be combined");
+        }
+        if ("both".equals(threading)) {
+            compare(run(options, label + " platform", "platform", bookReads, false), "platform",
+                    run(options, label + " virtual", "virtual", bookReads, false), "virtual", reportFile);
+            return;
+        }
+        if ("both".equals(bookReads)) {
+            compare(run(options, label + " servlet", threading, "servlet", false), "servlet",
+                    run(options, label + " reactive", threading, "reactive", false), "reactive", reportFile);
+            return;
+        }
+        LoadReport report = run(options, label, threading, bookReads,
+                options.string("stop-at-saturation", "true").equals("true"));
+        write(report, reportFile);
+        Path compareWith = options.path("compare", null);
+        if (compareWith != null) {
+            ReportComparison.print(LoadReport.read(compareWith), report, System.out);
+        }
+    }
+    
+    private static void compare(LoadReport first, String firstName, LoadReport second, String secondName,
+                                Path reportFile) throws IOException {
+        write(first, withSuffix(reportFile, firstName));
+        write(second, withSuffix(reportFile, secondName));
+        ReportComparison.print(first, second, System.out);
+    }
+    
+    // threading is null (leave the services' setting alone), "platform" or "virtual"; bookReads is "servlet" or
+    // "reactive" (book reads the reactive API mirrors go there instead)
+    private static LoadReport run(LoadTestOptions options, String label, String threading, String bookReads,
+                                  boolean stopAtSaturation) throws Exception {
+        if (!bookReads.equals("servlet") && !bookReads.equals("reactive")) {
+            throw new IllegalArgumentException("--book-reads must be servlet, reactive or both");
+        }
+        Scenario scenario = Scenarios.get(options.string("scenario", "browse")).withWeights(options.mix());
+        Scenario.Mix mix = bookReads.equals("reactive") ? scenario.mix().withReactiveBookReads() : scenario.mix();
+        Duration warmup = options.duration("warmup", "10s");
+        Duration duration = options.duration("duration", "60s");
+        double sloP99Ms = options.duration("slo-p99", "500ms").toNanos() / 1e6;
+        double maxErrorRate = options.decimal("max-error-rate", 0.01);
+        
+        List<String> serviceArgs = new ArrayList<>(options.getServiceArgs());
+        if (threading != null) {
+            if (!threading.equals("platform") && !threading.equals("virtual")) {
+                throw new IllegalArgumentException("--threading must be platform, virtual or both");
+            }
+            if (threading.equals("virtual") && javaFeatureVersion() < 21) {
+                log.warn("Virtual threads need Java 21; running on {} the services stay on platform threads",
+                        System.getProperty("java.version"));
+            }
+            serviceArgs.add("--spring.threads.virtual.enabled=" + threading.equals("virtual"));
+        }
+        
+        Map<String, Integer> seed = new LinkedHashMap<>();
+        seed.put("books", options.integer("books", 10_000));
+        seed.put("reviews", options.integer("reviews", 50_000));
+        seed.put("commentedReviews", options.integer("commented-reviews", 2_000));
+        seed.put("commentsPerReview", options.integer("comments-per-review", 10));
+        seed.put("surveys", options.integer("surveys", 500));
+        
+        LoadReport report = new LoadReport();
+        report.setLabel(label);
+        report.setScenario(scenario.getName());
+        report.setWeights(scenario.getWeights());
+        report.setStartedAt(Instant.now().toString());
+        report.setJavaVersion(System.getProperty("java.version"));
+        report.setWarmupSeconds(warmup.getSeconds());
+        report.setDurationSeconds(duration.getSeconds());
+        report.setSloP99Ms(sloP99Ms);
+        report.setSeed(seed);
+        report.setServiceArgs(serviceArgs);
+        
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        try (StandInEnvironment environment = StandInEnvironment.start(serviceArgs)) {
+            TestData data = new DataLoader(environment, httpClient, options.integer("seed-parallelism", 32))
+                    .load(seed.get("books"), seed.get("reviews"), seed.get("commentedReviews"),
+                            seed.get("commentsPerReview"), seed.get("surveys"));
+            OpenLoadGenerator generator = new OpenLoadGenerator(environment, httpClient, data,
+                    options.integer("max-in-flight", 2_000));
+            for (double rate : options.rates()) {
+                log.info("Offering {} req/s of {} for {} after {} warmup", rate, scenario.getName(), duration, warmup);
+                ResourceSampler sampler = ResourceSampler.start(generator::inFlight, warmup, duration);
+                Map<String, EndpointStats> stats = generator.run(mix, rate, warmup, duration);
+                List<EndpointResult> endpoints = new ArrayList<>();
+                long completed = 0;
+                for (Endpoint endpoint : mix.getEndpoints()) {
+                    EndpointResult result = EndpointResult.of(endpoint.getName(), endpoint.getService(),
+                            stats.get(endpoint.getName()), duration);
+                    endpoints.add(result);
+                    completed += result.getCompleted();
+                }
+                StepResult step = StepResult.of(rate, endpoints, sampler.stop(completed), maxErrorRate, sloP99Ms);
+                report.getSteps().add(step);
+                if (stopAtSaturation && !step.isWithinSlo()) {
+                    log.info("Objectives missed at {} req/s; skipping higher rates", rate);
+                    break;
+                }
+            }
+        }
+        return report;
+    }
+    
+    private static void write(LoadReport report, Path file) throws IOException {
+        report.write(file);
+        report.print(System.out);
+        System.out.printf("Report written to %s%n", file.toAbsolutePath());
+    }
+    
+    private static Path withSuffix(Path file, String suffix) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String renamed = dot < 0 ? name + "-" + suffix : name.substring(0, dot) + "-" + suffix + name.substring(dot);
+        return file.resolveSibling(renamed);
+    }
+    
+    private static int javaFeatureVersion() {
+        String version = System.getProperty("java.specification.version");
+        return Integer.parseInt(version.startsWith("1.") ? version.substring(2) : version);
+    }
+    
+    private static void list() {
+        System.out.println(LoadTestOptions.USAGE);
+        System.out.println("\nScenarios:");
+        for (Scenario scenario : Scenarios.all()) {
+            System.out.printf("  %-14s %s%n    %s%n", scenario.getName(), scenario.getDescription(),
+                    scenario.getWeights());
+        }
+        System.out.println("\nEndpoints:");
+        for (String name : Endpoints.names()) {
+            System.out.println("  " + name);
+        }
+    }
+    
+    // Best effort: labels the report with the commit under test when run from a git checkout
+    private static String gitDescribe() {
+        try {
+            Process process = new ProcessBuilder("git", "describe", "--always", "--dirty").redirectErrorStream(true)
+                    .start();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line = reader.readLine();
+                return process.waitFor() == 0 && line != null ? line.trim() : "unlabelled";
+            }
+        } catch (Exception e) {
+            return "unlabelled";
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.loadtest;
+
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Command line: --name=value options; anything prefixed --service. is handed to all four services
+@Getter
+public class LoadTestOptions {
+    
+    public static final String USAGE = String.join("\n",
+            "Options (all --name=value):",
+            "  --scenario=browse               built-in traffic mix, see --list",
+            "  --mix=book.get:50,review.create:0  override endpoint weights (0 removes)",
+            "  --rate=200 | --rate=100,200,400  arrivals per second; several values run as steps",
+            "  --warmup=10s --duration=60s     per step; warmup arrivals are sent but not recorded",
+            "  --slo-p99=500ms --max-error-rate=0.01  objectives used to find the saturation rate",
+            "  --max-in-flight=2000            outstanding requests before arrivals are dropped",
+            "  --books=10000 --reviews=50000 --commented-reviews=2000 --comments-per-review=10 --surveys=500",
+            "  --seed-parallelism=32",
+            "  --report=target/load-report.json --compare=<previous report> --label=<build label>",
+            "  --threading=platform|virtual|both  both: run twice and compare (virtual threads need Java 21)",
+            "  --stop-at-saturation=false      keep stepping after the objectives are missed",
+            "  --book-reads=servlet|reactive|both  send book.get/search/genre to /api/reactive/books; both: compare",
+            "  --service.<property>=<value>    e.g. --service.spring.threads.virtual.enabled=true",
+            "  --list                          print scenarios and endpoints");
+    
+    private static final String SERVICE_PREFIX = "--service.";
+    
+    private final Map<String, String> values = new HashMap<>();
+    private final List<String> serviceArgs = new ArrayList<>();
+    
+    public LoadTestOptions(String... args) {
+        for (String arg : args) {
+            if (arg.startsWith(SERVICE_PREFIX)) {
+                serviceArgs.add("--" + arg.substring(SERVICE_PREFIX.length()));
+                continue;
+            }
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals < 0) {
+                values.put(arg.substring(2), "true");
+            } else {
+                values.put(arg.substring(2, equals), arg.substring(equals + 1));
+            }
+        }
+    }
+    
+    public boolean flag(String name) {
+        return Boolean.parseBoolean(values.getOrDefault(name, "false"));
+    }
+    
+    public String string(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+    
+    public int integer(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+    
+    public double decimal(String name, double defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Double.parseDouble(value);
+    }
+    
+    public Duration duration(String name, String defaultValue) {
+        return DurationStyle.detectAndParse(values.getOrDefault(name, defaultValue));
+    }
+    
+    public Path path(String name, String defaultValue) {
+        String value = values.getOrDefault(name, defaultValue);
+        return value == null ? null : Paths.get(value);
+    }
+    
+    public List<Double> rates() {
+        List<Double> rates = new ArrayList<>();
+        for (String rate : values.getOrDefault("rate", "200").split(",")) {
+            rates.add(Double.parseDouble(rate.trim()));
+        }
+        return rates;
+    }
+    
+    public Map<String, Integer> mix() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        String mix = values.get("mix");
+        if (mix == null || mix.isEmpty()) {
+            return weights;
+        }
+        for (String entry : mix.split(",")) {
+            int colon = entry.lastIndexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Expected endpoint:weight in --mix, got " + entry);
+            }
+            weights.put(entry.substring(0, colon).trim(), Integer.parseInt(entry.substring(colon + 1).trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.loadtest;
+
+import com.example.bookservice.BookServiceApplication;
+import com.example.bookservice.config.ReactiveBookServer;
+import com.example.commentservice.CommentServiceApplication;
+import com.example.reviewservice.ReviewServiceApplication;
+import com.example.surveyservice.SurveyServiceApplication;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Embedded Postgres and Kafka with the four services started on random ports inside this JVM. book-service's WebFlux
+// server for the reactive reads gets a random port of its own and is addressed as BOOKS_REACTIVE
+@Slf4j
+public class StandInEnvironment implements AutoCloseable {
+    
+    public static final String BOOKS = "books";
+    public static final String BOOKS_REACTIVE = "books-reactive";
+    public static final String REVIEWS = "reviews";
+    public static final String COMMENTS = "comments";
+    public static final String SURVEYS = "surveys";
+    
+    private final EmbeddedPostgres postgres;
+    private final EmbeddedKafkaKraftBroker kafka;
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private final Map<String, String> baseUrls = new LinkedHashMap<>();
+    
+    private StandInEnvironment(EmbeddedPostgres postgres, EmbeddedKafkaKraftBroker kafka) {
+        this.postgres = postgres;
+        this.kafka = kafka;
+    }
+    
+    // Extra arguments (--name=value) are passed to every service and win over its application.yml
+    public static StandInEnvironment start(List<String> serviceArgs) throws IOException, SQLException {
+        long started = System.currentTimeMillis();
+        EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 6);
+        kafka.afterPropertiesSet();
+        StandInEnvironment environment = new StandInEnvironment(postgres, kafka);
+        try {
+            ConfigurableApplicationContext books = environment.startService(BOOKS, BookServiceApplication.class,
+                    serviceArgs,
+                    "--spring.r2dbc.url=r2dbc:postgresql://localhost:" + postgres.getPort() + "/" + BOOKS,
+                    "--spring.r2dbc.username=postgres",
+                    "--spring.r2dbc.password=",
+                    "--book.reactive.port=0");
+            environment.baseUrls.put(BOOKS_REACTIVE,
+                    "http://localhost:" + books.getBean(ReactiveBookServer.class).getPort());
+            environment.startService(REVIEWS, ReviewServiceApplication.class, serviceArgs,
+                    "--review.ingest.enabled=true");
+            environment.startService(COMMENTS, CommentServiceApplication.class, serviceArgs);
+            environment.startService(SURVEYS, SurveyServiceApplication.class, serviceArgs,
+                    "--survey.responses.log-dir=" + Files.createTempDirectory("survey-responses"));
+        } catch (IOException | SQLException | RuntimeException e) {
+            environment.close();
+            throw e;
+        }
+        log.info("Stand-in environment up in {} ms: {}", System.currentTimeMillis() - started, environment.baseUrls);
+        return environment;
+    }
+    
+    public String baseUrl(String service) {
+        return baseUrls.get(service);
+    }
+    
+    // One database per service, as in production; Hibernate creates the schema from the entities
+    private ConfigurableApplicationContext startService(String name, Class<?> application, List<String> serviceArgs,
+                                                        String... extraArgs) throws SQLException {
+        try (Connection connection = postgres.getPostgresDatabase().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE " + name);
+        }
+        List<String> args = new ArrayList<>(Arrays.asList(
+                "--spring.config.location=" + ownConfig(application),
+                "--server.port=0",
+                "--spring.main.banner-mode=off",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", name) + "&reWriteBatchedInserts=true",
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=create",
+                "--spring.kafka.bootstrap-servers=" + kafka.getBrokersAsString(),
+                "--logging.level.root=WARN"));
+        args.addAll(Arrays.asList(extraArgs));
+        args.addAll(serviceArgs);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(application)
+                .run(args.toArray(new String[0]));
+        contexts.add(context);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrls.put(name, "http://localhost:" + port);
+        return context;
+    }
+    
+    // Every service jar has an application.yml at its root, and classpath:application.yml would resolve to
+    // whichever comes first; read the one next to the application class instead
+    private static String ownConfig(Class<?> application) {
+        String location = application.getProtectionDomain().getCodeSource().getLocation().toString();
+        if (location.endsWith(".jar")) {
+            return "jar:" + location + "!/application.yml";
+        }
+        return location + (location.endsWith("/") ? "" : "/") + "application.yml";
+    }
+    
+    @Override
+    public void close() throws IOException {
+        for (int i = contexts.size() - 1; i >= 0; i--) {
+            contexts.get(i).close();
+        }
+        kafka.destroy();
+        postgres.close();
+    }
+}
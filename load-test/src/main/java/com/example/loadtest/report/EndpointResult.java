@@ -0,0 +1,69 @@
+package com.example.loadtest.report;
+
+import com.example.loadtest.run.EndpointStats;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.HdrHistogram.Histogram;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+// Per-endpoint summary of one step; latencies in milliseconds, measured from the intended send time
+@Data
+@NoArgsConstructor
+public class EndpointResult {
+    
+    private String name;
+    private String service;
+    private long completed;
+    private long errors;
+    private long rejected;
+    private long dropped;
+    private double errorRate;
+    private double throughput;
+    private double meanMs;
+    private double p50Ms;
+    private double p90Ms;
+    private double p99Ms;
+    private double p999Ms;
+    private double maxMs;
+    private Map<Integer, Long> statuses;
+    // Full HdrHistogram (microseconds), compressed and base64 encoded, for re-analysis or merging later
+    private String histogram;
+    
+    public static EndpointResult of(String name, String service, EndpointStats stats, Duration duration) {
+        Histogram latency = stats.histogram();
+        EndpointResult result = new EndpointResult();
+        result.name = name;
+        result.service = service;
+        result.completed = stats.getCompleted();
+        result.errors = stats.getErrors();
+        result.rejected = stats.getRejected();
+        result.dropped = stats.getDropped();
+        long attempted = result.completed + result.dropped;
+        result.errorRate = attempted == 0 ? 0 : (double) (result.errors + result.dropped) / attempted;
+        result.throughput = (result.completed - result.errors) / (duration.toNanos() / 1e9);
+        result.meanMs = latency.getMean() / 1000;
+        result.p50Ms = millis(latency, 50);
+        result.p90Ms = millis(latency, 90);
+        result.p99Ms = millis(latency, 99);
+        result.p999Ms = millis(latency, 99.9);
+        result.maxMs = latency.getMaxValue() / 1000.0;
+        result.statuses = stats.getStatuses();
+        result.histogram = encode(latency);
+        return result;
+    }
+    
+    private static double millis(Histogram latency, double percentile) {
+        return latency.getValueAtPercentile(percentile) / 1000.0;
+    }
+    
+    private static String encode(Histogram latency) {
+        ByteBuffer buffer = ByteBuffer.allocate(latency.getNeededByteBufferCapacity());
+        int length = latency.encodeIntoCompressedByteBuffer(buffer);
+        return Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length));
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.loadtest.report;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Everything needed to compare one run with another: what was offered, to which build, and what came back
+@Data
+@NoArgsConstructor
+public class LoadReport {
+    
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    
+    private String label;
+    private String scenario;
+    private Map<String, Integer> weights;
+    private String startedAt;
+    private String javaVersion;
+    private long warmupSeconds;
+    private long durationSeconds;
+    private double sloP99Ms;
+    private Map<String, Integer> seed;
+    private List<String> serviceArgs;
+    private List<StepResult> steps = new ArrayList<>();
+    
+    // Highest offered rate that stayed within the objectives; 0 when even the first step missed them
+    public double getSaturationRate() {
+        double saturation = 0;
+        for (StepResult step : steps) {
+            if (!step.isWithinSlo()) {
+                break;
+            }
+            saturation = step.getTargetRate();
+        }
+        return saturation;
+    }
+    
+    public void write(Path file) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        MAPPER.writeValue(file.toFile(), this);
+    }
+    
+    public static LoadReport read(Path file) throws IOException {
+        return MAPPER.readerFor(LoadReport.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readValue(file.toFile());
+    }
+    
+    public void print(PrintStream out) {
+        out.printf("%nScenario %s (%s), %ds measured after %ds warmup, p99 objective %.0f ms, %s%n",
+                scenario, label, durationSeconds, warmupSeconds, sloP99Ms, javaVersion);
+        for (StepResult step : steps) {
+            out.printf("%n%.0f req/s offered, %.1f req/s succeeded, %.2f%% failed%s%n",
+                    step.getTargetRate(), step.getAchievedRate(), step.getErrorRate() * 100,
+                    step.isWithinSlo() ? "" : "  ** outside objectives **");
+            ResourceUsage resources = step.getResources();
+            if (resources != null) {
+                out.printf("  %.0f in flight, %d threads, %.0f MB heap, %.1f KB allocated per request%n",
+                        resources.getMeanInFlight(), resources.getPeakThreads(), resources.getMeanHeapUsedMb(),
+                        resources.getAllocatedKbPerRequest());
+            }
+            out.printf("  %-22s %9s %7s %8s %8s %9s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "errors", "rejected", "dropped",
+                    "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+            for (EndpointResult endpoint : step.getEndpoints()) {
+                out.printf("  %-22s %9d %7d %8d %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                        endpoint.getName(), endpoint.getCompleted(), endpoint.getErrors(),
+                        endpoint.getRejected(), endpoint.getDropped(),
+                        endpoint.getP50Ms(), endpoint.getP90Ms(), endpoint.getP99Ms(), endpoint.getP999Ms(),
+                        endpoint.getMaxMs());
+            }
+        }
+        out.printf("%nSaturation: %.0f req/s%n", getSaturationRate());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.loadtest.report;
+
+import java.io.PrintStream;
+import java.util.HashMap;
+import java.util.Map;
+
+// Side-by-side throughput, resource and latency changes between two reports, matched by offered rate and endpoint name
+public final class ReportComparison {
+    
+    private ReportComparison() {
+    }
+    
+    public static void print(LoadReport previous, LoadReport current, PrintStream out) {
+        out.printf("%nCompared with %s (%s)%n", previous.getLabel(), previous.getStartedAt());
+        if (!previous.getScenario().equals(current.getScenario())) {
+            out.printf("  note: scenario differs (%s vs %s)%n", previous.getScenario(), current.getScenario());
+        }
+        Map<Double, StepResult> previousSteps = new HashMap<>();
+        for (StepResult step : previous.getSteps()) {
+            previousSteps.put(step.getTargetRate(), step);
+        }
+        for (StepResult step : current.getSteps()) {
+            StepResult before = previousSteps.get(step.getTargetRate());
+            if (before == null) {
+                out.printf("%n%.0f req/s: no matching step%n", step.getTargetRate());
+                continue;
+            }
+            Map<String, EndpointResult> previousEndpoints = new HashMap<>();
+            for (EndpointResult endpoint : before.getEndpoints()) {
+                previousEndpoints.put(endpoint.getName(), endpoint);
+            }
+            out.printf("%n%.0f req/s offered%n", step.getTargetRate());
+            out.printf("  succeeded %s req/s%n", change(before.getAchievedRate(), step.getAchievedRate()));
+            if (before.getResources() != null && step.getResources() != null) {
+                ResourceUsage was = before.getResources();
+                ResourceUsage now = step.getResources();
+                out.printf("  in flight %s, threads %s, heap MB %s, KB allocated per request %s%n",
+                        change(was.getMeanInFlight(), now.getMeanInFlight()),
+                        change(was.getPeakThreads(), now.getPeakThreads()),
+                        change(was.getMeanHeapUsedMb(), now.getMeanHeapUsedMb()),
+                        change(was.getAllocatedKbPerRequest(), now.getAllocatedKbPerRequest()));
+            }
+            out.printf("  %-22s %20s %20s %20s %16s%n", "endpoint", "p50 ms", "p99 ms", "p99.9 ms", "error rate");
+            for (EndpointResult endpoint : step.getEndpoints()) {
+                EndpointResult old = previousEndpoints.get(endpoint.getName());
+                if (old == null) {
+                    out.printf("  %-22s (new)%n", endpoint.getName());
+                    continue;
+                }
+                out.printf("  %-22s %20s %20s %20s %7.2f%% -> %5.2f%%%n", endpoint.getName(),
+                        change(old.getP50Ms(), endpoint.getP50Ms()),
+                        change(old.getP99Ms(), endpoint.getP99Ms()),
+                        change(old.getP999Ms(), endpoint.getP999Ms()),
+                        old.getErrorRate() * 100, endpoint.getErrorRate() * 100);
+            }
+        }
+        out.printf("%nSaturation: %.0f -> %.0f req/s%n", previous.getSaturationRate(), current.getSaturationRate());
+    }
+    
+    private static String change(double before, double after) {
+        if (before == 0) {
+            return String.format("%.2f", after);
+        }
+        return String.format("%.2f (%+.0f%%)", after, (after - before) / before * 100);
+    }
+}
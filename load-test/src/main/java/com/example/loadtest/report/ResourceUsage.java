@@ -0,0 +1,18 @@
+package com.example.loadtest.report;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// JVM-wide resource use while a step was measured. The services and the load generator share one JVM, so these are
+// for comparing runs of the same mix (servlet vs reactive reads, platform vs virtual threads), not absolute figures
+@Data
+@NoArgsConstructor
+public class ResourceUsage {
+    
+    // Requests sent but not yet answered, averaged over the samples
+    private double meanInFlight;
+    private int peakThreads;
+    private double meanHeapUsedMb;
+    // Allocation by all threads over the step per completed request; -1 when the JVM can't report it
+    private double allocatedKbPerRequest;
+}
@@ -0,0 +1,40 @@
+package com.example.loadtest.report;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// One offered rate held for the measured duration
+@Data
+@NoArgsConstructor
+public class StepResult {
+    
+    private double targetRate;
+    private double achievedRate;
+    private double errorRate;
+    // False once the services fall behind the offered rate, fail requests or miss the p99 objective
+    private boolean withinSlo;
+    private List<EndpointResult> endpoints;
+    private ResourceUsage resources;
+    
+    public static StepResult of(double targetRate, List<EndpointResult> endpoints, ResourceUsage resources,
+                                double maxErrorRate, double sloP99Ms) {
+        StepResult step = new StepResult();
+        step.targetRate = targetRate;
+        step.endpoints = endpoints;
+        step.resources = resources;
+        long attempted = 0;
+        long failed = 0;
+        boolean latencyMet = true;
+        for (EndpointResult endpoint : endpoints) {
+            step.achievedRate += endpoint.getThroughput();
+            attempted += endpoint.getCompleted() + endpoint.getDropped();
+            failed += endpoint.getErrors() + endpoint.getDropped();
+            latencyMet &= endpoint.getP99Ms() <= sloP99Ms;
+        }
+        step.errorRate = attempted == 0 ? 0 : (double) failed / attempted;
+        step.withinSlo = latencyMet && step.errorRate <= maxErrorRate && step.achievedRate >= 0.95 * targetRate;
+        return step;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.loadtest.run;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Latency and outcome counters for one endpoint during one measured step; safe for concurrent recording
+public class EndpointStats {
+    
+    // Status recorded for requests that failed without an HTTP response (connect errors, timeouts)
+    public static final int TRANSPORT_ERROR = 0;
+    
+    private final Recorder latencyMicros = new Recorder(3);
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final Set<Integer> rejections;
+    
+    // rejections are the endpoint's expected refusals, e.g. 409 from a full survey
+    public EndpointStats(Set<Integer> rejections) {
+        this.rejections = rejections;
+    }
+    
+    // Latency runs from the intended send time, so queueing in the client is not hidden (coordinated omission)
+    public void record(long latencyNanos, int status) {
+        latencyMicros.recordValue(Math.max(1, latencyNanos / 1000));
+        completed.increment();
+        // Expected refusals are not held against the service; any other non-2xx, 4xx included, is an error
+        if (rejections.contains(status)) {
+            rejected.increment();
+        } else if (status / 100 != 2) {
+            errors.increment();
+        }
+        statuses.computeIfAbsent(status, code -> new LongAdder()).increment();
+    }
+    
+    // An arrival that was never sent because too many requests were already outstanding
+    public void drop() {
+        dropped.increment();
+    }
+    
+    public Histogram histogram() {
+        return latencyMicros.getIntervalHistogram();
+    }
+    
+    public long getCompleted() {
+        return completed.sum();
+    }
+    
+    public long getErrors() {
+        return errors.sum();
+    }
+    
+    public long getRejected() {
+        return rejected.sum();
+    }
+    
+    public long getDropped() {
+        return dropped.sum();
+    }
+    
+    public Map<Integer, Long> getStatuses() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+}
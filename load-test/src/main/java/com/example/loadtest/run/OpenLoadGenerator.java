@@ -0,0 +1,97 @@
+package com.example.loadtest.run;
+
+import com.example.loadtest.StandInEnvironment;
+import com.example.loadtest.scenario.Endpoint;
+import com.example.loadtest.scenario.Scenario;
+import com.example.loadtest.scenario.TestData;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+// Open-model load: requests are issued on a fixed schedule whether or not earlier ones have completed, so a slow
+// service builds a backlog (and long latencies) instead of quietly receiving less traffic
+@Slf4j
+public class OpenLoadGenerator {
+    
+    private static final long DRAIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(60);
+    
+    private final StandInEnvironment environment;
+    private final HttpClient httpClient;
+    private final TestData data;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    public OpenLoadGenerator(StandInEnvironment environment, HttpClient httpClient, TestData data, int maxInFlight) {
+        this.environment = environment;
+        this.httpClient = httpClient;
+        this.data = data;
+        this.maxInFlight = maxInFlight;
+    }
+    
+    public int inFlight() {
+        return inFlight.get();
+    }
+    
+    // Drive the mix at ratePerSecond for warmup + duration; only arrivals scheduled after the warmup are recorded
+    public Map<String, EndpointStats> run(Scenario.Mix mix, double ratePerSecond, Duration warmup, Duration duration)
+            throws InterruptedException {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        for (Endpoint endpoint : mix.getEndpoints()) {
+            stats.put(endpoint.getName(), new EndpointStats(endpoint.getRejections()));
+        }
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Endpoint endpoint = mix.pick();
+            EndpointStats endpointStats = intended >= measureFrom ? stats.get(endpoint.getName()) : null;
+            if (inFlight.get() >= maxInFlight) {
+                if (endpointStats != null) {
+                    endpointStats.drop();
+                }
+                continue;
+            }
+            send(endpoint, intended, endpointStats);
+        }
+        
+        long drainDeadline = System.nanoTime() + DRAIN_TIMEOUT_NANOS;
+        while (inFlight.get() > 0 && System.nanoTime() < drainDeadline) {
+            Thread.sleep(10);
+        }
+        if (inFlight.get() > 0) {
+            log.warn("{} requests still outstanding after the drain timeout", inFlight.get());
+        }
+        return stats;
+    }
+    
+    private void send(Endpoint endpoint, long intended, EndpointStats endpointStats) {
+        HttpRequest request = endpoint.request(environment.baseUrl(endpoint.getService()), data);
+        inFlight.incrementAndGet();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    inFlight.decrementAndGet();
+                    if (endpointStats != null) {
+                        int status = error == null ? response.statusCode() : EndpointStats.TRANSPORT_ERROR;
+                        endpointStats.record(System.nanoTime() - intended, status);
+                    }
+                });
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.loadtest.run;
+
+import com.example.loadtest.report.ResourceUsage;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+// Samples requests in flight, live threads and heap every 100 ms over a step's measured window
+public class ResourceSampler {
+    
+    private static final long INTERVAL_MILLIS = 100;
+    
+    private final IntSupplier inFlight;
+    private final long measureFrom;
+    private final long measureUntil;
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "resource-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private long samples;
+    private long inFlightTotal;
+    private long heapUsedTotal;
+    private int peakThreads;
+    private long allocatedAtStart = -1;
+    private long allocatedAtEnd = -1;
+    
+    private ResourceSampler(IntSupplier inFlight, Duration warmup, Duration duration) {
+        this.inFlight = inFlight;
+        this.measureFrom = System.nanoTime() + warmup.toNanos();
+        this.measureUntil = measureFrom + duration.toNanos();
+    }
+    
+    // Call just before the generator starts the step, with the same warmup and duration
+    public static ResourceSampler start(IntSupplier inFlight, Duration warmup, Duration duration) {
+        ResourceSampler sampler = new ResourceSampler(inFlight, warmup, duration);
+        sampler.scheduler.scheduleAtFixedRate(sampler::sample, warmup.toMillis(), INTERVAL_MILLIS,
+                TimeUnit.MILLISECONDS);
+        return sampler;
+    }
+    
+    public ResourceUsage stop(long completedRequests) throws InterruptedException {
+        scheduler.shutdownNow();
+        scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        synchronized (this) {
+            ResourceUsage usage = new ResourceUsage();
+            if (samples > 0) {
+                usage.setMeanInFlight((double) inFlightTotal / samples);
+                usage.setMeanHeapUsedMb(heapUsedTotal / (double) samples / (1024 * 1024));
+            }
+            usage.setPeakThreads(peakThreads);
+            usage.setAllocatedKbPerRequest(allocatedAtStart < 0 || allocatedAtEnd < 0 || completedRequests == 0
+                    ? -1 : (allocatedAtEnd - allocatedAtStart) / 1024.0 / completedRequests);
+            return usage;
+        }
+    }
+    
+    private synchronized void sample() {
+        long now = System.nanoTime();
+        if (now < measureFrom || now > measureUntil) {
+            return;
+        }
+        samples++;
+        inFlightTotal += inFlight.getAsInt();
+        heapUsedTotal += memory.getHeapMemoryUsage().getUsed();
+        peakThreads = Math.max(peakThreads, threads.getThreadCount());
+        long allocated = allocatedBytes();
+        if (allocatedAtStart < 0) {
+            allocatedAtStart = allocated;
+        }
+        allocatedAtEnd = allocated;
+    }
+    
+    // Summed over live threads, so it is close rather than exact: anything allocated by a thread that exits
+    // mid-step drops out. The service and client pools live for the whole run
+    private long allocatedBytes() {
+        if (!(threads instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        long total = 0;
+        for (long bytes : ((com.sun.management.ThreadMXBean) threads).getThreadAllocatedBytes(
+                threads.getAllThreadIds())) {
+            total += Math.max(bytes, 0);
+        }
+        return total;
+    }
+}
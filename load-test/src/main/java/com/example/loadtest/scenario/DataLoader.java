@@ -0,0 +1,204 @@
+package com.example.loadtest.scenario;
+
+import com.example.bookservice.entity.Book;
+import com.example.commentservice.entity.Comment;
+import com.example.loadtest.StandInEnvironment;
+import com.example.surveyservice.entity.Survey;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntFunction;
+
+import static com.example.loadtest.StandInEnvironment.BOOKS;
+import static com.example.loadtest.StandInEnvironment.COMMENTS;
+import static com.example.loadtest.StandInEnvironment.REVIEWS;
+import static com.example.loadtest.StandInEnvironment.SURVEYS;
+
+// Seeds the services through their public APIs so caches, indexes, counters and aggregates start consistent
+@Slf4j
+public class DataLoader {
+    
+    private static final int TOP_LEVEL_COMMENTS = 3;
+    
+    private final StandInEnvironment environment;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int parallelism;
+    
+    public DataLoader(StandInEnvironment environment, HttpClient httpClient, int parallelism) {
+        this.environment = environment;
+        this.httpClient = httpClient;
+        this.parallelism = parallelism;
+    }
+    
+    public TestData load(int books, int reviews, int commentedReviews, int commentsPerReview, int surveys)
+            throws IOException, InterruptedException {
+        long started = System.currentTimeMillis();
+        List<Long> bookIds = loadBooks(books);
+        TestData withBooks = new TestData(bookIds, Collections.emptyList(), Collections.emptyList(),
+                Collections.emptyList());
+        List<Long> reviewIds = parallel(reviews, i -> idOf(post(REVIEWS, "/api/reviews",
+                Endpoints.newReview(withBooks))));
+        List<Long> rootCommentIds = loadComments(reviewIds, commentedReviews, commentsPerReview);
+        List<Long> surveyIds = parallel(surveys, i -> idOf(post(SURVEYS, "/api/surveys", newSurvey(withBooks))));
+        log.info("Seeded {} books, {} reviews, {} comment threads and {} surveys in {} ms", bookIds.size(),
+                reviewIds.size(), rootCommentIds.size(), surveyIds.size(), System.currentTimeMillis() - started);
+        return new TestData(bookIds, reviewIds, rootCommentIds, surveyIds);
+    }
+    
+    // One streamed NDJSON import, then walk the keyset pages to learn the assigned IDs
+    private List<Long> loadBooks(int count) throws IOException, InterruptedException {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            ndjson.append(Endpoints.json(newBook(i))).append('\n');
+        }
+        HttpRequest importRequest = HttpRequest.newBuilder(uri(BOOKS, "/api/books/import"))
+                .header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(ndjson.toString()))
+                .build();
+        check(httpClient.send(importRequest, HttpResponse.BodyHandlers.ofString()));
+        
+        List<Long> ids = new ArrayList<>(count);
+        String cursor = null;
+        do {
+            String path = "/api/books?size=100" + (cursor == null ? "" : "&cursor=" + encode(cursor));
+            JsonNode page = objectMapper.readTree(check(httpClient.send(
+                    HttpRequest.newBuilder(uri(BOOKS, path)).build(), HttpResponse.BodyHandlers.ofString())));
+            for (JsonNode book : page.path("items")) {
+                ids.add(book.path("id").asLong());
+            }
+            cursor = page.path("hasMore").asBoolean() ? page.path("nextCursor").asText() : null;
+        } while (cursor != null);
+        return ids;
+    }
+    
+    // A few top-level comments per review, the rest replying to earlier ones in the same review
+    private List<Long> loadComments(List<Long> reviewIds, int commentedReviews, int perReview)
+            throws InterruptedException {
+        List<List<Long>> roots = parallel(Math.min(commentedReviews, reviewIds.size()), i -> {
+            Long reviewId = reviewIds.get(i);
+            List<Long> created = new ArrayList<>(perReview);
+            for (int c = 0; c < perReview; c++) {
+                Comment comment = new Comment();
+                comment.setReviewId(reviewId);
+                comment.setUserId(1 + (long) ThreadLocalRandom.current().nextInt(100_000));
+                comment.setContent(TestData.sentence(5 + ThreadLocalRandom.current().nextInt(30)));
+                comment.setCommenterName(TestData.randomName());
+                if (c >= TOP_LEVEL_COMMENTS) {
+                    comment.setParentCommentId(created.get(ThreadLocalRandom.current().nextInt(created.size())));
+                }
+                created.add(idOf(post(COMMENTS, "/api/comments", Endpoints.json(comment))));
+            }
+            return created.subList(0, Math.min(TOP_LEVEL_COMMENTS, created.size()));
+        });
+        List<Long> rootIds = new ArrayList<>();
+        roots.forEach(rootIds::addAll);
+        return rootIds;
+    }
+    
+    private static Book newBook(int index) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Book book = new Book();
+        book.setTitle("The " + TestData.randomWord() + " " + TestData.randomWord());
+        book.setAuthor(TestData.randomName());
+        book.setIsbn(String.format("978%010d", index));
+        book.setDescription(TestData.sentence(20 + random.nextInt(30)));
+        book.setPublishedYear(1900 + random.nextInt(125));
+        book.setGenre(TestData.randomGenre());
+        book.setPageCount(80 + random.nextInt(1100));
+        return book;
+    }
+    
+    // Open surveys, one in ten capped
+    private static String newSurvey(TestData data) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDateTime now = LocalDateTime.now();
+        Survey survey = new Survey();
+        survey.setTitle("What did you think of the " + TestData.randomWord() + " chapter?");
+        survey.setDescription(TestData.sentence(15));
+        survey.setCreatorId(1 + (long) random.nextInt(10_000));
+        survey.setCreatorName(TestData.randomName());
+        survey.setBookId(data.randomBookId());
+        survey.setStatus(Survey.SurveyStatus.ACTIVE);
+        survey.setStartDate(now.minusDays(1));
+        survey.setEndDate(now.plusDays(30));
+        survey.setMaxResponses(random.nextInt(10) == 0 ? 5_000 : null);
+        return Endpoints.json(survey);
+    }
+    
+    private String post(String service, String path, String json) {
+        HttpRequest request = HttpRequest.newBuilder(uri(service, path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        try {
+            return check(httpClient.send(request, HttpResponse.BodyHandlers.ofString()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Seeding request to " + path + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while seeding", e);
+        }
+    }
+    
+    private Long idOf(String json) {
+        try {
+            return objectMapper.readTree(json).path("id").asLong();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable response while seeding: " + json, e);
+        }
+    }
+    
+    private <T> List<T> parallel(int count, IntFunction<T> task) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try {
+            List<Future<T>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> task.apply(index)));
+            }
+            List<T> results = new ArrayList<>(count);
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Seeding failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private URI uri(String service, String path) {
+        return URI.create(environment.baseUrl(service) + path);
+    }
+    
+    private static String check(HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException(response.request().method() + " " + response.request().uri()
+                    + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
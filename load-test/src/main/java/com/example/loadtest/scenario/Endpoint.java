@@ -0,0 +1,56 @@
+package com.example.loadtest.scenario;
+
+import lombok.Value;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+// One REST operation the load generator can call; path and body are drawn fresh for every request
+@Value
+public class Endpoint {
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    String name;
+    String service;
+    String method;
+    Function<TestData, String> path;
+    // Null for requests without a body
+    Function<TestData, String> body;
+    // Non-2xx statuses that are a correct answer under load (a full survey); any other is an error
+    Set<Integer> rejections;
+    
+    public static Endpoint get(String name, String service, Function<TestData, String> path) {
+        return new Endpoint(name, service, "GET", path, null, Set.of());
+    }
+    
+    public static Endpoint post(String name, String service, Function<TestData, String> path,
+                                Function<TestData, String> body) {
+        return new Endpoint(name, service, "POST", path, body, Set.of());
+    }
+    
+    // Same operation sent to another service with its path rewritten, e.g. to a mirror of the same API
+    public Endpoint mirroredAt(String mirror, UnaryOperator<String> rewrite) {
+        return new Endpoint(name, mirror, method, data -> rewrite.apply(path.apply(data)), body, rejections);
+    }
+    
+    // Same operation, counting these statuses as rejections rather than errors
+    public Endpoint rejecting(Integer... statuses) {
+        return new Endpoint(name, service, method, path, body, Set.of(statuses));
+    }
+    
+    public HttpRequest request(String baseUrl, TestData data) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path.apply(data)))
+                .timeout(REQUEST_TIMEOUT);
+        if (body == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body.apply(data)))
+                .build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.loadtest.scenario;
+
+import com.example.commentservice.entity.Comment;
+import com.example.reviewservice.entity.Review;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+import static com.example.loadtest.StandInEnvironment.BOOKS;
+import static com.example.loadtest.StandInEnvironment.BOOKS_REACTIVE;
+import static com.example.loadtest.StandInEnvironment.COMMENTS;
+import static com.example.loadtest.StandInEnvironment.REVIEWS;
+import static com.example.loadtest.StandInEnvironment.SURVEYS;
+
+// Every endpoint a scenario can put in its mix, by name
+public final class Endpoints {
+    
+    private static final ObjectMapper OBJECT_MAPPER = Jackson2ObjectMapperBuilder.json().build();
+    private static final Map<String, Endpoint> ALL = new LinkedHashMap<>();
+    // Book reads that ReactiveBookController mirrors under /api/reactive/books
+    private static final Set<String> REACTIVE_BOOK_READS = Set.of("book.get", "book.search", "book.genre");
+    
+    static {
+        // book-service
+        add(Endpoint.get("book.get", BOOKS, data -> "/api/books/" + data.popularBookId()));
+        add(Endpoint.get("book.page", BOOKS, data -> "/api/books?size=50"));
+        add(Endpoint.get("book.batch", BOOKS, data -> "/api/books?ids=" + idList(data::randomBookId, 50)));
+        add(Endpoint.get("book.search", BOOKS, data -> "/api/books/search/title?title=" + TestData.randomWord()));
+        add(Endpoint.get("book.genre", BOOKS, data -> "/api/books/genre/" + encodePath(TestData.randomGenre())));
+        add(Endpoint.get("book.autocomplete", BOOKS,
+                data -> "/api/books/autocomplete?q=" + TestData.randomWord().substring(0, 3)));
+        add(Endpoint.get("book.facets", BOOKS,
+                data -> "/api/books/facets?genre=" + encode(TestData.randomGenre()) + "&yearFrom=1950&limit=20"));
+        
+        // review-service
+        add(Endpoint.get("review.by-book", REVIEWS, data -> "/api/reviews/book/" + data.popularBookId()));
+        add(Endpoint.get("review.histogram", REVIEWS,
+                data -> "/api/reviews/book/" + data.popularBookId() + "/rating-histogram"));
+        add(Endpoint.get("review.summaries", REVIEWS,
+                data -> "/api/reviews/book/summaries?bookIds=" + idList(data::randomBookId, 20)));
+        add(Endpoint.get("review.leaderboard", REVIEWS, data -> "/api/reviews/leaderboard?limit=10&window=7d"));
+        add(Endpoint.post("review.create", REVIEWS, data -> "/api/reviews", Endpoints::newReview));
+        add(Endpoint.post("review.create-async", REVIEWS, data -> "/api/reviews/async", Endpoints::newReview)
+                .rejecting(429));
+        
+        // comment-service
+        add(Endpoint.get("comment.by-review", COMMENTS, data -> "/api/comments/review/" + data.randomReviewId()));
+        add(Endpoint.get("comment.thread", COMMENTS,
+                data -> "/api/comments/review/" + data.randomReviewId() + "/thread"));
+        add(Endpoint.get("comment.subtree", COMMENTS,
+                data -> "/api/comments/" + data.randomRootCommentId() + "/thread"));
+        add(Endpoint.get("comment.counts", COMMENTS,
+                data -> "/api/comments/review/counts?reviewIds=" + idList(data::randomReviewId, 20)));
+        add(Endpoint.post("comment.create", COMMENTS, data -> "/api/comments", Endpoints::newComment));
+        
+        // survey-service
+        add(Endpoint.get("survey.get", SURVEYS, data -> "/api/surveys/" + data.randomSurveyId()));
+        add(Endpoint.get("survey.active", SURVEYS, data -> "/api/surveys/active"));
+        add(Endpoint.get("survey.available", SURVEYS, data -> "/api/surveys/available"));
+        add(Endpoint.post("survey.respond", SURVEYS,
+                data -> "/api/surveys/" + data.randomSurveyId() + "/responses", data -> newResponse())
+                .rejecting(409));
+        add(Endpoint.get("survey.responses", SURVEYS,
+                data -> "/api/surveys/" + data.randomSurveyId() + "/responses?size=20"));
+    }
+    
+    private Endpoints() {
+    }
+    
+    public static Endpoint get(String name) {
+        Endpoint endpoint = ALL.get(name);
+        if (endpoint == null) {
+            throw new IllegalArgumentException("Unknown endpoint '" + name + "'; known: " + ALL.keySet());
+        }
+        return endpoint;
+    }
+    
+    // The reactive counterpart of a book read, under the same name so reports line up; other endpoints unchanged
+    public static Endpoint reactive(Endpoint endpoint) {
+        if (!REACTIVE_BOOK_READS.contains(endpoint.getName())) {
+            return endpoint;
+        }
+        return endpoint.mirroredAt(BOOKS_REACTIVE,
+                path -> "/api/reactive/books" + path.substring("/api/books".length()));
+    }
+    
+    public static Iterable<String> names() {
+        return ALL.keySet();
+    }
+    
+    public static String json(Object value) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    private static void add(Endpoint endpoint) {
+        ALL.put(endpoint.getName(), endpoint);
+    }
+    
+    static String newReview(TestData data) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Review review = new Review();
+        review.setBookId(data.popularBookId());
+        review.setUserId(1 + (long) random.nextInt(100_000));
+        review.setRating(1 + random.nextInt(5));
+        review.setComment(TestData.sentence(10 + random.nextInt(40)));
+        review.setReviewerName(TestData.randomName());
+        return json(review);
+    }
+    
+    static String newComment(TestData data) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Comment comment = new Comment();
+        comment.setReviewId(data.randomReviewId());
+        comment.setUserId(1 + (long) random.nextInt(100_000));
+        comment.setContent(TestData.sentence(5 + random.nextInt(30)));
+        comment.setCommenterName(TestData.randomName());
+        return json(comment);
+    }
+    
+    static String newResponse() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Map<String, Object> answers = new LinkedHashMap<>();
+        int questions = 3 + random.nextInt(8);
+        for (int q = 1; q <= questions; q++) {
+            Object answer = random.nextBoolean() ? 1 + random.nextInt(5) : TestData.sentence(3 + random.nextInt(10));
+            answers.put("q" + q, answer);
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("respondentId", 1 + random.nextInt(1_000_000));
+        response.put("answers", answers);
+        return json(response);
+    }
+    
+    private static String idList(LongSupplier id, int count) {
+        StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            ids.append(i == 0 ? "" : ",").append(id.getAsLong());
+        }
+        return ids.toString();
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+    
+    // URLEncoder targets query strings; a space in a path segment must be %20, not +
+    private static String encodePath(String value) {
+        return encode(value).replace("+", "%20");
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.loadtest.scenario;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// A named traffic mix: each endpoint receives a share of the arrivals proportional to its weight
+@Value
+public class Scenario {
+    
+    String name;
+    String description;
+    Map<String, Integer> weights;
+    
+    public static Scenario of(String name, String description, Object... endpointWeights) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (int i = 0; i < endpointWeights.length; i += 2) {
+            weights.put((String) endpointWeights[i], (Integer) endpointWeights[i + 1]);
+        }
+        return new Scenario(name, description, weights);
+    }
+    
+    // Replace or add weights, e.g. from --mix=book.get:50,review.create:0; zero removes an endpoint
+    public Scenario withWeights(Map<String, Integer> overrides) {
+        Map<String, Integer> merged = new LinkedHashMap<>(weights);
+        overrides.forEach((endpoint, weight) -> {
+            if (weight > 0) {
+                merged.put(endpoint, weight);
+            } else {
+                merged.remove(endpoint);
+            }
+        });
+        return new Scenario(name, description, merged);
+    }
+    
+    // Resolve endpoint names once; picking is then a binary search over cumulative weights
+    public Mix mix() {
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Scenario " + name + " has no endpoints");
+        }
+        List<Endpoint> endpoints = new ArrayList<>();
+        int[] cumulative = new int[weights.size()];
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            endpoints.add(Endpoints.get(entry.getKey()));
+            total += entry.getValue();
+            cumulative[endpoints.size() - 1] = total;
+        }
+        return new Mix(endpoints, cumulative);
+    }
+    
+    public static final class Mix {
+        
+        private final List<Endpoint> endpoints;
+        private final int[] cumulative;
+        
+        private Mix(List<Endpoint> endpoints, int[] cumulative) {
+            this.endpoints = endpoints;
+            this.cumulative = cumulative;
+        }
+        
+        public List<Endpoint> getEndpoints() {
+            return endpoints;
+        }
+        
+        // This mix with book reads sent to the reactive API instead of the servlet one
+        public Mix withReactiveBookReads() {
+            List<Endpoint> rerouted = new ArrayList<>();
+            for (Endpoint endpoint : endpoints) {
+                rerouted.add(Endpoints.reactive(endpoint));
+            }
+            return new Mix(rerouted, cumulative);
+        }
+        
+        public Endpoint pick() {
+            int roll = ThreadLocalRandom.current().nextInt(cumulative[cumulative.length - 1]);
+            int low = 0;
+            int high = cumulative.length - 1;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (cumulative[middle] > roll) {
+                    high = middle;
+                } else {
+                    low = middle + 1;
+                }
+            }
+            return endpoints.get(low);
+        }
+    }
+}
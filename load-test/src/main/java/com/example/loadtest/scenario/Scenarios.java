@@ -0,0 +1,51 @@
+package com.example.loadtest.scenario;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Built-in traffic mixes, selected with --scenario=<name>
+public final class Scenarios {
+    
+    private static final Map<String, Scenario> BUILT_IN = new LinkedHashMap<>();
+    
+    static {
+        add(Scenario.of("browse", "Read-heavy catalog browsing with ratings and discussions",
+                "book.get", 25, "book.page", 5, "book.batch", 5, "book.search", 8, "book.autocomplete", 15,
+                "book.facets", 5, "review.by-book", 10, "review.histogram", 6, "review.summaries", 5,
+                "review.leaderboard", 3, "comment.thread", 6, "comment.counts", 4, "survey.active", 3));
+        add(Scenario.of("review-burst", "A spike of review submissions while readers keep checking ratings",
+                "review.create", 45, "review.create-async", 15, "review.by-book", 10, "review.histogram", 10,
+                "review.summaries", 5, "review.leaderboard", 5, "comment.create", 10));
+        add(Scenario.of("survey-rush", "Many readers answering surveys at once",
+                "survey.respond", 70, "survey.responses", 10, "survey.active", 10, "survey.get", 10));
+        add(Scenario.of("mixed", "All services at once, mostly reads",
+                "book.get", 20, "book.search", 5, "book.autocomplete", 10, "book.facets", 5,
+                "review.by-book", 10, "review.histogram", 5, "review.create", 8, "comment.thread", 8,
+                "comment.subtree", 2, "comment.create", 5, "survey.available", 5, "survey.respond", 12,
+                "survey.get", 5));
+        add(Scenario.of("catalog-reads", "Book lookups, searches and genre listings; see --book-reads",
+                "book.get", 50, "book.search", 25, "book.genre", 25));
+        add(Scenario.of("blocking", "Requests that mostly wait on the database or fsync; for comparing thread models",
+                "book.search", 15, "book.facets", 10, "review.by-book", 15, "review.summaries", 10,
+                "comment.thread", 15, "comment.subtree", 5, "survey.respond", 30));
+    }
+    
+    private Scenarios() {
+    }
+    
+    public static Scenario get(String name) {
+        Scenario scenario = BUILT_IN.get(name);
+        if (scenario == null) {
+            throw new IllegalArgumentException("Unknown scenario '" + name + "'; built in: " + BUILT_IN.keySet());
+        }
+        return scenario;
+    }
+    
+    public static Iterable<Scenario> all() {
+        return BUILT_IN.values();
+    }
+    
+    private static void add(Scenario scenario) {
+        BUILT_IN.put(scenario.getName(), scenario);
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.loadtest.scenario;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// IDs created while seeding, for building requests that hit existing rows
+public class TestData {
+    
+    public static final String[] GENRES = {
+            "Fiction", "Mystery", "Thriller", "Romance", "Science Fiction", "Fantasy", "Horror", "Biography",
+            "History", "Poetry", "Travel", "Cooking", "Science", "Philosophy", "Business", "Self-Help"
+    };
+    
+    public static final String[] WORDS = {
+            "shadow", "river", "garden", "silent", "winter", "empire", "stone", "light", "house", "night",
+            "ocean", "secret", "journey", "memory", "fire", "glass", "kingdom", "letter", "mountain", "island",
+            "summer", "broken", "golden", "last", "forgotten", "city", "storm", "crown", "echo", "wild",
+            "midnight", "paper", "iron", "silver", "promise", "harbor", "forest", "daughter", "stranger", "war"
+    };
+    
+    public static final String[] NAMES = {
+            "Anna Adler", "Ben Brooks", "Clara Castillo", "David Dalton", "Elena Ellis", "Felix Fischer",
+            "Grace Garcia", "Hugo Hughes", "Iris Ivanova", "Jonas Jensen", "Kara Kowalski", "Leo Larsen",
+            "Maya Moreau", "Noah Nakamura", "Olivia Okafor", "Paul Petrov", "Rosa Rossi", "Samuel Silva"
+    };
+    
+    private final long[] bookIds;
+    private final long[] reviewIds;
+    private final long[] rootCommentIds;
+    private final long[] surveyIds;
+    
+    public TestData(List<Long> bookIds, List<Long> reviewIds, List<Long> rootCommentIds, List<Long> surveyIds) {
+        this.bookIds = toArray(bookIds);
+        this.reviewIds = toArray(reviewIds);
+        this.rootCommentIds = toArray(rootCommentIds);
+        this.surveyIds = toArray(surveyIds);
+    }
+    
+    // Reads favour popular books: the square of a uniform draw skews towards the front of the list
+    public long popularBookId() {
+        double skew = ThreadLocalRandom.current().nextDouble();
+        return bookIds[(int) (bookIds.length * skew * skew)];
+    }
+    
+    public long randomBookId() {
+        return pick(bookIds);
+    }
+    
+    public long randomReviewId() {
+        return pick(reviewIds);
+    }
+    
+    public long randomRootCommentId() {
+        return pick(rootCommentIds);
+    }
+    
+    public long randomSurveyId() {
+        return pick(surveyIds);
+    }
+    
+    public static String randomWord() {
+        return WORDS[ThreadLocalRandom.current().nextInt(WORDS.length)];
+    }
+    
+    public static String randomName() {
+        return NAMES[ThreadLocalRandom.current().nextInt(NAMES.length)];
+    }
+    
+    public static String randomGenre() {
+        return GENRES[ThreadLocalRandom.current().nextInt(GENRES.length)];
+    }
+    
+    public static String sentence(int words) {
+        StringBuilder sentence = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(randomWord());
+        }
+        return sentence.append('.').toString();
+    }
+    
+    private static long pick(long[] ids) {
+        if (ids.length == 0) {
+            throw new IllegalStateException("No seeded rows to pick from");
+        }
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+    
+    private static long[] toArray(List<Long> ids) {
+        long[] array = new long[ids.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = ids.get(i);
+        }
+        return array;
+    }
+}
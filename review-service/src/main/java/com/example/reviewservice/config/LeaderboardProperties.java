@@ -0,0 +1,25 @@
+package com.example.reviewservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "review.leaderboard")
+public class LeaderboardProperties {
+    
+    // Weight of the global mean in the Bayesian average, in "virtual reviews"
+    private double priorWeight = 10;
+    
+    // Books kept in each top-K structure; larger than max-limit so score changes have slack
+    private int capacity = 500;
+    
+    // Largest limit a client may request
+    private int maxLimit = 100;
+    
+    // Rolling windows served besides all-time
+    private List<Duration> windows = new ArrayList<>(List.of(Duration.ofDays(7), Duration.ofDays(30)));
+}
@@ -0,0 +1,32 @@
+package com.example.reviewservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "review.ingest")
+public class ReviewIngestProperties {
+    
+    // Turns on POST /api/reviews/async and the background writer
+    private boolean enabled = false;
+    
+    // Accepted reviews waiting to be written; beyond this clients get 429
+    private int queueCapacity = 10000;
+    
+    // Most reviews written in one multi-row insert and commit
+    private int batchSize = 500;
+    
+    // Longest a review waits for its batch to fill before being flushed anyway
+    private Duration flushInterval = Duration.ofMillis(50);
+    
+    // Suggested client back-off when the queue is full
+    private Duration retryAfter = Duration.ofSeconds(1);
+    
+    // How long tracking IDs stay queryable after their review is written
+    private Duration statusRetention = Duration.ofMinutes(10);
+    
+    // Most finished tracking IDs kept; beyond this some are forgotten before the retention period is up
+    private long maxFinishedStatuses = 100_000;
+}
@@ -0,0 +1,18 @@
+package com.example.reviewservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class ReviewOutboxConfig {
+    
+    @Bean
+    public NewTopic reviewEventsTopic(ReviewOutboxProperties properties) {
+        return TopicBuilder.name(properties.getTopic())
+                .partitions(properties.getPartitions())
+                .replicas(1)
+                .build();
+    }
+}
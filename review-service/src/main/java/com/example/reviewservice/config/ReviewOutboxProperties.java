@@ -0,0 +1,36 @@
+package com.example.reviewservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "review.outbox")
+public class ReviewOutboxProperties {
+    
+    // Topic receiving review created/updated/deleted events, keyed by book ID
+    private String topic = "review-events";
+    
+    private int partitions = 6;
+    
+    // Outbox rows sent per relay round trip
+    private int batchSize = 500;
+    
+    // Pause between relay runs when the outbox is empty
+    private Duration pollInterval = Duration.ofMillis(500);
+    
+    // Longest the relay waits for the broker to acknowledge a batch
+    private Duration sendTimeout = Duration.ofSeconds(30);
+    
+    // How long one replica keeps the relay after its last batch started; must exceed the send timeout, and is how
+    // long events wait if the relaying replica dies
+    private Duration leaseDuration = Duration.ofMinutes(1);
+    
+    // Producer tuning for the relay
+    private String compressionType = "lz4";
+    
+    private Duration linger = Duration.ofMillis(20);
+    
+    private int producerBatchBytes = 256 * 1024;
+}
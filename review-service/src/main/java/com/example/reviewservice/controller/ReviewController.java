@@ -1,13 +1,29 @@
 package com.example.reviewservice.controller;
 
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.InvalidCursorException;
+import com.example.reviewservice.dto.AggregateRebuildReport;
+import com.example.reviewservice.dto.IngestStatus;
+import com.example.reviewservice.dto.LeaderboardEntry;
+import com.example.reviewservice.dto.RatingHistogram;
+import com.example.reviewservice.dto.RatingSummary;
 import com.example.reviewservice.entity.Review;
+import com.example.reviewservice.ingest.ReviewIngestPipeline;
+import com.example.reviewservice.job.RatingAggregateRebuildJob;
+import com.example.reviewservice.leaderboard.LeaderboardService;
 import com.example.reviewservice.service.ReviewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -16,6 +32,9 @@ import java.util.Optional;
 public class ReviewController {
     
     private final ReviewService reviewService;
+    private final RatingAggregateRebuildJob ratingAggregateRebuildJob;
+    private final LeaderboardService leaderboardService;
+    private final ObjectProvider<ReviewIngestPipeline> ingestPipeline;
     
     // Create a new review
     @PostMapping
@@ -24,11 +43,48 @@ public class ReviewController {
         return new ResponseEntity<>(createdReview, HttpStatus.CREATED);
     }
     
-    // Get all reviews
+    // Accept a review for background writing; 429 with Retry-After when the queue is full
+    @PostMapping("/async")
+    public ResponseEntity<Map<String, String>> submitReview(@RequestBody Review review) {
+        ReviewIngestPipeline pipeline = ingestPipeline.getIfAvailable();
+        if (pipeline == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            String trackingId = pipeline.submit(review);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/reviews/ingest/" + trackingId))
+                    .body(Collections.singletonMap("trackingId", trackingId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ReviewIngestPipeline.QueueFullException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(pipeline.getRetryAfterSeconds()))
+                    .build();
+        }
+    }
+    
+    // Get the status of a review submitted through /async
+    @GetMapping("/ingest/{trackingId}")
+    public ResponseEntity<IngestStatus> getIngestStatus(@PathVariable String trackingId) {
+        ReviewIngestPipeline pipeline = ingestPipeline.getIfAvailable();
+        if (pipeline == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return pipeline.getStatus(trackingId).map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    // Get all reviews, one page at a time
     @GetMapping
-    public ResponseEntity<List<Review>> getAllReviews() {
-        List<Review> reviews = reviewService.getAllReviews();
-        return ResponseEntity.ok(reviews);
+    public ResponseEntity<CursorPage<Review>> getAllReviews(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Review> reviews = reviewService.getReviewsPage(cursor, size);
+            return ResponseEntity.ok(reviews);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     // Get review by ID
@@ -61,11 +117,33 @@ public class ReviewController {
         }
     }
     
-    // Get reviews by book ID
+    // Top-rated books by Bayesian score, all-time or for a rolling window such as 7d
+    @GetMapping("/leaderboard")
+    public ResponseEntity<List<LeaderboardEntry>> getLeaderboard(@RequestParam(defaultValue = "10") int limit,
+                                                                 @RequestParam(required = false) String window) {
+        if (!leaderboardService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        try {
+            List<LeaderboardEntry> entries = leaderboardService.top(Math.max(1, limit),
+                    window == null ? null : DurationStyle.detectAndParse(window));
+            return ResponseEntity.ok(entries);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Get reviews by book ID, one page at a time
     @GetMapping("/book/{bookId}")
-    public ResponseEntity<List<Review>> getReviewsByBookId(@PathVariable Long bookId) {
-        List<Review> reviews = reviewService.getReviewsByBookId(bookId);
-        return ResponseEntity.ok(reviews);
+    public ResponseEntity<CursorPage<Review>> getReviewsByBookId(@PathVariable Long bookId,
+                                                                 @RequestParam(required = false) String cursor,
+                                                                 @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Review> reviews = reviewService.getReviewsByBookId(bookId, cursor, size);
+            return ResponseEntity.ok(reviews);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     // Get reviews by user ID
@@ -95,4 +173,35 @@ public class ReviewController {
         Long count = reviewService.getReviewCountByBookId(bookId);
         return ResponseEntity.ok(count);
     }
+    
+    // Get average rating and review count for many books, e.g. GET /api/reviews/book/summaries?bookIds=1,2,3
+    @GetMapping("/book/summaries")
+    public ResponseEntity<List<RatingSummary>> getRatingSummaries(@RequestParam List<Long> bookIds) {
+        try {
+            List<RatingSummary> summaries = reviewService.getRatingSummaries(bookIds);
+            return ResponseEntity.ok(summaries);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    // Same as above with the book IDs in a JSON array body
+    @PostMapping("/book/summaries")
+    public ResponseEntity<List<RatingSummary>> getRatingSummariesBatch(@RequestBody List<Long> bookIds) {
+        return getRatingSummaries(bookIds);
+    }
+    
+    // Get star-rating histogram for a book
+    @GetMapping("/book/{bookId}/rating-histogram")
+    public ResponseEntity<RatingHistogram> getRatingHistogram(@PathVariable Long bookId) {
+        RatingHistogram histogram = reviewService.getRatingHistogram(bookId);
+        return ResponseEntity.ok(histogram);
+    }
+    
+    // Recompute rating aggregates from the reviews table and report drift
+    @PostMapping("/aggregates/rebuild")
+    public ResponseEntity<AggregateRebuildReport> rebuildAggregates() {
+        AggregateRebuildReport report = ratingAggregateRebuildJob.rebuild();
+        return ResponseEntity.ok(report);
+    }
 }
\ No newline at end of file
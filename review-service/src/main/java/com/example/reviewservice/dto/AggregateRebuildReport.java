@@ -0,0 +1,23 @@
+package com.example.reviewservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AggregateRebuildReport {
+    
+    private long booksChecked;
+    
+    // Books whose stored aggregate differed from the reviews table and were rewritten
+    private long booksCorrected;
+    
+    // First corrected book IDs, for investigation
+    private List<Long> correctedBookIds;
+    
+    private long elapsedMillis;
+}
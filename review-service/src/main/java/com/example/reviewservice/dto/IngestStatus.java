@@ -0,0 +1,22 @@
+package com.example.reviewservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestStatus {
+    
+    public enum State {
+        QUEUED, PERSISTED, FAILED
+    }
+    
+    private String trackingId;
+    
+    private State state;
+    
+    // Failure reason when state is FAILED
+    private String error;
+}
@@ -0,0 +1,22 @@
+package com.example.reviewservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntry {
+    
+    private int rank;
+    
+    private Long bookId;
+    
+    // Bayesian average: the book's mean pulled toward the global mean in proportion to how few reviews it has
+    private double score;
+    
+    private double averageRating;
+    
+    private long reviewCount;
+}
@@ -0,0 +1,22 @@
+package com.example.reviewservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingHistogram {
+    
+    private Long bookId;
+    
+    private long reviewCount;
+    
+    private Double averageRating;
+    
+    // Star rating (1-5) to number of reviews
+    private Map<Integer, Long> stars;
+}
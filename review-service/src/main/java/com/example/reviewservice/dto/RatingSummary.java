@@ -0,0 +1,18 @@
+package com.example.reviewservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RatingSummary {
+    
+    private Long bookId;
+    
+    // Null when the book has no reviews
+    private Double averageRating;
+    
+    private long reviewCount;
+}
@@ -0,0 +1,45 @@
+package com.example.reviewservice.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Per-book review count, rating sum and star histogram, maintained in the same transaction as review writes
+@Entity
+@Table(name = "book_rating_aggregates")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookRatingAggregate {
+    
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+    
+    @Column(name = "review_count", nullable = false)
+    private long reviewCount;
+    
+    @Column(name = "rating_sum", nullable = false)
+    private long ratingSum;
+    
+    @Column(name = "stars_1", nullable = false)
+    private long stars1;
+    
+    @Column(name = "stars_2", nullable = false)
+    private long stars2;
+    
+    @Column(name = "stars_3", nullable = false)
+    private long stars3;
+    
+    @Column(name = "stars_4", nullable = false)
+    private long stars4;
+    
+    @Column(name = "stars_5", nullable = false)
+    private long stars5;
+    
+    // Mean rating, or null when the book has no reviews (matching AVG over no rows)
+    public Double getAverageRating() {
+        return reviewCount == 0 ? null : (double) ratingSum / reviewCount;
+    }
+}
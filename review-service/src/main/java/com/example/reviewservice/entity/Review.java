@@ -7,7 +7,11 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_book_created", columnList = "book_id, created_at, id"),
+        // Leaderboard windows read only the reviews created since their start
+        @Index(name = "idx_reviews_created", columnList = "created_at, book_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,21 @@
+package com.example.reviewservice.event;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+// Published by ReviewService on every write; in-memory views listen after commit
+@Value
+public class ReviewChangedEvent {
+    
+    Long bookId;
+    
+    // Creation time of the review, used to place it in time windows
+    LocalDateTime reviewCreatedAt;
+    
+    // +1 for a new review, -1 for a deleted one, 0 for an edit
+    int countDelta;
+    
+    // Change in the sum of ratings
+    long ratingSumDelta;
+}
@@ -0,0 +1,34 @@
+package com.example.reviewservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Kafka payload for a review change, written to the outbox and relayed keyed by book ID
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewEventMessage {
+    
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+    
+    private Type type;
+    
+    private Long reviewId;
+    
+    private Long bookId;
+    
+    private Long userId;
+    
+    // Rating after the change; null for DELETED
+    private Integer rating;
+    
+    // Rating before the change; null for CREATED
+    private Integer previousRating;
+    
+    private LocalDateTime occurredAt;
+}
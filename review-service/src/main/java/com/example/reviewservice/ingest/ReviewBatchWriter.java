@@ -0,0 +1,57 @@
+package com.example.reviewservice.ingest;
+
+import com.example.reviewservice.entity.Review;
+import com.example.reviewservice.event.ReviewChangedEvent;
+import com.example.reviewservice.outbox.ReviewOutboxWriter;
+import com.example.reviewservice.service.RatingAggregateService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+// Writes a batch of reviews as one JDBC batch (rewritten to multi-row INSERTs by the driver) and one commit
+@Component
+@RequiredArgsConstructor
+public class ReviewBatchWriter {
+    
+    private static final String INSERT_SQL = "INSERT INTO reviews " +
+            "(id, book_id, user_id, rating, comment, reviewer_name, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    
+    // IDs are drawn up front so the outbox events can carry them
+    private static final String NEXT_IDS_SQL = "SELECT nextval(pg_get_serial_sequence('reviews', 'id')) " +
+            "FROM generate_series(1, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final RatingAggregateService ratingAggregateService;
+    private final ReviewOutboxWriter outboxWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Transactional
+    public void writeBatch(List<Review> reviews) {
+        List<Long> ids = jdbcTemplate.queryForList(NEXT_IDS_SQL, Long.class, reviews.size());
+        for (int i = 0; i < reviews.size(); i++) {
+            reviews.get(i).setId(ids.get(i));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, reviews, reviews.size(), (ps, review) -> {
+            ps.setLong(1, review.getId());
+            ps.setLong(2, review.getBookId());
+            ps.setLong(3, review.getUserId());
+            ps.setInt(4, review.getRating());
+            ps.setString(5, review.getComment());
+            ps.setString(6, review.getReviewerName());
+            ps.setTimestamp(7, Timestamp.valueOf(review.getCreatedAt()));
+            ps.setTimestamp(8, Timestamp.valueOf(review.getUpdatedAt()));
+        });
+        ratingAggregateService.reviewsAdded(reviews);
+        outboxWriter.reviewsCreated(reviews);
+        for (Review review : reviews) {
+            eventPublisher.publishEvent(new ReviewChangedEvent(review.getBookId(), review.getCreatedAt(),
+                    1, review.getRating()));
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.reviewservice.ingest;
+
+import com.example.reviewservice.config.ReviewIngestProperties;
+import com.example.reviewservice.dto.IngestStatus;
+import com.example.reviewservice.entity.Review;
+import com.example.reviewservice.service.ReviewService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+// Write-behind path for review bursts: accept into a bounded queue, acknowledge immediately, and let a single
+// writer thread group-commit batches. A full queue is reported to the caller instead of blocking.
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "review.ingest", name = "enabled", havingValue = "true")
+public class ReviewIngestPipeline {
+    
+    // Thrown when the queue is full; the caller should retry after the hinted delay
+    public static class QueueFullException extends RuntimeException {
+        public QueueFullException() {
+            super("Review ingestion queue is full");
+        }
+    }
+    
+    private static final class Pending {
+        final String trackingId;
+        final Review review;
+        
+        Pending(String trackingId, Review review) {
+            this.trackingId = trackingId;
+            this.review = review;
+        }
+    }
+    
+    private final ReviewIngestProperties properties;
+    private final ReviewBatchWriter batchWriter;
+    private final ReviewService reviewService;
+    private final BlockingQueue<Pending> queue;
+    // Tracking IDs still in the queue or in the batch being written; bounded by the queue capacity plus one batch
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+    // Outcomes of written reviews, capped in both count and age
+    private final Cache<String, IngestStatus> finished;
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter persisted;
+    private final Counter failed;
+    private final DistributionSummary batchSizes;
+    private final Timer flushTimer;
+    private volatile boolean running = true;
+    private Thread writer;
+    
+    public ReviewIngestPipeline(ReviewIngestProperties properties,
+                                ReviewBatchWriter batchWriter,
+                                ReviewService reviewService,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.batchWriter = batchWriter;
+        this.reviewService = reviewService;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        this.finished = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxFinishedStatuses())
+                .expireAfterWrite(properties.getStatusRetention())
+                .build();
+        
+        Gauge.builder("review.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Reviews accepted but not yet written")
+                .register(meterRegistry);
+        Gauge.builder("review.ingest.queue.capacity", properties, ReviewIngestProperties::getQueueCapacity)
+                .register(meterRegistry);
+        Gauge.builder("review.ingest.flush.interval", properties, p -> p.getFlushInterval().toMillis())
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.accepted = Counter.builder("review.ingest.accepted").register(meterRegistry);
+        this.rejected = Counter.builder("review.ingest.rejected")
+                .description("Submissions refused with 429 because the queue was full")
+                .register(meterRegistry);
+        this.persisted = Counter.builder("review.ingest.persisted").register(meterRegistry);
+        this.failed = Counter.builder("review.ingest.failed").register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("review.ingest.batch.size")
+                .description("Reviews per group commit")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("review.ingest.flush")
+                .description("Time to write and commit one batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        writer = new Thread(this::runWriter, "review-ingest-writer");
+        writer.setDaemon(false);
+        writer.start();
+        log.info("Review ingestion pipeline started (queue {}, batch {}, flush every {})",
+                properties.getQueueCapacity(), properties.getBatchSize(), properties.getFlushInterval());
+    }
+    
+    // Queue a review for writing and return its tracking ID, or fail fast if the queue is full
+    public String submit(Review review) {
+        if (review.getBookId() == null || review.getUserId() == null || review.getRating() == null) {
+            throw new IllegalArgumentException("bookId, userId and rating are required");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        review.setId(null);
+        review.setCreatedAt(now);
+        review.setUpdatedAt(now);
+        String trackingId = UUID.randomUUID().toString();
+        queued.add(trackingId);
+        if (!running || !queue.offer(new Pending(trackingId, review))) {
+            queued.remove(trackingId);
+            rejected.increment();
+            throw new QueueFullException();
+        }
+        accepted.increment();
+        return trackingId;
+    }
+    
+    public Optional<IngestStatus> getStatus(String trackingId) {
+        IngestStatus done = finished.getIfPresent(trackingId);
+        if (done != null) {
+            return Optional.of(done);
+        }
+        // Re-check the outcome in case the review was written between the two lookups
+        if (queued.contains(trackingId)) {
+            return Optional.of(new IngestStatus(trackingId, IngestStatus.State.QUEUED, null));
+        }
+        return Optional.ofNullable(finished.getIfPresent(trackingId));
+    }
+    
+    public long getRetryAfterSeconds() {
+        return Math.max(1, properties.getRetryAfter().getSeconds());
+    }
+    
+    // Stop accepting, then drain what is already queued before the context closes
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(30_000);
+        }
+        List<Pending> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        flush(remaining);
+    }
+    
+    private void runWriter() {
+        List<Pending> batch = new ArrayList<>(properties.getBatchSize());
+        long flushNanos = properties.getFlushInterval().toNanos();
+        while (running) {
+            try {
+                Pending first = queue.take();
+                batch.add(first);
+                long deadline = System.nanoTime() + flushNanos;
+                while (batch.size() < properties.getBatchSize()) {
+                    queue.drainTo(batch, properties.getBatchSize() - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= properties.getBatchSize() || remaining <= 0) {
+                        break;
+                    }
+                    Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                log.error("Unexpected error in review ingestion writer", e);
+            } finally {
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            }
+        }
+    }
+    
+    // Group-commit a batch; if the batch fails, fall back to writing each review on its own
+    private void flush(List<Pending> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Review> reviews = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            reviews.add(pending.review);
+        }
+        try {
+            flushTimer.record(() -> batchWriter.writeBatch(reviews));
+            for (Pending pending : batch) {
+                markDone(pending, null);
+            }
+        } catch (RuntimeException batchFailure) {
+            log.warn("Batch of {} reviews failed, retrying individually: {}", batch.size(), batchFailure.getMessage());
+            for (Pending pending : batch) {
+                try {
+                    // IDs drawn for the rolled-back batch are discarded
+                    pending.review.setId(null);
+                    reviewService.createReview(pending.review);
+                    markDone(pending, null);
+                } catch (RuntimeException rowFailure) {
+                    markDone(pending, rowFailure.getMessage());
+                }
+            }
+        }
+        batchSizes.record(batch.size());
+        batch.clear();
+    }
+    
+    private void markDone(Pending pending, String error) {
+        IngestStatus.State state = error == null ? IngestStatus.State.PERSISTED : IngestStatus.State.FAILED;
+        finished.put(pending.trackingId, new IngestStatus(pending.trackingId, state, error));
+        queued.remove(pending.trackingId);
+        (error == null ? persisted : failed).increment();
+    }
+}
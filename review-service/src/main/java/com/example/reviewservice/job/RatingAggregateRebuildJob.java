@@ -0,0 +1,114 @@
+package com.example.reviewservice.job;
+
+import com.example.reviewservice.dto.AggregateRebuildReport;
+import com.example.reviewservice.entity.BookRatingAggregate;
+import com.example.reviewservice.repository.BookRatingAggregateRepository;
+import com.example.reviewservice.repository.RatingStats;
+import com.example.reviewservice.repository.ReviewRepository;
+import com.example.reviewservice.service.RatingAggregateService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Recomputes rating aggregates from the reviews table and repairs any drift
+@Slf4j
+@Component
+public class RatingAggregateRebuildJob {
+    
+    private static final int MAX_REPORTED_IDS = 100;
+    
+    private final ReviewRepository reviewRepository;
+    private final BookRatingAggregateRepository aggregateRepository;
+    private final RatingAggregateService ratingAggregateService;
+    private final TransactionTemplate readOnlyTransaction;
+    
+    public RatingAggregateRebuildJob(ReviewRepository reviewRepository,
+                                     BookRatingAggregateRepository aggregateRepository,
+                                     RatingAggregateService ratingAggregateService,
+                                     PlatformTransactionManager transactionManager) {
+        this.reviewRepository = reviewRepository;
+        this.aggregateRepository = aggregateRepository;
+        this.ratingAggregateService = ratingAggregateService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    @Scheduled(cron = "${review.aggregates.rebuild-cron:0 0 4 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+    
+    // Pass 1 finds suspects without locks; pass 2 re-checks and fixes each one under its row lock,
+    // so reviews written while the job runs are not reported as drift
+    public AggregateRebuildReport rebuild() {
+        long started = System.currentTimeMillis();
+        long[] checked = new long[1];
+        List<Long> suspects = readOnlyTransaction.execute(status -> findSuspects(checked));
+        
+        List<Long> corrected = new ArrayList<>();
+        long correctedCount = 0;
+        for (Long bookId : suspects) {
+            if (ratingAggregateService.reconcile(bookId)) {
+                correctedCount++;
+                if (corrected.size() < MAX_REPORTED_IDS) {
+                    corrected.add(bookId);
+                }
+            }
+        }
+        
+        AggregateRebuildReport report = new AggregateRebuildReport(
+                checked[0], correctedCount, corrected, System.currentTimeMillis() - started);
+        if (correctedCount > 0) {
+            log.warn("Rating aggregates had drifted for {} of {} books; corrected (first IDs: {})",
+                    correctedCount, checked[0], corrected);
+        } else {
+            log.info("Rating aggregates verified for {} books, no drift", checked[0]);
+        }
+        return report;
+    }
+    
+    // Merge join of two cursors in book order, so neither side is held in memory
+    private List<Long> findSuspects(long[] checked) {
+        List<Long> suspects = new ArrayList<>();
+        try (Stream<RatingStats> stats = reviewRepository.streamRatingStats();
+             Stream<BookRatingAggregate> aggregates = aggregateRepository.streamAllOrderByBookId()) {
+            Iterator<RatingStats> statsIterator = stats.iterator();
+            Iterator<BookRatingAggregate> storedIterator = aggregates.iterator();
+            RatingStats row = next(statsIterator);
+            BookRatingAggregate stored = next(storedIterator);
+            while (row != null || stored != null) {
+                checked[0]++;
+                int order = row == null ? 1 : stored == null ? -1 : row.getBookId().compareTo(stored.getBookId());
+                if (order < 0) {
+                    // Reviews but no aggregate row
+                    suspects.add(row.getBookId());
+                    row = next(statsIterator);
+                } else if (order > 0) {
+                    // Aggregate for a book without reviews; it must be all zero
+                    if (!RatingAggregateService.toAggregate(stored.getBookId(), null).equals(stored)) {
+                        suspects.add(stored.getBookId());
+                    }
+                    stored = next(storedIterator);
+                } else {
+                    if (!RatingAggregateService.toAggregate(row.getBookId(), row).equals(stored)) {
+                        suspects.add(row.getBookId());
+                    }
+                    row = next(statsIterator);
+                    stored = next(storedIterator);
+                }
+            }
+        }
+        return suspects;
+    }
+    
+    private static <T> T next(Iterator<T> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+}
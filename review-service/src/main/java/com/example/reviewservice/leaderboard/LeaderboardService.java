@@ -0,0 +1,162 @@
+package com.example.reviewservice.leaderboard;
+
+import com.example.reviewservice.config.LeaderboardProperties;
+import com.example.reviewservice.dto.LeaderboardEntry;
+import com.example.reviewservice.entity.BookRatingAggregate;
+import com.example.reviewservice.event.ReviewChangedEvent;
+import com.example.reviewservice.repository.BookRatingAggregateRepository;
+import com.example.reviewservice.repository.RatingTotals;
+import com.example.reviewservice.repository.ReviewRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Top-rated books overall and per rolling window, kept in memory and updated on every committed review write.
+// A periodic reconciliation rebuilds everything from the database, logs any drift and expires old reviews from windows.
+@Slf4j
+@Service
+public class LeaderboardService {
+    
+    private final ReviewRepository reviewRepository;
+    private final BookRatingAggregateRepository aggregateRepository;
+    private final LeaderboardProperties properties;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private WindowLeaderboard allTime;
+    private Map<Duration, WindowLeaderboard> windows = Collections.emptyMap();
+    
+    public LeaderboardService(ReviewRepository reviewRepository,
+                              BookRatingAggregateRepository aggregateRepository,
+                              LeaderboardProperties properties,
+                              PlatformTransactionManager transactionManager) {
+        this.reviewRepository = reviewRepository;
+        this.aggregateRepository = aggregateRepository;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+    
+    // Apply a committed review write to the all-time board and every window the review falls in
+    @TransactionalEventListener
+    public void onReviewChanged(ReviewChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (allTime == null) {
+                return;
+            }
+            allTime.apply(event.getBookId(), event.getCountDelta(), event.getRatingSumDelta());
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<Duration, WindowLeaderboard> window : windows.entrySet()) {
+                LocalDateTime createdAt = event.getReviewCreatedAt();
+                if (createdAt != null && !createdAt.isBefore(now.minus(window.getKey()))) {
+                    window.getValue().apply(event.getBookId(), event.getCountDelta(), event.getRatingSumDelta());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    public boolean isReady() {
+        lock.readLock().lock();
+        try {
+            return allTime != null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Top books for the whole history (window == null) or a configured rolling window
+    public List<LeaderboardEntry> top(int limit, Duration window) {
+        lock.readLock().lock();
+        try {
+            WindowLeaderboard board = window == null ? allTime : windows.get(window);
+            if (board == null) {
+                throw new IllegalArgumentException("Unknown leaderboard window: " + window);
+            }
+            return board.top(Math.min(limit, properties.getMaxLimit()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Rebuild from the database and swap in; writes committed while the queries run are corrected next cycle
+    @Scheduled(fixedDelayString = "${review.leaderboard.reconcile-interval:PT5M}",
+               initialDelayString = "${review.leaderboard.reconcile-interval:PT5M}")
+    public void reconcile() {
+        long started = System.currentTimeMillis();
+        WindowLeaderboard freshAllTime = readOnlyTransaction.execute(status -> loadAllTime());
+        Map<Duration, WindowLeaderboard> freshWindows = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (Duration window : properties.getWindows()) {
+            freshWindows.put(window, readOnlyTransaction.execute(status -> loadSince(now.minus(window))));
+        }
+        
+        lock.writeLock().lock();
+        try {
+            if (allTime != null) {
+                long drifted = allTime.countDifferences(freshAllTime);
+                if (drifted > 0) {
+                    log.warn("All-time leaderboard had drifted for {} books; replaced from the database", drifted);
+                }
+            }
+            allTime = freshAllTime;
+            windows = freshWindows;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Leaderboards reconciled: {} books all-time, {} windows in {} ms",
+                freshAllTime.bookCount(), freshWindows.size(), System.currentTimeMillis() - started);
+    }
+    
+    // Streamed as detached copies, so neither the result list nor the persistence context holds every book
+    private WindowLeaderboard loadAllTime() {
+        WindowLeaderboard board = newBoard(1024);
+        try (Stream<BookRatingAggregate> aggregates = aggregateRepository.streamAllOrderByBookId()) {
+            Iterator<BookRatingAggregate> iterator = aggregates.iterator();
+            while (iterator.hasNext()) {
+                BookRatingAggregate aggregate = iterator.next();
+                board.apply(aggregate.getBookId(), aggregate.getReviewCount(), aggregate.getRatingSum());
+            }
+        }
+        board.rebuildTop();
+        return board;
+    }
+    
+    private WindowLeaderboard loadSince(LocalDateTime since) {
+        WindowLeaderboard board = newBoard(1024);
+        try (Stream<RatingTotals> totals = reviewRepository.streamRatingTotalsSince(since)) {
+            Iterator<RatingTotals> iterator = totals.iterator();
+            while (iterator.hasNext()) {
+                RatingTotals row = iterator.next();
+                board.apply(row.getBookId(), row.getReviewCount(), row.getRatingSum());
+            }
+        }
+        board.rebuildTop();
+        return board;
+    }
+    
+    private WindowLeaderboard newBoard(int expectedBooks) {
+        return new WindowLeaderboard(properties.getPriorWeight(), properties.getCapacity(), expectedBooks);
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.reviewservice.leaderboard;
+
+import com.example.reviewservice.dto.LeaderboardEntry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+// Per-book review counts and rating sums for one time window, plus a bounded top-K set ordered by Bayesian score.
+// Scores of books outside the top set are recomputed only when they change, so the top set is exact right after
+// rebuildTop() and approximate between refreshes as the global mean drifts. Not thread-safe.
+class WindowLeaderboard {
+    
+    private static final Comparator<Ranked> BY_SCORE = Comparator
+            .comparingDouble((Ranked r) -> r.score).reversed()
+            .thenComparingLong(r -> r.bookId);
+    
+    private static final class Ranked {
+        final long bookId;
+        final double score;
+        
+        Ranked(long bookId, double score) {
+            this.bookId = bookId;
+            this.score = score;
+        }
+    }
+    
+    private final double priorWeight;
+    private final int capacity;
+    private final LongIntHashMap slots;
+    private long[] bookIds;
+    private long[] counts;
+    private long[] sums;
+    private int size;
+    private long totalCount;
+    private long totalSum;
+    private final TreeSet<Ranked> top = new TreeSet<>(BY_SCORE);
+    private final Map<Long, Ranked> topMembers = new HashMap<>();
+    
+    WindowLeaderboard(double priorWeight, int capacity, int expectedBooks) {
+        this.priorWeight = priorWeight;
+        this.capacity = capacity;
+        this.slots = new LongIntHashMap(expectedBooks);
+        int initial = Math.max(16, expectedBooks);
+        this.bookIds = new long[initial];
+        this.counts = new long[initial];
+        this.sums = new long[initial];
+    }
+    
+    int bookCount() {
+        return size;
+    }
+    
+    long reviewCount(long bookId) {
+        int slot = slots.get(bookId, -1);
+        return slot < 0 ? 0 : counts[slot];
+    }
+    
+    long ratingSum(long bookId) {
+        int slot = slots.get(bookId, -1);
+        return slot < 0 ? 0 : sums[slot];
+    }
+    
+    // Apply a review write to the book's totals and its place in the top set
+    void apply(long bookId, long countDelta, long sumDelta) {
+        int slot = slots.get(bookId, -1);
+        if (slot < 0) {
+            slot = allocate(bookId);
+        }
+        counts[slot] += countDelta;
+        sums[slot] += sumDelta;
+        totalCount += countDelta;
+        totalSum += sumDelta;
+        rank(bookId, slot);
+    }
+    
+    // Recompute every score against the current global mean and rebuild the top set
+    void rebuildTop() {
+        top.clear();
+        topMembers.clear();
+        for (int slot = 0; slot < size; slot++) {
+            rank(bookIds[slot], slot);
+        }
+    }
+    
+    // Number of books whose totals differ between this leaderboard and another one
+    long countDifferences(WindowLeaderboard other) {
+        long differences = 0;
+        for (int slot = 0; slot < size; slot++) {
+            long bookId = bookIds[slot];
+            if (counts[slot] != other.reviewCount(bookId) || sums[slot] != other.ratingSum(bookId)) {
+                differences++;
+            }
+        }
+        for (int slot = 0; slot < other.size; slot++) {
+            long bookId = other.bookIds[slot];
+            if (slots.get(bookId, -1) < 0 && other.counts[slot] != 0) {
+                differences++;
+            }
+        }
+        return differences;
+    }
+    
+    // Best N books in rank order; O(N) over the already-sorted top set
+    List<LeaderboardEntry> top(int limit) {
+        List<LeaderboardEntry> entries = new ArrayList<>(Math.min(limit, top.size()));
+        Iterator<Ranked> iterator = top.iterator();
+        while (iterator.hasNext() && entries.size() < limit) {
+            Ranked ranked = iterator.next();
+            int slot = slots.get(ranked.bookId, -1);
+            entries.add(new LeaderboardEntry(entries.size() + 1, ranked.bookId, ranked.score,
+                    (double) sums[slot] / counts[slot], counts[slot]));
+        }
+        return entries;
+    }
+    
+    private void rank(long bookId, int slot) {
+        Ranked previous = topMembers.remove(bookId);
+        if (previous != null) {
+            top.remove(previous);
+        }
+        if (counts[slot] <= 0) {
+            return;
+        }
+        Ranked ranked = new Ranked(bookId, score(counts[slot], sums[slot]));
+        if (top.size() < capacity) {
+            add(ranked);
+        } else if (BY_SCORE.compare(ranked, top.last()) < 0) {
+            Ranked evicted = top.pollLast();
+            topMembers.remove(evicted.bookId);
+            add(ranked);
+        }
+    }
+    
+    private void add(Ranked ranked) {
+        top.add(ranked);
+        topMembers.put(ranked.bookId, ranked);
+    }
+    
+    private double score(long count, long sum) {
+        double globalMean = totalCount <= 0 ? 0 : (double) totalSum / totalCount;
+        return (priorWeight * globalMean + sum) / (priorWeight + count);
+    }
+    
+    private int allocate(long bookId) {
+        if (size == bookIds.length) {
+            int length = size + (size >> 1);
+            bookIds = Arrays.copyOf(bookIds, length);
+            counts = Arrays.copyOf(counts, length);
+            sums = Arrays.copyOf(sums, length);
+        }
+        bookIds[size] = bookId;
+        slots.put(bookId, size);
+        return size++;
+    }
+}
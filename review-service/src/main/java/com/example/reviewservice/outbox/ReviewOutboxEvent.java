@@ -0,0 +1,35 @@
+package com.example.reviewservice.outbox;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Review event waiting to be relayed to Kafka; rows are deleted once the broker acknowledges them
+@Entity
+@Table(name = "review_outbox")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewOutboxEvent {
+    
+    // Increases with commit order of the writes, so relaying in ID order keeps each book's events in order
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+    
+    @Column(name = "event_type", nullable = false, length = 16)
+    private String eventType;
+    
+    // ReviewEventMessage as JSON
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
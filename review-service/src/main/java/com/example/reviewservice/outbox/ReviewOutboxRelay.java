@@ -0,0 +1,191 @@
+package com.example.reviewservice.outbox;
+
+import com.example.reviewservice.config.ReviewOutboxProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Drains the outbox to Kafka in ID order. Rows are deleted only after the broker acknowledges them, so a crash
+// between send and delete re-sends them: delivery is at-least-once and consumers should dedupe on outbox ID.
+// Only the replica holding the relay lease sends, so per-book order holds across replicas; no transaction or
+// connection is held while waiting for acknowledgements.
+@Slf4j
+@Component
+public class ReviewOutboxRelay {
+    
+    public static final String OUTBOX_ID_HEADER = "outboxId";
+    public static final String EVENT_TYPE_HEADER = "eventType";
+    
+    private static final String LEASE_NAME = "review_outbox_relay";
+    
+    private final ReviewOutboxRepository outboxRepository;
+    private final ReviewOutboxRelayLeaseRepository leaseRepository;
+    private final DefaultKafkaProducerFactory<String, String> producerFactory;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReviewOutboxProperties properties;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong lagMillis = new AtomicLong();
+    private final Counter relayed;
+    private final Timer batchTimer;
+    
+    public ReviewOutboxRelay(ReviewOutboxRepository outboxRepository,
+                             ReviewOutboxRelayLeaseRepository leaseRepository,
+                             KafkaProperties kafkaProperties,
+                             TransactionTemplate transactionTemplate,
+                             ReviewOutboxProperties properties,
+                             MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.leaseRepository = leaseRepository;
+        this.producerFactory = new DefaultKafkaProducerFactory<>(producerConfig(kafkaProperties, properties));
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.relayed = Counter.builder("review.outbox.relayed")
+                .description("Outbox events acknowledged by Kafka; its rate is the relay throughput")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("review.outbox.relay.batch")
+                .description("Time to send and acknowledge one outbox batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("review.outbox.lag", lagMillis, AtomicLong::get)
+                .description("Age of the oldest event still in the outbox at the last relay run")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+    
+    // Own producer rather than the shared template: payloads are already JSON, and it is tuned for large
+    // compressed batches with per-partition order preserved across retries
+    private static Map<String, Object> producerConfig(KafkaProperties kafkaProperties,
+                                                      ReviewOutboxProperties properties) {
+        Map<String, Object> config = kafkaProperties.buildProducerProperties(null);
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.ACKS_CONFIG, "all");
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, properties.getCompressionType());
+        config.put(ProducerConfig.LINGER_MS_CONFIG, (int) properties.getLinger().toMillis());
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, properties.getProducerBatchBytes());
+        return config;
+    }
+    
+    @PreDestroy
+    public void close() {
+        producerFactory.destroy();
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    leaseRepository.release(LEASE_NAME, instanceId, LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            log.warn("Could not release the outbox relay lease, it lapses on its own: {}", e.getMessage());
+        }
+    }
+    
+    // Relay full batches until the outbox is drained or a send fails, then wait for the next poll. Lag is taken
+    // from the run's first batch only, so the empty poll that ends a drain does not reset what was just measured
+    @Scheduled(fixedDelayString = "${review.outbox.poll-interval:PT0.5S}")
+    public void relay() {
+        int sent = relayBatch(true);
+        while (sent == properties.getBatchSize()) {
+            sent = relayBatch(false);
+        }
+    }
+    
+    // Send one batch and delete the acknowledged prefix; returns how many rows were relayed
+    public int relayBatch() {
+        return relayBatch(true);
+    }
+    
+    private int relayBatch(boolean measureLag) {
+        if (!holdLease()) {
+            return 0;
+        }
+        List<ReviewOutboxEvent> batch = outboxRepository.findAllByOrderByIdAsc(
+                PageRequest.ofSize(properties.getBatchSize()));
+        if (measureLag) {
+            lagMillis.set(batch.isEmpty() ? 0
+                    : Math.max(0, Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis()));
+        }
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        
+        List<Long> acknowledged = batchTimer.record(() -> send(batch));
+        if (!acknowledged.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAllByIdInBatch(acknowledged));
+            relayed.increment(acknowledged.size());
+        }
+        return acknowledged.size();
+    }
+    
+    // Take or extend the lease for long enough to cover this batch's send timeout, in its own short transaction
+    private boolean holdLease() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(properties.getLeaseDuration());
+        try {
+            Boolean held = transactionTemplate.execute(status ->
+                    leaseRepository.renew(LEASE_NAME, instanceId, now, expiresAt) == 1
+                            || leaseRepository.createIfAbsent(LEASE_NAME, instanceId, expiresAt) == 1);
+            return Boolean.TRUE.equals(held);
+        } catch (DataIntegrityViolationException e) {
+            // Another replica created the lease first
+            return false;
+        }
+    }
+    
+    // Hand the whole batch to the producer so it can fill compressed batches, then collect acknowledgements in
+    // order and stop at the first failure; everything after it stays in the outbox for the next run
+    private List<Long> send(List<ReviewOutboxEvent> batch) {
+        List<CompletableFuture<SendResult<String, String>>> futures = new ArrayList<>(batch.size());
+        for (ReviewOutboxEvent event : batch) {
+            ProducerRecord<String, String> record = new ProducerRecord<>(properties.getTopic(),
+                    String.valueOf(event.getBookId()), event.getPayload());
+            record.headers().add(OUTBOX_ID_HEADER, String.valueOf(event.getId()).getBytes(StandardCharsets.UTF_8));
+            record.headers().add(EVENT_TYPE_HEADER, event.getEventType().getBytes(StandardCharsets.UTF_8));
+            futures.add(kafkaTemplate.send(record));
+        }
+        kafkaTemplate.flush();
+        
+        List<Long> acknowledged = new ArrayList<>(batch.size());
+        long timeoutNanos = properties.getSendTimeout().toNanos();
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                futures.get(i).get(timeoutNanos, TimeUnit.NANOSECONDS);
+                acknowledged.add(batch.get(i).getId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Relay of outbox event {} failed, will retry: {}", batch.get(i).getId(), e.getMessage());
+                break;
+            }
+        }
+        return acknowledged;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.reviewservice.outbox;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Which replica may relay the outbox, until when; renewed before every batch so a dead relay is replaced once it lapses
+@Entity
+@Table(name = "review_outbox_relay_lease")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReviewOutboxRelayLease {
+    
+    @Id
+    @Column(length = 64)
+    private String name;
+    
+    @Column(nullable = false, length = 64)
+    private String owner;
+    
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
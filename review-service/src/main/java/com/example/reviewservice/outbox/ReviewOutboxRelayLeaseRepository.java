@@ -0,0 +1,38 @@
+package com.example.reviewservice.outbox;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ReviewOutboxRelayLeaseRepository extends JpaRepository<ReviewOutboxRelayLease, String> {
+    
+    // Extend our own lease or take over a lapsed one; returns 0 while another replica holds it. Concurrent takeovers
+    // queue on the row lock and the loser re-checks the condition against the winner's row
+    @Modifying
+    @Query("UPDATE ReviewOutboxRelayLease l SET l.owner = :owner, l.expiresAt = :expiresAt " +
+           "WHERE l.name = :name AND (l.owner = :owner OR l.expiresAt <= :now)")
+    int renew(@Param("name") String name,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("expiresAt") LocalDateTime expiresAt);
+    
+    // First run on a fresh database; a replica racing us fails on the primary key instead
+    @Modifying
+    @Query(value = "INSERT INTO review_outbox_relay_lease (name, owner, expires_at) " +
+                   "SELECT :name, :owner, :expiresAt " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM review_outbox_relay_lease WHERE name = :name)",
+           nativeQuery = true)
+    int createIfAbsent(@Param("name") String name,
+                       @Param("owner") String owner,
+                       @Param("expiresAt") LocalDateTime expiresAt);
+    
+    // Let another replica take over right away
+    @Modifying
+    @Query("UPDATE ReviewOutboxRelayLease l SET l.expiresAt = :now WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner, @Param("now") LocalDateTime now);
+}
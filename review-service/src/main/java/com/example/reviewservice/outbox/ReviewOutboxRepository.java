@@ -0,0 +1,13 @@
+package com.example.reviewservice.outbox;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReviewOutboxRepository extends JpaRepository<ReviewOutboxEvent, Long> {
+    
+    List<ReviewOutboxEvent> findAllByOrderByIdAsc(Pageable pageable);
+}
@@ -0,0 +1,90 @@
+package com.example.reviewservice.outbox;
+
+import com.example.reviewservice.entity.Review;
+import com.example.reviewservice.event.ReviewEventMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+// Appends review events to the outbox inside the caller's transaction, so an event exists if and only if the
+// write committed
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class ReviewOutboxWriter {
+    
+    // Two-key advisory locks (namespace, book) so book locks can't collide with other advisory lock users on the
+    // database; two books sharing a key only serialize each other's event writes
+    private static final int BOOK_LOCK_NAMESPACE = "review_outbox_book".hashCode();
+    
+    private static final String INSERT_SQL = "INSERT INTO review_outbox (book_id, event_type, payload, created_at) " +
+            "VALUES (?, ?, ?, ?)";
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    
+    public void reviewCreated(Review review) {
+        append(List.of(message(ReviewEventMessage.Type.CREATED, review, review.getRating(), null)));
+    }
+    
+    public void reviewsCreated(List<Review> reviews) {
+        List<ReviewEventMessage> messages = new ArrayList<>(reviews.size());
+        for (Review review : reviews) {
+            messages.add(message(ReviewEventMessage.Type.CREATED, review, review.getRating(), null));
+        }
+        append(messages);
+    }
+    
+    public void reviewUpdated(Review review, Integer previousRating) {
+        append(List.of(message(ReviewEventMessage.Type.UPDATED, review, review.getRating(), previousRating)));
+    }
+    
+    public void reviewDeleted(Review review) {
+        append(List.of(message(ReviewEventMessage.Type.DELETED, review, null, review.getRating())));
+    }
+    
+    private void append(List<ReviewEventMessage> messages) {
+        // Outbox IDs are handed out at insert time, not commit time. Holding a per-book lock until commit means
+        // a later writer for the same book gets a larger ID and becomes visible after us, so the relay never
+        // sees a book's events out of order. Books are locked in ID order to avoid deadlocks between batches.
+        TreeSet<Long> bookIds = new TreeSet<>();
+        for (ReviewEventMessage message : messages) {
+            bookIds.add(message.getBookId());
+        }
+        for (Long bookId : bookIds) {
+            jdbcTemplate.queryForObject("SELECT pg_advisory_xact_lock(?, ?)::text", String.class,
+                    BOOK_LOCK_NAMESPACE, Long.hashCode(bookId));
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, messages, messages.size(), (ps, message) -> {
+            ps.setLong(1, message.getBookId());
+            ps.setString(2, message.getType().name());
+            ps.setString(3, toJson(message));
+            ps.setTimestamp(4, now);
+        });
+    }
+    
+    private ReviewEventMessage message(ReviewEventMessage.Type type, Review review,
+                                       Integer rating, Integer previousRating) {
+        return new ReviewEventMessage(type, review.getId(), review.getBookId(), review.getUserId(),
+                rating, previousRating, LocalDateTime.now());
+    }
+    
+    private String toJson(ReviewEventMessage message) {
+        try {
+            return objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize review event", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.reviewservice.repository;
+
+import com.example.reviewservice.entity.BookRatingAggregate;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.stream.Stream;
+
+@Repository
+public interface BookRatingAggregateRepository extends JpaRepository<BookRatingAggregate, Long> {
+    
+    // Atomically add deltas to a book's aggregate, creating the row on first use
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO book_rating_aggregates " +
+                   "(book_id, review_count, rating_sum, stars_1, stars_2, stars_3, stars_4, stars_5) " +
+                   "VALUES (:bookId, :count, :sum, :s1, :s2, :s3, :s4, :s5) " +
+                   "ON CONFLICT (book_id) DO UPDATE SET " +
+                   "review_count = book_rating_aggregates.review_count + EXCLUDED.review_count, " +
+                   "rating_sum = book_rating_aggregates.rating_sum + EXCLUDED.rating_sum, " +
+                   "stars_1 = book_rating_aggregates.stars_1 + EXCLUDED.stars_1, " +
+                   "stars_2 = book_rating_aggregates.stars_2 + EXCLUDED.stars_2, " +
+                   "stars_3 = book_rating_aggregates.stars_3 + EXCLUDED.stars_3, " +
+                   "stars_4 = book_rating_aggregates.stars_4 + EXCLUDED.stars_4, " +
+                   "stars_5 = book_rating_aggregates.stars_5 + EXCLUDED.stars_5",
+           nativeQuery = true)
+    int applyDelta(@Param("bookId") Long bookId,
+                   @Param("count") long count,
+                   @Param("sum") long sum,
+                   @Param("s1") long s1,
+                   @Param("s2") long s2,
+                   @Param("s3") long s3,
+                   @Param("s4") long s4,
+                   @Param("s5") long s5);
+    
+    // Lock a book's aggregate so concurrent review writes wait while it is recomputed
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM BookRatingAggregate a WHERE a.bookId = :bookId")
+    Optional<BookRatingAggregate> findForUpdate(@Param("bookId") Long bookId);
+    
+    // Every aggregate in book order, as detached copies so a full scan doesn't fill the persistence context
+    // (caller must close the stream inside a transaction)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.example.reviewservice.entity.BookRatingAggregate(a.bookId, a.reviewCount, a.ratingSum, " +
+           "a.stars1, a.stars2, a.stars3, a.stars4, a.stars5) " +
+           "FROM BookRatingAggregate a ORDER BY a.bookId")
+    Stream<BookRatingAggregate> streamAllOrderByBookId();
+}
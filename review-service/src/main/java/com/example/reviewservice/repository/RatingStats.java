@@ -0,0 +1,21 @@
+package com.example.reviewservice.repository;
+
+// Projection of per-book rating statistics computed directly from the reviews table
+public interface RatingStats {
+    
+    Long getBookId();
+    
+    Long getReviewCount();
+    
+    Long getRatingSum();
+    
+    Long getStars1();
+    
+    Long getStars2();
+    
+    Long getStars3();
+    
+    Long getStars4();
+    
+    Long getStars5();
+}
@@ -0,0 +1,11 @@
+package com.example.reviewservice.repository;
+
+// Projection of a book's review count and rating sum over some set of reviews
+public interface RatingTotals {
+    
+    Long getBookId();
+    
+    Long getReviewCount();
+    
+    Long getRatingSum();
+}
@@ -1,12 +1,19 @@
 package com.example.reviewservice.repository;
 
 import com.example.reviewservice.entity.Review;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
@@ -32,4 +39,53 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     
     // Find reviews by reviewer name
     List<Review> findByReviewerNameContainingIgnoreCase(String reviewerName);
+    
+    // Keyset pagination: first page ordered by ID
+    List<Review> findAllByOrderByIdAsc(Pageable pageable);
+    
+    // Keyset pagination: rows after the given ID
+    List<Review> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Keyset pagination: first page of a book's reviews ordered by (createdAt, id)
+    @Query("SELECT r FROM Review r WHERE r.bookId = :bookId ORDER BY r.createdAt, r.id")
+    List<Review> findPageByBookId(@Param("bookId") Long bookId, Pageable pageable);
+    
+    // Keyset pagination: a book's reviews after the given (createdAt, id)
+    @Query("SELECT r FROM Review r WHERE r.bookId = :bookId " +
+           "AND (r.createdAt > :createdAt OR (r.createdAt = :createdAt AND r.id > :id)) " +
+           "ORDER BY r.createdAt, r.id")
+    List<Review> findPageByBookIdAfter(@Param("bookId") Long bookId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+    
+    // Per-book statistics recomputed from scratch in book order, for aggregate reconciliation (caller must close the
+    // stream inside a transaction)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r.bookId AS bookId, COUNT(r) AS reviewCount, SUM(r.rating) AS ratingSum, " +
+           "SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END) AS stars1, " +
+           "SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END) AS stars2, " +
+           "SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END) AS stars3, " +
+           "SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END) AS stars4, " +
+           "SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END) AS stars5 " +
+           "FROM Review r GROUP BY r.bookId ORDER BY r.bookId")
+    Stream<RatingStats> streamRatingStats();
+    
+    // Statistics for one book recomputed from scratch
+    @Query("SELECT r.bookId AS bookId, COUNT(r) AS reviewCount, SUM(r.rating) AS ratingSum, " +
+           "SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END) AS stars1, " +
+           "SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END) AS stars2, " +
+           "SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END) AS stars3, " +
+           "SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END) AS stars4, " +
+           "SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END) AS stars5 " +
+           "FROM Review r WHERE r.bookId = :bookId GROUP BY r.bookId")
+    Optional<RatingStats> findRatingStats(@Param("bookId") Long bookId);
+    
+    // Per-book review count and rating sum for reviews created since the given time
+    @Query("SELECT r.bookId AS bookId, COUNT(r) AS reviewCount, SUM(r.rating) AS ratingSum " +
+           "FROM Review r WHERE r.createdAt >= :since GROUP BY r.bookId")
+    Stream<RatingTotals> streamRatingTotalsSince(@Param("since") LocalDateTime since);
 }
\ No newline at end of file
@@ -0,0 +1,131 @@
+package com.example.reviewservice.service;
+
+import com.example.reviewservice.entity.BookRatingAggregate;
+import com.example.reviewservice.entity.Review;
+import com.example.reviewservice.repository.BookRatingAggregateRepository;
+import com.example.reviewservice.repository.RatingStats;
+import com.example.reviewservice.repository.ReviewRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class RatingAggregateService {
+    
+    // Book IDs per IN (...) query
+    private static final int CHUNK_SIZE = 500;
+    
+    private final BookRatingAggregateRepository aggregateRepository;
+    private final ReviewRepository reviewRepository;
+    
+    // Record a new review's rating
+    public void reviewAdded(Long bookId, Integer rating) {
+        long[] stars = new long[6];
+        star(stars, rating, 1);
+        apply(bookId, 1, value(rating), stars);
+    }
+    
+    // Record many new reviews with one upsert per book, in book ID order so concurrent batches cannot deadlock
+    public void reviewsAdded(List<Review> reviews) {
+        Map<Long, long[]> deltas = new TreeMap<>();
+        for (Review review : reviews) {
+            // [count, sum, stars1..stars5]
+            long[] delta = deltas.computeIfAbsent(review.getBookId(), id -> new long[7]);
+            delta[0]++;
+            delta[1] += value(review.getRating());
+            Integer rating = review.getRating();
+            if (rating != null && rating >= 1 && rating <= 5) {
+                delta[rating + 1]++;
+            }
+        }
+        for (Map.Entry<Long, long[]> entry : deltas.entrySet()) {
+            long[] d = entry.getValue();
+            aggregateRepository.applyDelta(entry.getKey(), d[0], d[1], d[2], d[3], d[4], d[5], d[6]);
+        }
+    }
+    
+    // Remove a deleted review's rating
+    public void reviewRemoved(Long bookId, Integer rating) {
+        long[] stars = new long[6];
+        star(stars, rating, -1);
+        apply(bookId, -1, -value(rating), stars);
+    }
+    
+    // Move a review from one rating to another
+    public void ratingChanged(Long bookId, Integer oldRating, Integer newRating) {
+        if (value(oldRating) == value(newRating)) {
+            return;
+        }
+        long[] stars = new long[6];
+        star(stars, oldRating, -1);
+        star(stars, newRating, 1);
+        apply(bookId, 0, value(newRating) - value(oldRating), stars);
+    }
+    
+    // Get the aggregate for a book
+    @Transactional(readOnly = true)
+    public Optional<BookRatingAggregate> getAggregate(Long bookId) {
+        return aggregateRepository.findById(bookId);
+    }
+    
+    // Get aggregates for many books, one primary-key query per chunk; books without reviews are absent
+    @Transactional(readOnly = true)
+    public Map<Long, BookRatingAggregate> getAggregates(List<Long> bookIds) {
+        Map<Long, BookRatingAggregate> aggregates = new HashMap<>();
+        for (int from = 0; from < bookIds.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = new ArrayList<>(bookIds.subList(from, Math.min(from + CHUNK_SIZE, bookIds.size())));
+            for (BookRatingAggregate aggregate : aggregateRepository.findAllById(chunk)) {
+                aggregates.put(aggregate.getBookId(), aggregate);
+            }
+        }
+        return aggregates;
+    }
+    
+    // Recompute one book from the reviews table while holding its aggregate row lock; true if it had drifted
+    public boolean reconcile(Long bookId) {
+        // Make sure the row exists so there is something to lock
+        aggregateRepository.applyDelta(bookId, 0, 0, 0, 0, 0, 0, 0);
+        BookRatingAggregate aggregate = aggregateRepository.findForUpdate(bookId)
+                .orElseThrow(() -> new IllegalStateException("Aggregate row vanished for book " + bookId));
+        BookRatingAggregate actual = toAggregate(bookId, reviewRepository.findRatingStats(bookId).orElse(null));
+        if (actual.equals(aggregate)) {
+            return false;
+        }
+        aggregateRepository.save(actual);
+        return true;
+    }
+    
+    // Aggregate as it should be for the given statistics (null means no reviews)
+    public static BookRatingAggregate toAggregate(Long bookId, RatingStats stats) {
+        if (stats == null) {
+            return new BookRatingAggregate(bookId, 0, 0, 0, 0, 0, 0, 0);
+        }
+        return new BookRatingAggregate(bookId, stats.getReviewCount(), value(stats.getRatingSum()),
+                stats.getStars1(), stats.getStars2(), stats.getStars3(), stats.getStars4(), stats.getStars5());
+    }
+    
+    private void apply(Long bookId, long countDelta, long sumDelta, long[] stars) {
+        aggregateRepository.applyDelta(bookId, countDelta, sumDelta,
+                stars[1], stars[2], stars[3], stars[4], stars[5]);
+    }
+    
+    // Ratings outside 1-5 still count toward the total and sum, but have no histogram bucket
+    private static void star(long[] stars, Integer rating, int delta) {
+        if (rating != null && rating >= 1 && rating <= 5) {
+            stars[rating] += delta;
+        }
+    }
+    
+    private static long value(Number rating) {
+        return rating == null ? 0 : rating.longValue();
+    }
+}
@@ -1,12 +1,27 @@
 package com.example.reviewservice.service;
 
+import com.example.common.pagination.Cursor;
+import com.example.common.pagination.CursorCodec;
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.PageLimits;
+import com.example.reviewservice.dto.RatingHistogram;
+import com.example.reviewservice.dto.RatingSummary;
+import com.example.reviewservice.entity.BookRatingAggregate;
 import com.example.reviewservice.entity.Review;
+import com.example.reviewservice.event.ReviewChangedEvent;
+import com.example.reviewservice.outbox.ReviewOutboxWriter;
 import com.example.reviewservice.repository.ReviewRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -15,16 +30,33 @@ import java.util.Optional;
 public class ReviewService {
     
     private final ReviewRepository reviewRepository;
+    private final RatingAggregateService ratingAggregateService;
+    private final ReviewOutboxWriter outboxWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    // Most book IDs accepted by one rating-summary request
+    public static final int MAX_SUMMARY_BOOK_IDS = 5000;
     
     // Create a new review
     public Review createReview(Review review) {
-        return reviewRepository.save(review);
+        Review savedReview = reviewRepository.save(review);
+        ratingAggregateService.reviewAdded(savedReview.getBookId(), savedReview.getRating());
+        outboxWriter.reviewCreated(savedReview);
+        eventPublisher.publishEvent(new ReviewChangedEvent(savedReview.getBookId(), savedReview.getCreatedAt(),
+                1, rating(savedReview)));
+        return savedReview;
     }
     
-    // Get all reviews
+    // Get a page of reviews ordered by ID
     @Transactional(readOnly = true)
-    public List<Review> getAllReviews() {
-        return reviewRepository.findAll();
+    public CursorPage<Review> getReviewsPage(String cursor, Integer size) {
+        int limit = PageLimits.resolve(size);
+        Cursor after = CursorCodec.decode(cursor);
+        PageRequest probe = PageRequest.ofSize(PageLimits.probeSize(limit));
+        List<Review> rows = after == null
+                ? reviewRepository.findAllByOrderByIdAsc(probe)
+                : reviewRepository.findByIdGreaterThanOrderByIdAsc(after.getId(), probe);
+        return CursorPage.of(rows, limit, review -> Cursor.of(review.getId()));
     }
     
     // Get review by ID
@@ -38,11 +70,17 @@ public class ReviewService {
         Review review = reviewRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Review not found with id: " + id));
         
+        Integer oldRating = review.getRating();
         review.setRating(reviewDetails.getRating());
         review.setComment(reviewDetails.getComment());
         review.setReviewerName(reviewDetails.getReviewerName());
         
-        return reviewRepository.save(review);
+        Review savedReview = reviewRepository.save(review);
+        ratingAggregateService.ratingChanged(savedReview.getBookId(), oldRating, savedReview.getRating());
+        outboxWriter.reviewUpdated(savedReview, oldRating);
+        eventPublisher.publishEvent(new ReviewChangedEvent(savedReview.getBookId(), savedReview.getCreatedAt(),
+                0, rating(savedReview) - (oldRating == null ? 0 : oldRating)));
+        return savedReview;
     }
     
     // Delete review
@@ -50,12 +88,22 @@ public class ReviewService {
         Review review = reviewRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Review not found with id: " + id));
         reviewRepository.delete(review);
+        ratingAggregateService.reviewRemoved(review.getBookId(), review.getRating());
+        outboxWriter.reviewDeleted(review);
+        eventPublisher.publishEvent(new ReviewChangedEvent(review.getBookId(), review.getCreatedAt(),
+                -1, -rating(review)));
     }
     
-    // Get reviews by book ID
+    // Get a page of reviews for a book, oldest first
     @Transactional(readOnly = true)
-    public List<Review> getReviewsByBookId(Long bookId) {
-        return reviewRepository.findByBookId(bookId);
+    public CursorPage<Review> getReviewsByBookId(Long bookId, String cursor, Integer size) {
+        int limit = PageLimits.resolve(size);
+        Cursor after = CursorCodec.decode(cursor);
+        PageRequest probe = PageRequest.ofSize(PageLimits.probeSize(limit));
+        List<Review> rows = after == null
+                ? reviewRepository.findPageByBookId(bookId, probe)
+                : reviewRepository.findPageByBookIdAfter(bookId, after.timeKey(), after.getId(), probe);
+        return CursorPage.of(rows, limit, review -> Cursor.of(review.getCreatedAt(), review.getId()));
     }
     
     // Get reviews by user ID
@@ -73,12 +121,53 @@ public class ReviewService {
     // Get average rating for a book
     @Transactional(readOnly = true)
     public Double getAverageRatingByBookId(Long bookId) {
-        return reviewRepository.getAverageRatingByBookId(bookId);
+        return ratingAggregateService.getAggregate(bookId)
+                .map(BookRatingAggregate::getAverageRating)
+                .orElse(null);
     }
     
     // Get review count for a book
     @Transactional(readOnly = true)
     public Long getReviewCountByBookId(Long bookId) {
-        return reviewRepository.countByBookId(bookId);
+        return ratingAggregateService.getAggregate(bookId)
+                .map(BookRatingAggregate::getReviewCount)
+                .orElse(0L);
+    }
+    
+    // Get the star-rating histogram for a book
+    @Transactional(readOnly = true)
+    public RatingHistogram getRatingHistogram(Long bookId) {
+        BookRatingAggregate aggregate = ratingAggregateService.getAggregate(bookId)
+                .orElse(RatingAggregateService.toAggregate(bookId, null));
+        Map<Integer, Long> stars = new LinkedHashMap<>();
+        stars.put(1, aggregate.getStars1());
+        stars.put(2, aggregate.getStars2());
+        stars.put(3, aggregate.getStars3());
+        stars.put(4, aggregate.getStars4());
+        stars.put(5, aggregate.getStars5());
+        return new RatingHistogram(bookId, aggregate.getReviewCount(), aggregate.getAverageRating(), stars);
+    }
+    
+    // Get average rating and review count for many books in one call, in request order
+    @Transactional(readOnly = true)
+    public List<RatingSummary> getRatingSummaries(List<Long> bookIds) {
+        if (bookIds.size() > MAX_SUMMARY_BOOK_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_SUMMARY_BOOK_IDS + " book IDs per request");
+        }
+        List<Long> requested = new ArrayList<>(new LinkedHashSet<>(bookIds));
+        requested.remove(null);
+        Map<Long, BookRatingAggregate> aggregates = ratingAggregateService.getAggregates(requested);
+        List<RatingSummary> summaries = new ArrayList<>(requested.size());
+        for (Long bookId : requested) {
+            BookRatingAggregate aggregate = aggregates.get(bookId);
+            summaries.add(aggregate == null
+                    ? new RatingSummary(bookId, null, 0)
+                    : new RatingSummary(bookId, aggregate.getAverageRating(), aggregate.getReviewCount()));
+        }
+        return summaries;
+    }
+    
+    private static long rating(Review review) {
+        return review.getRating() == null ? 0 : review.getRating();
     }
-}
\ No newline at end of file
+}
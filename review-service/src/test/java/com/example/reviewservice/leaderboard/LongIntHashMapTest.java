@@ -0,0 +1,34 @@
+package com.example.reviewservice.leaderboard;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Keys that can never be stored must read as missing, not as whatever sits in an empty bucket
+class LongIntHashMapTest {
+    
+    @Test
+    void nonPositiveKeysAreMissing() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        map.put(1L, 0);
+        
+        assertThat(map.get(0L, -1)).isEqualTo(-1);
+        assertThat(map.get(-5L, -1)).isEqualTo(-1);
+        assertThatThrownBy(() -> map.put(0L, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    @Test
+    void valuesSurviveResizing() {
+        LongIntHashMap map = new LongIntHashMap(4);
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key, (int) key * 2);
+        }
+        
+        assertThat(map.size()).isEqualTo(10_000);
+        for (long key = 1; key <= 10_000; key++) {
+            assertThat(map.get(key, -1)).isEqualTo((int) key * 2);
+        }
+        assertThat(map.get(10_001L, -1)).isEqualTo(-1);
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.reviewservice.outbox;
+
+import com.example.reviewservice.config.ReviewOutboxProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Relay against an embedded broker and H2: ordering, throughput and lag metrics, and the single-relay lease
+@SpringBootTest(classes = ReviewOutboxRelayTest.RelayConfig.class, properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "review.outbox.batch-size=500"
+})
+@EmbeddedKafka(kraft = true, partitions = 6, topics = "review-events",
+               bootstrapServersProperty = "spring.kafka.bootstrap-servers")
+class ReviewOutboxRelayTest {
+    
+    private static final int EVENTS = 5000;
+    private static final int BOOKS = 50;
+    
+    @Autowired
+    private ReviewOutboxRelay relay;
+    
+    @Autowired
+    private ReviewOutboxRepository outboxRepository;
+    
+    @Autowired
+    private ReviewOutboxRelayLeaseRepository leaseRepository;
+    
+    @Autowired
+    private KafkaProperties kafkaProperties;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ReviewOutboxProperties properties;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+    
+    @BeforeEach
+    void clearTables() {
+        outboxRepository.deleteAllInBatch();
+        leaseRepository.deleteAllInBatch();
+    }
+    
+    @Test
+    void relaysEveryEventInPerBookOrderAndReportsThroughputAndLag() {
+        seed(EVENTS, LocalDateTime.now().minusSeconds(5));
+        double relayedBefore = meterRegistry.get("review.outbox.relayed").counter().count();
+        
+        try (Consumer<String, String> consumer = consumer("relay-order")) {
+            long started = System.nanoTime();
+            relay.relay();
+            double seconds = (System.nanoTime() - started) / 1e9;
+            
+            // Lag is measured at the start of each run: the last batch's oldest event was already 5 s old
+            assertThat(lag()).isGreaterThanOrEqualTo(5000);
+            assertThat(meterRegistry.get("review.outbox.relayed").counter().count() - relayedBefore)
+                    .isEqualTo(EVENTS);
+            assertThat(outboxRepository.count()).isZero();
+            assertThat(EVENTS / seconds).as("events relayed per second").isGreaterThan(200);
+            
+            relay.relay();
+            assertThat(lag()).isZero();
+            
+            Map<String, Long> lastIdByBook = new HashMap<>();
+            int received = 0;
+            while (received < EVENTS) {
+                ConsumerRecords<String, String> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10));
+                assertThat(records.count()).as("records after %d", received).isPositive();
+                for (ConsumerRecord<String, String> record : records) {
+                    long outboxId = Long.parseLong(new String(
+                            record.headers().lastHeader(ReviewOutboxRelay.OUTBOX_ID_HEADER).value(),
+                            StandardCharsets.UTF_8));
+                    Long previous = lastIdByBook.put(record.key(), outboxId);
+                    assertThat(previous == null || previous < outboxId)
+                            .as("book %s: %d after %d", record.key(), outboxId, previous).isTrue();
+                    received++;
+                }
+            }
+            assertThat(lastIdByBook).hasSize(BOOKS);
+        }
+    }
+    
+    @Test
+    void onlyTheLeaseHolderRelays() {
+        ReviewOutboxRelay first = newRelay();
+        ReviewOutboxRelay second = newRelay();
+        try {
+            assertThat(first.relayBatch()).isZero();
+            seed(10, LocalDateTime.now());
+            
+            assertThat(second.relayBatch()).isZero();
+            assertThat(outboxRepository.count()).isEqualTo(10);
+            assertThat(first.relayBatch()).isEqualTo(10);
+            
+            // Releasing on shutdown hands the lease over without waiting for it to lapse
+            seed(10, LocalDateTime.now());
+            first.close();
+            assertThat(second.relayBatch()).isEqualTo(10);
+        } finally {
+            second.close();
+        }
+    }
+    
+    private ReviewOutboxRelay newRelay() {
+        return new ReviewOutboxRelay(outboxRepository, leaseRepository, kafkaProperties, transactionTemplate,
+                properties, new SimpleMeterRegistry());
+    }
+    
+    private void seed(int events, LocalDateTime createdAt) {
+        List<ReviewOutboxEvent> rows = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            rows.add(new ReviewOutboxEvent(null, (long) (i % BOOKS), "CREATED", "{\"n\":" + i + "}", createdAt));
+        }
+        outboxRepository.saveAll(rows);
+    }
+    
+    private double lag() {
+        return meterRegistry.get("review.outbox.lag").gauge().value();
+    }
+    
+    private Consumer<String, String> consumer(String group) {
+        Map<String, Object> config = KafkaTestUtils.consumerProps(group, "false", broker);
+        Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(config,
+                new StringDeserializer(), new StringDeserializer()).createConsumer();
+        broker.consumeFromAnEmbeddedTopic(consumer, properties.getTopic());
+        return consumer;
+    }
+    
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class, KafkaAutoConfiguration.class})
+    @EntityScan(basePackageClasses = ReviewOutboxEvent.class)
+    @EnableJpaRepositories(basePackageClasses = ReviewOutboxRepository.class)
+    @EnableConfigurationProperties(ReviewOutboxProperties.class)
+    @Import(ReviewOutboxRelay.class)
+    static class RelayConfig {
+        
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.example.surveyservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ConfigurationPropertiesScan
+@EnableScheduling
 public class SurveyServiceApplication {
     public static void main(String[] args) {
         SpringApplication.run(SurveyServiceApplication.class, args);
@@ -0,0 +1,38 @@
+package com.example.surveyservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "survey.responses")
+public class ResponseLogProperties {
+    
+    // Local directory holding the log segments; must survive restarts
+    private String logDir = "data/survey-responses";
+    
+    // Identifies this replica's log in the database; must be unique per replica. When unset, an ID is generated
+    // on first start (host name plus a random UUID) and kept in the log directory
+    private String nodeId;
+    
+    // Size each segment file is preallocated and mapped to
+    private int segmentBytes = 64 * 1024 * 1024;
+    
+    // Largest accepted answers document, in UTF-8 bytes
+    private int maxAnswerBytes = 64 * 1024;
+    
+    // Uncompacted answers held in memory, in characters, beyond which new responses are refused until compaction
+    // catches up
+    private long maxTailChars = 128L * 1024 * 1024;
+    
+    // Upper bound on the gap between fsyncs while appends are pending; normally the next fsync starts as soon as
+    // the previous one ends, covering everything appended during it
+    private Duration fsyncInterval = Duration.ofMillis(5);
+    
+    // How often durable log records are copied into survey_responses
+    private Duration compactionInterval = Duration.ofSeconds(1);
+    
+    // Rows per multi-row insert and transaction during compaction
+    private int compactionBatchSize = 1000;
+}
@@ -0,0 +1,20 @@
+package com.example.surveyservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "survey.counters")
+public class SurveyCounterProperties {
+    
+    // How often buffered responses are written to the surveys table
+    private Duration flushInterval = Duration.ofMillis(20);
+    
+    // Longest a response to a capped survey waits for its flush to learn whether it was admitted
+    private Duration admissionTimeout = Duration.ofSeconds(5);
+    
+    // Counters unused this long are dropped; the survey's maxResponses is read again when it is next answered
+    private Duration idleEviction = Duration.ofMinutes(1);
+}
@@ -0,0 +1,19 @@
+package com.example.surveyservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class SurveyScheduleConfig {
+    
+    // One partition: SurveyLifecycleScheduler assigns partition 0 to itself on every replica
+    @Bean
+    public NewTopic surveyChangeTopic(SurveyScheduleProperties properties) {
+        return TopicBuilder.name(properties.getChangeTopic())
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
+}
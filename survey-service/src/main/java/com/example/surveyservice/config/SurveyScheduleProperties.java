@@ -0,0 +1,29 @@
+package com.example.surveyservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "survey.schedule")
+public class SurveyScheduleProperties {
+    
+    // Resolution of the timing wheel; status flips happen at most this long after a boundary
+    private Duration tick = Duration.ofSeconds(1);
+    
+    private int wheelSize = 60;
+    
+    // Boundaries this far ahead are kept in the wheel; later ones are picked up by a later resync
+    private Duration horizon = Duration.ofHours(24);
+    
+    // Full reload from the database; picks up boundaries beyond the horizon, and bounds how long a replica that
+    // missed a change message serves the old state
+    private Duration resyncInterval = Duration.ofMinutes(5);
+    
+    // Topic used to tell other replicas that a survey changed
+    private String changeTopic = "survey-changes";
+    
+    // Survey IDs per batched status update
+    private int batchSize = 500;
+}
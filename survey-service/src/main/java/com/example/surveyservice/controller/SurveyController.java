@@ -1,6 +1,12 @@
 package com.example.surveyservice.controller;
 
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.InvalidCursorException;
+import com.example.surveyservice.counter.SurveyFullException;
+import com.example.surveyservice.dto.SurveyResponseRequest;
 import com.example.surveyservice.entity.Survey;
+import com.example.surveyservice.entity.SurveyResponse;
+import com.example.surveyservice.service.SurveyResponseService;
 import com.example.surveyservice.service.SurveyService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -16,6 +22,7 @@ import java.util.Optional;
 public class SurveyController {
     
     private final SurveyService surveyService;
+    private final SurveyResponseService surveyResponseService;
     
     // Create a new survey
     @PostMapping
@@ -24,11 +31,16 @@ public class SurveyController {
         return new ResponseEntity<>(createdSurvey, HttpStatus.CREATED);
     }
     
-    // Get all surveys
+    // Get all surveys, one page at a time
     @GetMapping
-    public ResponseEntity<List<Survey>> getAllSurveys() {
-        List<Survey> surveys = surveyService.getAllSurveys();
-        return ResponseEntity.ok(surveys);
+    public ResponseEntity<CursorPage<Survey>> getAllSurveys(@RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer size) {
+        try {
+            CursorPage<Survey> surveys = surveyService.getSurveysPage(cursor, size);
+            return ResponseEntity.ok(surveys);
+        } catch (InvalidCursorException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
     
     // Get survey by ID
@@ -103,17 +115,47 @@ public class SurveyController {
         return ResponseEntity.ok(surveys);
     }
     
-    // Increment response count
+    // Increment response count; 409 once the survey is full
     @PostMapping("/{id}/increment-response")
     public ResponseEntity<Survey> incrementResponseCount(@PathVariable Long id) {
         try {
             Survey updatedSurvey = surveyService.incrementResponseCount(id);
             return ResponseEntity.ok(updatedSurvey);
+        } catch (SurveyFullException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
     }
     
+    // Submit a response; 409 once the survey is full, 503 while the response log is too far behind compaction
+    @PostMapping("/{id}/responses")
+    public ResponseEntity<SurveyResponse> submitResponse(@PathVariable Long id,
+                                                         @RequestBody SurveyResponseRequest request) {
+        try {
+            SurveyResponse response = surveyResponseService.submitResponse(id, request);
+            return new ResponseEntity<>(response, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (SurveyFullException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    // Get the latest responses of a survey, newest first
+    @GetMapping("/{id}/responses")
+    public ResponseEntity<List<SurveyResponse>> getRecentResponses(@PathVariable Long id,
+                                                                   @RequestParam(required = false) Integer size) {
+        List<SurveyResponse> responses = surveyResponseService.getRecentResponses(id, size);
+        return ResponseEntity.ok(responses);
+    }
+    
     // Update survey status
     @PatchMapping("/{id}/status")
     public ResponseEntity<Survey> updateSurveyStatus(@PathVariable Long id, @RequestParam Survey.SurveyStatus status) {
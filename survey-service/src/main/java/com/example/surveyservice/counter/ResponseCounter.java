@@ -0,0 +1,311 @@
+package com.example.surveyservice.counter;
+
+import com.example.surveyservice.config.SurveyCounterProperties;
+import com.example.surveyservice.entity.Survey;
+import com.example.surveyservice.repository.SurveyRepository;
+import com.example.surveyservice.schedule.SurveyLifecycleScheduler;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Buffers survey responses in memory and applies them to the surveys table in one statement per survey per flush,
+// so concurrent responses never read-modify-write the row and a hot survey takes one row lock per flush instead
+// of one per response.
+//
+// Surveys without maxResponses are counted in a LongAdder (striped, so no contention between request threads)
+// and acknowledged at once. Responses to capped surveys wait for the next flush, where a single conditional
+// UPDATE grants as many of them as still fit; the rest are refused. Buffered adds go through the same UPDATE, and
+// every flush reads max_responses back, so the database enforces the cap across replicas and a cap set through
+// another replica switches this one to admission at its next flush. Adds acknowledged in between are the only
+// responses that can then go uncounted, and they are logged. Adds live only in memory until their flush, so a
+// crash loses at most one flush interval of them.
+//
+// A counter unused for survey.counters.idle-eviction is dropped, so the map holds only recently answered surveys
+// and maxResponses is read afresh when one is answered again.
+@Slf4j
+@Component
+public class ResponseCounter {
+    
+    // Grants up to :requested responses without passing max_responses; returns the number granted, the new count
+    // and the current cap
+    private static final String ADMIT_SQL = "UPDATE surveys s SET response_count = CASE " +
+            "WHEN s.max_responses IS NULL THEN b.before + :requested " +
+            "ELSE GREATEST(b.before, LEAST(b.before + :requested, s.max_responses)) END " +
+            "FROM (SELECT id, COALESCE(response_count, 0) AS before FROM surveys WHERE id = :id FOR UPDATE) b " +
+            "WHERE s.id = b.id RETURNING s.response_count - b.before AS granted, s.response_count, s.max_responses";
+    
+    // Gives back :released responses that were counted but could not be stored
+    private static final String RELEASE_SQL = "UPDATE surveys " +
+            "SET response_count = GREATEST(COALESCE(response_count, 0) - :released, 0) " +
+            "WHERE id = :id RETURNING response_count, max_responses";
+    
+    private static final class SurveyCounter {
+        volatile Integer maxResponses;
+        final LongAdder pending = new LongAdder();
+        final Queue<CompletableFuture<Boolean>> waiting = new ConcurrentLinkedQueue<>();
+        // Threads handing a response to this counter; -1 once it is retired and takes no more
+        final AtomicInteger users = new AtomicInteger();
+        volatile long lastUsedMillis = System.currentTimeMillis();
+        
+        SurveyCounter(Integer maxResponses) {
+            this.maxResponses = maxResponses;
+        }
+        
+        boolean enter() {
+            int current;
+            do {
+                current = users.get();
+                if (current < 0) {
+                    return false;
+                }
+            } while (!users.compareAndSet(current, current + 1));
+            lastUsedMillis = System.currentTimeMillis();
+            return true;
+        }
+        
+        void exit() {
+            users.decrementAndGet();
+        }
+    }
+    
+    private final SurveyRepository surveyRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final SurveyCounterProperties properties;
+    private final SurveyLifecycleScheduler lifecycleScheduler;
+    private final Map<Long, SurveyCounter> counters = new ConcurrentHashMap<>();
+    
+    public ResponseCounter(SurveyRepository surveyRepository,
+                           NamedParameterJdbcTemplate jdbcTemplate,
+                           SurveyCounterProperties properties,
+                           SurveyLifecycleScheduler lifecycleScheduler) {
+        this.surveyRepository = surveyRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.lifecycleScheduler = lifecycleScheduler;
+    }
+    
+    // Count one response; throws SurveyFullException if a capped survey has no room left
+    public void record(Long surveyId) {
+        SurveyCounter counter = enter(surveyId);
+        CompletableFuture<Boolean> admission;
+        try {
+            if (counter.maxResponses == null) {
+                counter.pending.increment();
+                return;
+            }
+            admission = new CompletableFuture<>();
+            counter.waiting.add(admission);
+        } finally {
+            counter.exit();
+        }
+        boolean admitted;
+        try {
+            admitted = awaitAdmission(counter, admission);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for response admission", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Could not confirm response for survey " + surveyId, e);
+        }
+        if (!admitted) {
+            throw new SurveyFullException(surveyId);
+        }
+    }
+    
+    // Undo one recorded response that could not be stored. It nets against buffered adds, and whatever is left is
+    // subtracted at the next flush, whether the response was buffered or already admitted
+    public void release(Long surveyId) {
+        SurveyCounter counter = enter(surveyId);
+        try {
+            counter.pending.decrement();
+        } finally {
+            counter.exit();
+        }
+    }
+    
+    // On timeout, withdraw the request so no later flush counts a response the caller was told failed. If a flush
+    // has already taken it, its UPDATE is under way and decides, so wait for that answer instead
+    private boolean awaitAdmission(SurveyCounter counter, CompletableFuture<Boolean> admission)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        try {
+            return admission.get(properties.getAdmissionTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            if (counter.waiting.remove(admission)) {
+                throw e;
+            }
+            return admission.get();
+        }
+    }
+    
+    // Responses accepted for an uncapped survey but not yet written
+    public long getPending(Long surveyId) {
+        SurveyCounter counter = counters.get(surveyId);
+        return counter == null ? 0 : counter.pending.sum();
+    }
+    
+    // Pick up a changed maxResponses; buffered responses are kept
+    public void surveyUpdated(Survey survey) {
+        SurveyCounter counter = counters.get(survey.getId());
+        if (counter != null) {
+            counter.maxResponses = survey.getMaxResponses();
+        }
+    }
+    
+    public void surveyDeleted(Long surveyId) {
+        SurveyCounter counter = counters.remove(surveyId);
+        if (counter != null) {
+            CompletableFuture<Boolean> waiter;
+            while ((waiter = counter.waiting.poll()) != null) {
+                waiter.complete(false);
+            }
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${survey.counters.flush-interval:PT0.02S}")
+    public void flush() {
+        long idleSince = System.currentTimeMillis() - properties.getIdleEviction().toMillis();
+        for (Map.Entry<Long, SurveyCounter> entry : counters.entrySet()) {
+            flushAdds(entry.getKey(), entry.getValue());
+            flushAdmissions(entry.getKey(), entry.getValue());
+            if (entry.getValue().lastUsedMillis < idleSince) {
+                retire(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+    
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+    
+    // A retired counter may still be found for the moment before it leaves the map; the retry then creates a new one
+    private SurveyCounter enter(Long surveyId) {
+        while (true) {
+            SurveyCounter counter = counter(surveyId);
+            if (counter.enter()) {
+                return counter;
+            }
+            Thread.onSpinWait();
+        }
+    }
+    
+    // Drop an idle counter. Once retired no thread can reach it, so what it still holds is flushed here, and adds a
+    // failed flush put back move to the counter that replaces it
+    private void retire(Long surveyId, SurveyCounter counter) {
+        if (!counter.users.compareAndSet(0, -1)) {
+            return;
+        }
+        counters.remove(surveyId, counter);
+        flushAdds(surveyId, counter);
+        flushAdmissions(surveyId, counter);
+        long left = counter.pending.sum();
+        if (left != 0) {
+            counters.computeIfAbsent(surveyId, id -> new SurveyCounter(counter.maxResponses)).pending.add(left);
+        }
+    }
+    
+    private SurveyCounter counter(Long surveyId) {
+        SurveyCounter counter = counters.get(surveyId);
+        if (counter != null) {
+            return counter;
+        }
+        Survey survey = surveyRepository.findById(surveyId)
+                .orElseThrow(() -> new RuntimeException("Survey not found with id: " + surveyId));
+        SurveyCounter existing = counters.putIfAbsent(surveyId, new SurveyCounter(survey.getMaxResponses()));
+        return existing != null ? existing : counters.get(surveyId);
+    }
+    
+    // Subtract what we write instead of resetting, so increments racing with the flush are kept for the next one
+    private void flushAdds(Long surveyId, SurveyCounter counter) {
+        long delta = counter.pending.sum();
+        if (delta == 0) {
+            return;
+        }
+        counter.pending.add(-delta);
+        if (delta < 0) {
+            flushReleases(surveyId, counter, -delta);
+            return;
+        }
+        try {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(ADMIT_SQL,
+                    new MapSqlParameterSource("requested", delta).addValue("id", surveyId));
+            if (!rows.isEmpty()) {
+                long granted = applied(surveyId, counter, rows.get(0));
+                if (granted < delta) {
+                    log.warn("{} acknowledged responses to survey {} were not counted: it was capped through " +
+                            "another replica", delta - granted, surveyId);
+                }
+            }
+        } catch (RuntimeException e) {
+            counter.pending.add(delta);
+            log.warn("Could not flush {} responses for survey {}, will retry: {}", delta, surveyId, e.getMessage());
+        }
+    }
+    
+    private void flushReleases(Long surveyId, SurveyCounter counter, long released) {
+        try {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(RELEASE_SQL,
+                    new MapSqlParameterSource("released", released).addValue("id", surveyId));
+            if (!rows.isEmpty()) {
+                Number maxResponses = (Number) rows.get(0).get("max_responses");
+                counter.maxResponses = maxResponses == null ? null : maxResponses.intValue();
+                lifecycleScheduler.responseCountChanged(surveyId,
+                        ((Number) rows.get(0).get("response_count")).intValue());
+            }
+        } catch (RuntimeException e) {
+            counter.pending.add(-released);
+            log.warn("Could not release {} responses for survey {}, will retry: {}", released, surveyId,
+                    e.getMessage());
+        }
+    }
+    
+    // Admit waiting responses in arrival order, as many as the survey still has room for
+    private void flushAdmissions(Long surveyId, SurveyCounter counter) {
+        List<CompletableFuture<Boolean>> batch = new ArrayList<>();
+        CompletableFuture<Boolean> waiter;
+        while ((waiter = counter.waiting.poll()) != null) {
+            batch.add(waiter);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(ADMIT_SQL,
+                    new MapSqlParameterSource("requested", batch.size()).addValue("id", surveyId));
+            long admitted = rows.isEmpty() ? 0 : applied(surveyId, counter, rows.get(0));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).complete(i < admitted);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not admit {} responses for survey {}: {}", batch.size(), surveyId, e.getMessage());
+            for (CompletableFuture<Boolean> failed : batch) {
+                failed.completeExceptionally(e);
+            }
+        }
+    }
+    
+    // Take in the cap the UPDATE read, which may have been set or lifted through another replica; returns the number
+    // of responses granted
+    private long applied(Long surveyId, SurveyCounter counter, Map<String, Object> row) {
+        Number maxResponses = (Number) row.get("max_responses");
+        counter.maxResponses = maxResponses == null ? null : maxResponses.intValue();
+        lifecycleScheduler.responseCountChanged(surveyId, ((Number) row.get("response_count")).intValue());
+        return ((Number) row.get("granted")).longValue();
+    }
+}
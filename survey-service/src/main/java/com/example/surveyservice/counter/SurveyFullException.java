@@ -0,0 +1,9 @@
+package com.example.surveyservice.counter;
+
+// The survey already has maxResponses responses
+public class SurveyFullException extends RuntimeException {
+    
+    public SurveyFullException(Long surveyId) {
+        super("Survey " + surveyId + " has reached its maximum number of responses");
+    }
+}
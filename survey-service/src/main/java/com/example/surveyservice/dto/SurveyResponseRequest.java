@@ -0,0 +1,15 @@
+package com.example.surveyservice.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class SurveyResponseRequest {
+    
+    private Long respondentId;
+    
+    // Any JSON document
+    private JsonNode answers;
+}
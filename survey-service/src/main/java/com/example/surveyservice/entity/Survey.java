@@ -44,7 +44,8 @@ public class Survey {
     @Column(name = "max_responses")
     private Integer maxResponses;
     
-    @Column(name = "response_count")
+    // Written only by ResponseCounter's atomic updates, never by saving the entity
+    @Column(name = "response_count", updatable = false)
     private Integer responseCount = 0;
     
     @Column(name = "created_at")
@@ -0,0 +1,45 @@
+package com.example.surveyservice.entity;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// A captured survey response, copied here from the response log by ResponseCompactor
+@Entity
+@Table(name = "survey_responses",
+       uniqueConstraints = @UniqueConstraint(name = "uk_survey_responses_log", columnNames = {"log_node", "log_seq"}),
+       indexes = @Index(name = "idx_survey_responses_survey", columnList = "survey_id, submitted_at"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SurveyResponse {
+    
+    // Null while the response is still only in the log
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "survey_id", nullable = false)
+    private Long surveyId;
+    
+    @Column(name = "respondent_id")
+    private Long respondentId;
+    
+    // JSON document, returned as-is
+    @JsonRawValue
+    @Column(nullable = false, columnDefinition = "text")
+    private String answers;
+    
+    @Column(name = "submitted_at", nullable = false)
+    private LocalDateTime submittedAt;
+    
+    // Which replica's log the response came from, and its position there
+    @Column(name = "log_node", nullable = false, length = 64)
+    private String logNode;
+    
+    @Column(name = "log_seq", nullable = false)
+    private Long logSeq;
+}
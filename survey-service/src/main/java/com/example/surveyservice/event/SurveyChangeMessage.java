@@ -0,0 +1,16 @@
+package com.example.surveyservice.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Kafka payload telling every survey-service replica to re-read a survey it may hold in memory
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SurveyChangeMessage {
+    
+    private Long surveyId;
+    
+    private String sourceInstance;
+}
@@ -0,0 +1,17 @@
+package com.example.surveyservice.event;
+
+import com.example.surveyservice.entity.Survey;
+import lombok.Value;
+
+// Published by SurveyService on every write; in-memory views listen after commit
+@Value
+public class SurveyChangedEvent {
+    
+    ChangeType type;
+    
+    Survey survey;
+    
+    public enum ChangeType {
+        CREATED, UPDATED, DELETED
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.surveyservice.repository;
 
 import com.example.surveyservice.entity.Survey;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -40,4 +43,34 @@ public interface SurveyRepository extends JpaRepository<Survey, Long> {
     // Custom query to find surveys with response count less than max
     @Query("SELECT s FROM Survey s WHERE s.responseCount < s.maxResponses AND s.status = :status")
     List<Survey> findAvailableSurveys(@Param("status") Survey.SurveyStatus status);
-}
\ No newline at end of file
+    
+    // Keyset pagination: first page ordered by ID
+    List<Survey> findAllByOrderByIdAsc(Pageable pageable);
+    
+    // Keyset pagination: rows after the given ID
+    List<Survey> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    // Surveys in the given status whose start date is at or before the horizon
+    @Query("SELECT s FROM Survey s WHERE s.status = :status AND s.startDate IS NOT NULL AND s.startDate <= :until")
+    List<Survey> findStartingBy(@Param("status") Survey.SurveyStatus status, @Param("until") LocalDateTime until);
+    
+    // Surveys in the given statuses whose end date is at or before the horizon
+    @Query("SELECT s FROM Survey s WHERE s.status IN :statuses AND s.endDate IS NOT NULL AND s.endDate <= :until")
+    List<Survey> findEndingBy(@Param("statuses") Collection<Survey.SurveyStatus> statuses,
+                              @Param("until") LocalDateTime until);
+    
+    // Activate scheduled drafts whose start date has passed; re-checks the condition so stale boundaries are no-ops
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Survey s SET s.status = com.example.surveyservice.entity.Survey$SurveyStatus.ACTIVE, " +
+           "s.updatedAt = :now WHERE s.id IN :ids " +
+           "AND s.status = com.example.surveyservice.entity.Survey$SurveyStatus.DRAFT AND s.startDate <= :now")
+    int activateStarted(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+    
+    // Close active or paused surveys whose end date has passed
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Survey s SET s.status = com.example.surveyservice.entity.Survey$SurveyStatus.CLOSED, " +
+           "s.updatedAt = :now WHERE s.id IN :ids " +
+           "AND s.status IN (com.example.surveyservice.entity.Survey$SurveyStatus.ACTIVE, " +
+           "com.example.surveyservice.entity.Survey$SurveyStatus.PAUSED) AND s.endDate <= :now")
+    int closeEnded(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+}
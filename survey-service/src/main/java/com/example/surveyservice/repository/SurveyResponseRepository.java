@@ -0,0 +1,22 @@
+package com.example.surveyservice.repository;
+
+import com.example.surveyservice.entity.SurveyResponse;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SurveyResponseRepository extends JpaRepository<SurveyResponse, Long> {
+    
+    // Latest responses of a survey
+    List<SurveyResponse> findBySurveyIdOrderBySubmittedAtDescIdDesc(Long surveyId, Pageable pageable);
+    
+    // Highest log position of a node already compacted; compaction goes in seq order, so all below it are too
+    @Query("SELECT MAX(r.logSeq) FROM SurveyResponse r WHERE r.logNode = :node")
+    Optional<Long> findMaxLogSeq(@Param("node") String node);
+}
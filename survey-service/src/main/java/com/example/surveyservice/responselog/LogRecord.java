@@ -0,0 +1,51 @@
+package com.example.surveyservice.responselog;
+
+import lombok.Value;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+// One captured response as stored in the log
+@Value
+public class LogRecord {
+    
+    private static final long NO_RESPONDENT = Long.MIN_VALUE;
+    
+    // Fixed part of the encoding: seq, surveyId, respondentId, submittedAt, answers length
+    static final int FIXED_BYTES = 8 + 8 + 8 + 8 + 4;
+    
+    // Position in this node's log; increases by one per append
+    long seq;
+    
+    Long surveyId;
+    
+    Long respondentId;
+    
+    long submittedAtMillis;
+    
+    // Answers as a JSON document
+    String answers;
+    
+    byte[] encode() {
+        byte[] answerBytes = answers.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(FIXED_BYTES + answerBytes.length);
+        buffer.putLong(seq)
+              .putLong(surveyId)
+              .putLong(respondentId == null ? NO_RESPONDENT : respondentId)
+              .putLong(submittedAtMillis)
+              .putInt(answerBytes.length)
+              .put(answerBytes);
+        return buffer.array();
+    }
+    
+    static LogRecord decode(ByteBuffer payload) {
+        long seq = payload.getLong();
+        long surveyId = payload.getLong();
+        long respondentId = payload.getLong();
+        long submittedAt = payload.getLong();
+        byte[] answerBytes = new byte[payload.getInt()];
+        payload.get(answerBytes);
+        return new LogRecord(seq, surveyId, respondentId == NO_RESPONDENT ? null : respondentId, submittedAt,
+                new String(answerBytes, StandardCharsets.UTF_8));
+    }
+}
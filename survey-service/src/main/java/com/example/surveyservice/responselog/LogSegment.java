@@ -0,0 +1,150 @@
+package com.example.surveyservice.responselog;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * A preallocated, memory-mapped log file. Records are framed as [length][crc32][payload]; the zero-filled space
+ * after the last record reads as length 0, which marks the end. A record whose length or checksum is wrong was
+ * torn by a crash and ends the segment as well.
+ *
+ * Appends must be serialized by the caller; forcing may run concurrently with them.
+ */
+final class LogSegment {
+    
+    private static final int HEADER_BYTES = 8;
+    
+    private final Path path;
+    private final long baseSeq;
+    private final MappedByteBuffer buffer;
+    private int writePosition;
+    private int forcedPosition;
+    private long lastSeq;
+    
+    private LogSegment(Path path, long baseSeq, MappedByteBuffer buffer) {
+        this.path = path;
+        this.baseSeq = baseSeq;
+        this.buffer = buffer;
+        this.lastSeq = baseSeq - 1;
+    }
+    
+    static Path fileName(Path dir, long baseSeq) {
+        return dir.resolve(String.format("%020d.seg", baseSeq));
+    }
+    
+    static long baseSeqOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - ".seg".length()));
+    }
+    
+    // Create and preallocate a new segment
+    static LogSegment create(Path dir, long baseSeq, int sizeBytes) throws IOException {
+        return map(fileName(dir, baseSeq), baseSeq, sizeBytes);
+    }
+    
+    // Map an existing segment and scan it, handing each intact record to the consumer
+    static LogSegment recover(Path file, Consumer<LogRecord> records) throws IOException {
+        LogSegment segment = map(file, baseSeqOf(file), (int) Files.size(file));
+        segment.scan(records);
+        return segment;
+    }
+    
+    private static LogSegment map(Path file, long baseSeq, int sizeBytes) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            if (raf.length() < sizeBytes) {
+                raf.setLength(sizeBytes);
+            }
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, sizeBytes);
+            return new LogSegment(file, baseSeq, buffer);
+        }
+    }
+    
+    // Append one encoded record; false if it does not fit and a new segment is needed
+    boolean tryAppend(long seq, byte[] payload) {
+        int needed = HEADER_BYTES + payload.length;
+        // Keep room for a zero length word so the end of data stays detectable
+        if (writePosition + needed + 4 > buffer.capacity()) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        ByteBuffer view = buffer.duplicate();
+        view.position(writePosition);
+        view.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+        writePosition += needed;
+        lastSeq = seq;
+        return true;
+    }
+    
+    // Flush everything appended since the last force to disk
+    void force() {
+        forceTo(writePosition);
+    }
+    
+    // Flush appends up to the given position; writes beyond it can continue meanwhile
+    synchronized void forceTo(int position) {
+        if (forcedPosition < position) {
+            buffer.force(forcedPosition, position - forcedPosition);
+            forcedPosition = position;
+        }
+    }
+    
+    int getWritePosition() {
+        return writePosition;
+    }
+    
+    static int maxPayloadBytes(int segmentBytes) {
+        return segmentBytes - HEADER_BYTES - 4;
+    }
+    
+    long getBaseSeq() {
+        return baseSeq;
+    }
+    
+    long getLastSeq() {
+        return lastSeq;
+    }
+    
+    Path getPath() {
+        return path;
+    }
+    
+    private void scan(Consumer<LogRecord> records) {
+        ByteBuffer view = buffer.duplicate();
+        int position = 0;
+        while (position + HEADER_BYTES <= view.capacity()) {
+            int length = view.getInt(position);
+            int checksum = view.getInt(position + 4);
+            if (length <= 0 || length > view.capacity() - position - HEADER_BYTES) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            view.position(position + HEADER_BYTES);
+            view.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload, 0, length);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+            LogRecord record = LogRecord.decode(ByteBuffer.wrap(payload));
+            records.accept(record);
+            lastSeq = record.getSeq();
+            position += HEADER_BYTES + length;
+        }
+        // Zero out a torn tail so it is not mistaken for data after new appends
+        for (int i = position; i < view.capacity() && i < position + HEADER_BYTES; i++) {
+            view.put(i, (byte) 0);
+        }
+        writePosition = position;
+        buffer.force();
+        forcedPosition = position;
+    }
+}
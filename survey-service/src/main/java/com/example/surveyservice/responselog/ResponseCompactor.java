@@ -0,0 +1,75 @@
+package com.example.surveyservice.responselog;
+
+import com.example.surveyservice.config.ResponseLogProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+// Copies durable log records into survey_responses in multi-row batches, oldest first, one transaction per batch.
+// Inserts skip rows already present, so replaying a segment after a crash cannot duplicate responses.
+@Slf4j
+@Component
+public class ResponseCompactor {
+    
+    private static final String INSERT_SQL = "INSERT INTO survey_responses " +
+            "(survey_id, respondent_id, answers, submitted_at, log_node, log_seq) VALUES (?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (log_node, log_seq) DO NOTHING";
+    
+    private final ResponseLog responseLog;
+    private final ResponseLogProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    public ResponseCompactor(ResponseLog responseLog,
+                             ResponseLogProperties properties,
+                             JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager) {
+        this.responseLog = responseLog;
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Scheduled(fixedDelayString = "${survey.responses.compaction-interval:PT1S}")
+    public void compact() {
+        long compacted = 0;
+        List<LogRecord> batch;
+        while (!(batch = responseLog.nextForCompaction(properties.getCompactionBatchSize())).isEmpty()) {
+            try {
+                write(batch);
+            } catch (RuntimeException e) {
+                log.warn("Response compaction failed, will retry: {}", e.getMessage());
+                return;
+            }
+            responseLog.markCompacted(batch.get(batch.size() - 1).getSeq());
+            compacted += batch.size();
+        }
+        if (compacted > 0) {
+            log.debug("Compacted {} survey responses, {} still in the log tail", compacted, responseLog.getTailSize());
+        }
+    }
+    
+    private void write(List<LogRecord> batch) {
+        String node = responseLog.getNodeId();
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, record) -> {
+                    ps.setLong(1, record.getSurveyId());
+                    if (record.getRespondentId() == null) {
+                        ps.setNull(2, Types.BIGINT);
+                    } else {
+                        ps.setLong(2, record.getRespondentId());
+                    }
+                    ps.setString(3, record.getAnswers());
+                    ps.setTimestamp(4, new Timestamp(record.getSubmittedAtMillis()));
+                    ps.setString(5, node);
+                    ps.setLong(6, record.getSeq());
+                }));
+    }
+}
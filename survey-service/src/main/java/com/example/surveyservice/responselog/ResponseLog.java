@@ -0,0 +1,372 @@
+package com.example.surveyservice.responselog;
+
+import com.example.surveyservice.config.ResponseLogProperties;
+import com.example.surveyservice.repository.SurveyResponseRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Segmented append-only log of survey responses on local disk. Appends are copied into a memory-mapped segment
+ * and wait for a background fsync. The fsync thread runs one force at a time, and everything appended while a
+ * force is in progress is covered by the next one (group commit), so under load one fsync pays for many
+ * responses.
+ *
+ * Records stay in an in-memory tail until ResponseCompactor has copied them to Postgres; a segment file is
+ * deleted once all of its records are compacted. On startup the remaining segments are replayed: records the
+ * database already has are skipped, the rest go back into the tail. The tail is bounded: once its answers pass
+ * maxTailChars, new responses are refused until compaction catches up.
+ */
+@Slf4j
+@Component
+public class ResponseLog {
+    
+    private static final String NODE_ID_FILE = "node-id";
+    private static final String LEGACY_NODE_ID = "local";
+    // Width of survey_responses.log_node
+    private static final int MAX_NODE_ID_LENGTH = 64;
+    
+    private final ResponseLogProperties properties;
+    private final SurveyResponseRepository responseRepository;
+    // Short critical sections only; waiting is done on the Conditions below, since a virtual thread parked in
+    // Object.wait keeps its carrier thread
+    private final Object appendLock = new Object();
+    private final ReentrantLock durableLock = new ReentrantLock();
+    private final Condition durableAdvanced = durableLock.newCondition();
+    private final ReentrantLock fsyncLock = new ReentrantLock();
+    private final Condition fsyncWanted = fsyncLock.newCondition();
+    // Set while the fsync thread is parked, so appenders only take fsyncLock when there is someone to wake
+    private volatile boolean fsyncIdle;
+    
+    // Guarded by appendLock
+    private final Deque<LogSegment> segments = new ArrayDeque<>();
+    private LogSegment active;
+    private long nextSeq;
+    
+    // Highest seq known to be on disk; guarded by durableLock for waiting
+    private volatile long durableSeq;
+    
+    // Records not yet compacted, by seq and by survey
+    private final ConcurrentSkipListMap<Long, LogRecord> tail = new ConcurrentSkipListMap<>();
+    private final Map<Long, ConcurrentSkipListMap<Long, LogRecord>> tailBySurvey = new ConcurrentHashMap<>();
+    private final AtomicLong tailChars = new AtomicLong();
+    
+    private Path dir;
+    private String nodeId;
+    private volatile boolean running = true;
+    private Thread fsyncThread;
+    
+    public ResponseLog(ResponseLogProperties properties, SurveyResponseRepository responseRepository) {
+        this.properties = properties;
+        this.responseRepository = responseRepository;
+    }
+    
+    @PostConstruct
+    public void open() throws IOException {
+        dir = Paths.get(properties.getLogDir());
+        Files.createDirectories(dir);
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(".seg"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+        nodeId = resolveNodeId(!files.isEmpty());
+        long compactedSeq = responseRepository.findMaxLogSeq(nodeId).orElse(0L);
+        long lastSeq = compactedSeq;
+        int replayed = 0;
+        
+        for (Path file : files) {
+            List<LogRecord> recovered = new ArrayList<>();
+            LogSegment segment = LogSegment.recover(file, recovered::add);
+            for (LogRecord record : recovered) {
+                if (record.getSeq() > compactedSeq) {
+                    addToTail(record);
+                    replayed++;
+                }
+            }
+            lastSeq = Math.max(lastSeq, segment.getLastSeq());
+            segments.addLast(segment);
+        }
+        
+        nextSeq = lastSeq + 1;
+        durableSeq = lastSeq;
+        active = segments.isEmpty() ? null : segments.peekLast();
+        if (active == null) {
+            active = LogSegment.create(dir, nextSeq, properties.getSegmentBytes());
+            segments.addLast(active);
+        }
+        deleteCompactedSegments(compactedSeq);
+        log.info("Response log {} opened in {}: {} segments, {} records replayed for compaction, next seq {}",
+                nodeId, dir, segments.size(), replayed, nextSeq);
+        
+        fsyncThread = new Thread(this::runFsync, "response-log-fsync");
+        fsyncThread.setDaemon(true);
+        fsyncThread.start();
+    }
+    
+    // Refuse new responses while the uncompacted tail is over its limit, typically because Postgres is down or slow.
+    // Checked before the response is counted; appends already past the check may overshoot the limit slightly
+    public void ensureCapacity() {
+        if (tailChars.get() >= properties.getMaxTailChars()) {
+            throw new IllegalStateException("Response log is " + tail.size() + " records behind compaction");
+        }
+    }
+    
+    // Append a response and wait until it is on disk; returns its seq
+    public LogRecord append(Long surveyId, Long respondentId, String answers) {
+        LogRecord record = write(surveyId, respondentId, answers);
+        awaitDurable(record.getSeq());
+        return record;
+    }
+    
+    // Add a response to the log without waiting for the fsync. If this throws, nothing was written; once it returns,
+    // the record is copied to the database even if waiting for it to reach disk fails
+    public LogRecord write(Long surveyId, Long respondentId, String answers) {
+        LogRecord record;
+        synchronized (appendLock) {
+            if (!running) {
+                throw new IllegalStateException("Response log is closed");
+            }
+            record = new LogRecord(nextSeq, surveyId, respondentId, System.currentTimeMillis(), answers);
+            byte[] payload = record.encode();
+            if (payload.length > LogSegment.maxPayloadBytes(properties.getSegmentBytes())) {
+                throw new IllegalArgumentException("Response too large for a log segment");
+            }
+            if (!active.tryAppend(record.getSeq(), payload)) {
+                roll();
+                active.tryAppend(record.getSeq(), payload);
+            }
+            nextSeq++;
+            addToTail(record);
+        }
+        if (fsyncIdle) {
+            fsyncLock.lock();
+            try {
+                fsyncWanted.signal();
+            } finally {
+                fsyncLock.unlock();
+            }
+        }
+        return record;
+    }
+    
+    // Uncompacted records of one survey, newest first
+    public Collection<LogRecord> getTail(Long surveyId) {
+        ConcurrentSkipListMap<Long, LogRecord> records = tailBySurvey.get(surveyId);
+        return records == null ? Collections.emptyList() : new ArrayList<>(records.descendingMap().values());
+    }
+    
+    // The oldest durable records still waiting for compaction, in seq order
+    public List<LogRecord> nextForCompaction(int limit) {
+        List<LogRecord> batch = new ArrayList<>(Math.min(limit, 1024));
+        for (LogRecord record : tail.headMap(durableSeq, true).values()) {
+            if (batch.size() >= limit) {
+                break;
+            }
+            batch.add(record);
+        }
+        return batch;
+    }
+    
+    // Records up to seq are in Postgres: drop them from the tail and delete segments that hold nothing else
+    public void markCompacted(long seq) {
+        NavigableMap<Long, LogRecord> done = tail.headMap(seq, true);
+        long chars = 0;
+        for (LogRecord record : done.values()) {
+            chars += record.getAnswers().length();
+            ConcurrentSkipListMap<Long, LogRecord> bySurvey = tailBySurvey.get(record.getSurveyId());
+            if (bySurvey != null) {
+                bySurvey.remove(record.getSeq());
+                if (bySurvey.isEmpty()) {
+                    tailBySurvey.remove(record.getSurveyId(), bySurvey);
+                }
+            }
+        }
+        done.clear();
+        tailChars.addAndGet(-chars);
+        synchronized (appendLock) {
+            deleteCompactedSegments(seq);
+        }
+    }
+    
+    public int getTailSize() {
+        return tail.size();
+    }
+    
+    public String getNodeId() {
+        return nodeId;
+    }
+    
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        if (fsyncThread != null) {
+            fsyncThread.interrupt();
+            fsyncThread.join(5000);
+        }
+        synchronized (appendLock) {
+            active.force();
+        }
+    }
+    
+    private long lastAppendedSeq() {
+        synchronized (appendLock) {
+            return nextSeq - 1;
+        }
+    }
+    
+    // A configured ID wins. Otherwise the ID generated on first start is read back from the log directory, so it
+    // stays with the segments it names. Segments written before IDs were generated used "local", which is kept so
+    // that they are not copied a second time under a new ID
+    private String resolveNodeId(boolean hasSegments) throws IOException {
+        String configured = properties.getNodeId();
+        if (configured != null && !configured.isBlank()) {
+            return checkNodeId(configured.trim());
+        }
+        Path file = dir.resolve(NODE_ID_FILE);
+        if (Files.exists(file)) {
+            return checkNodeId(Files.readString(file, StandardCharsets.UTF_8).trim());
+        }
+        String generated;
+        if (hasSegments) {
+            generated = LEGACY_NODE_ID;
+            log.warn("Response log in {} predates generated node IDs; keeping \"{}\", which must not be shared " +
+                    "with another replica", dir, generated);
+        } else {
+            String host = InetAddress.getLocalHost().getHostName();
+            generated = host.substring(0, Math.min(host.length(), MAX_NODE_ID_LENGTH - 37)) + "-" + UUID.randomUUID();
+        }
+        Files.writeString(file, generated, StandardCharsets.UTF_8);
+        return generated;
+    }
+    
+    private static String checkNodeId(String nodeId) {
+        if (nodeId.isEmpty() || nodeId.length() > MAX_NODE_ID_LENGTH) {
+            throw new IllegalStateException("Response log node ID must be 1 to " + MAX_NODE_ID_LENGTH +
+                    " characters: \"" + nodeId + "\"");
+        }
+        return nodeId;
+    }
+    
+    private void addToTail(LogRecord record) {
+        tailChars.addAndGet(record.getAnswers().length());
+        tail.put(record.getSeq(), record);
+        tailBySurvey.computeIfAbsent(record.getSurveyId(), id -> new ConcurrentSkipListMap<>())
+                .put(record.getSeq(), record);
+    }
+    
+    // Seal the full segment (forced, so everything in it is durable) and start a new one; caller holds appendLock
+    private void roll() {
+        active.force();
+        try {
+            active = LogSegment.create(dir, nextSeq, properties.getSegmentBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create response log segment", e);
+        }
+        segments.addLast(active);
+    }
+    
+    // Caller holds appendLock; the active segment is never deleted
+    private void deleteCompactedSegments(long compactedSeq) {
+        while (segments.size() > 1 && segments.peekFirst().getLastSeq() <= compactedSeq) {
+            LogSegment sealed = segments.pollFirst();
+            try {
+                Files.deleteIfExists(sealed.getPath());
+            } catch (IOException e) {
+                log.warn("Could not delete compacted segment {}: {}", sealed.getPath(), e.getMessage());
+            }
+        }
+    }
+    
+    // Wait until the record with this seq is on disk
+    public void awaitDurable(long seq) {
+        // Often already covered by an fsync that ran while this thread was appending
+        if (durableSeq >= seq) {
+            return;
+        }
+        durableLock.lock();
+        try {
+            while (durableSeq < seq) {
+                if (!running) {
+                    throw new IllegalStateException("Response log is closed");
+                }
+                try {
+                    durableAdvanced.await(properties.getFsyncInterval().toMillis() + 1, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted waiting for fsync", e);
+                }
+            }
+        } finally {
+            durableLock.unlock();
+        }
+    }
+    
+    // Force whenever there are undurable appends; the interval only bounds how long a missed signal can delay it
+    private void runFsync() {
+        long intervalMillis = Math.max(1, properties.getFsyncInterval().toMillis());
+        while (running) {
+            fsyncLock.lock();
+            try {
+                // Idle is published before the re-check, so an append either shows up in it or sees the flag
+                fsyncIdle = true;
+                if (lastAppendedSeq() <= durableSeq) {
+                    fsyncWanted.await(intervalMillis, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                break;
+            } finally {
+                fsyncIdle = false;
+                fsyncLock.unlock();
+            }
+            long written;
+            LogSegment segment;
+            int position;
+            synchronized (appendLock) {
+                written = nextSeq - 1;
+                segment = active;
+                position = active.getWritePosition();
+            }
+            if (written <= durableSeq) {
+                continue;
+            }
+            // Outside the append lock so appends carry on during the fsync; a segment sealed meanwhile was
+            // already forced by roll()
+            segment.forceTo(position);
+            durableLock.lock();
+            try {
+                durableSeq = written;
+                durableAdvanced.signalAll();
+            } finally {
+                durableLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,370 @@
+package com.example.surveyservice.schedule;
+
+import com.example.surveyservice.config.SurveyScheduleProperties;
+import com.example.surveyservice.entity.Survey;
+import com.example.surveyservice.event.SurveyChangeMessage;
+import com.example.surveyservice.event.SurveyChangedEvent;
+import com.example.surveyservice.repository.SurveyRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.annotation.TopicPartition;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// Drives survey lifecycles from a timing wheel: DRAFT surveys with a start date become ACTIVE when it passes, and
+// ACTIVE or PAUSED surveys become CLOSED when their end date passes. Also keeps every ACTIVE survey in memory so
+// /active and /available are answered without a query. Edits, and surveys filling up or freeing a place, are announced
+// over Kafka so the other replicas re-read them.
+@Slf4j
+@Component
+public class SurveyLifecycleScheduler implements ConsumerSeekAware {
+    
+    private enum Kind {
+        START, END
+    }
+    
+    private static final class Boundary {
+        final Long surveyId;
+        final Kind kind;
+        final long version;
+        
+        Boundary(Long surveyId, Kind kind, long version) {
+            this.surveyId = surveyId;
+            this.kind = kind;
+            this.version = version;
+        }
+    }
+    
+    private final SurveyRepository surveyRepository;
+    private final SurveyScheduleProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ZoneId zone = ZoneId.systemDefault();
+    
+    // Guarded by this
+    private TimingWheel<Boundary> wheel;
+    // Bumped on every edit so boundaries scheduled for the old version are ignored when they fire
+    private final Map<Long, Long> versions = new HashMap<>();
+    
+    // Detached copies of every ACTIVE survey
+    private final Map<Long, Survey> live = new ConcurrentHashMap<>();
+    // updatedAt of the newest state applied per survey, guarded by this. Edits and fired boundaries read the row
+    // outside the lock, so an older read can arrive after a newer one and must not replace it
+    private final Map<Long, LocalDateTime> applied = new HashMap<>();
+    // Surveys changed while a resync is reading, whose in-memory state may be newer than its snapshot
+    private Set<Long> changedDuringResync;
+    private volatile boolean ready;
+    
+    public SurveyLifecycleScheduler(SurveyRepository surveyRepository,
+                                    SurveyScheduleProperties properties,
+                                    PlatformTransactionManager transactionManager,
+                                    KafkaTemplate<String, Object> kafkaTemplate) {
+        this.surveyRepository = surveyRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.kafkaTemplate = kafkaTemplate;
+    }
+    
+    public boolean isReady() {
+        return ready;
+    }
+    
+    // ACTIVE surveys whose start and end dates enclose now, matching the original query
+    public List<Survey> getActiveSurveys() {
+        LocalDateTime now = LocalDateTime.now();
+        return select(survey -> survey.getStartDate() != null && survey.getEndDate() != null
+                && survey.getStartDate().isBefore(now) && survey.getEndDate().isAfter(now));
+    }
+    
+    // ACTIVE surveys below their maxResponses
+    public List<Survey> getAvailableSurveys() {
+        return select(SurveyLifecycleScheduler::isAvailable);
+    }
+    
+    // Called by the response counter after it writes a survey's new count. Other replicas only learn counts when
+    // they flush their own, so they are told when the survey joins or leaves /available
+    public void responseCountChanged(Long surveyId, int responseCount) {
+        Survey survey = live.get(surveyId);
+        if (survey == null) {
+            return;
+        }
+        boolean wasAvailable = isAvailable(survey);
+        survey.setResponseCount(responseCount);
+        if (isAvailable(survey) != wasAvailable) {
+            announce(surveyId);
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        resync();
+        ready = true;
+    }
+    
+    // Rebuild the wheel and the active set from the database
+    @Scheduled(fixedDelayString = "${survey.schedule.resync-interval:PT5M}",
+               initialDelayString = "${survey.schedule.resync-interval:PT5M}")
+    public void resync() {
+        synchronized (this) {
+            changedDuringResync = new HashSet<>();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime until = now.plus(properties.getHorizon());
+        List<Survey> active = surveyRepository.findByStatus(Survey.SurveyStatus.ACTIVE);
+        List<Survey> starting = surveyRepository.findStartingBy(Survey.SurveyStatus.DRAFT, until);
+        List<Survey> ending = surveyRepository.findEndingBy(
+                List.of(Survey.SurveyStatus.ACTIVE, Survey.SurveyStatus.PAUSED), until);
+        
+        List<Boundary> due = new ArrayList<>();
+        Set<Long> changed;
+        synchronized (this) {
+            changed = changedDuringResync;
+            changedDuringResync = null;
+            wheel = new TimingWheel<>(properties.getTick().toMillis(), properties.getWheelSize(),
+                    System.currentTimeMillis());
+            versions.clear();
+            // Surveys edited meanwhile keep their in-memory state and are re-read below
+            live.keySet().retainAll(changed);
+            applied.keySet().retainAll(changed);
+            for (Survey survey : active) {
+                if (!changed.contains(survey.getId())) {
+                    live.put(survey.getId(), copy(survey));
+                    applied.put(survey.getId(), survey.getUpdatedAt());
+                }
+            }
+            for (Survey survey : starting) {
+                if (!changed.contains(survey.getId())) {
+                    schedule(survey.getId(), Kind.START, survey.getStartDate(), due);
+                }
+            }
+            for (Survey survey : ending) {
+                if (!changed.contains(survey.getId())) {
+                    schedule(survey.getId(), Kind.END, survey.getEndDate(), due);
+                }
+            }
+        }
+        // Their boundaries went with the old wheel; a fresh read schedules them in the new one
+        if (!changed.isEmpty()) {
+            List<Survey> reread = surveyRepository.findAllById(changed);
+            synchronized (this) {
+                for (Survey survey : reread) {
+                    track(survey, due);
+                }
+            }
+        }
+        fire(due);
+        log.info("Survey schedule loaded: {} active, {} starting and {} ending within {}",
+                active.size(), starting.size(), ending.size(), properties.getHorizon());
+    }
+    
+    @Scheduled(fixedDelayString = "${survey.schedule.tick:PT1S}")
+    public void tick() {
+        if (!ready) {
+            return;
+        }
+        List<Boundary> due = new ArrayList<>();
+        synchronized (this) {
+            wheel.advanceTo(System.currentTimeMillis(), due::add);
+        }
+        fire(due);
+    }
+    
+    // Reschedule after any committed edit: old boundaries are orphaned by the version bump. The other replicas are
+    // told to do the same
+    @TransactionalEventListener
+    public void onSurveyChanged(SurveyChangedEvent event) {
+        Survey survey = event.getSurvey();
+        announce(survey.getId());
+        if (!ready) {
+            return;
+        }
+        List<Boundary> due = new ArrayList<>();
+        synchronized (this) {
+            if (event.getType() == SurveyChangedEvent.ChangeType.DELETED) {
+                forget(survey.getId());
+            } else {
+                track(survey, due);
+            }
+        }
+        fire(due);
+    }
+    
+    // Every replica must see every change, so the (single) partition is assigned directly instead of shared through
+    // a consumer group. The survey is read again rather than sent, so a message that arrives late or twice applies
+    // whatever state is current
+    @KafkaListener(topicPartitions = @TopicPartition(
+                           topic = "${survey.schedule.change-topic:survey-changes}", partitions = "0"),
+                   groupId = "survey-changes")
+    public void onRemoteChange(SurveyChangeMessage message) {
+        if (!ready || instanceId.equals(message.getSourceInstance())) {
+            return;
+        }
+        Optional<Survey> survey = surveyRepository.findById(message.getSurveyId());
+        List<Boundary> due = new ArrayList<>();
+        synchronized (this) {
+            if (survey.isPresent()) {
+                track(survey.get(), due);
+            } else {
+                forget(message.getSurveyId());
+            }
+        }
+        fire(due);
+    }
+    
+    // Changes from before this replica started are in the state its startup resync read
+    @Override
+    public void onPartitionsAssigned(Map<org.apache.kafka.common.TopicPartition, Long> assignments,
+                                     ConsumerSeekCallback callback) {
+        callback.seekToEnd(assignments.keySet());
+    }
+    
+    private void announce(Long surveyId) {
+        try {
+            kafkaTemplate.send(properties.getChangeTopic(), String.valueOf(surveyId),
+                    new SurveyChangeMessage(surveyId, instanceId));
+        } catch (RuntimeException e) {
+            log.warn("Failed to announce change of survey {}: {}", surveyId, e.getMessage());
+        }
+    }
+    
+    private static boolean isAvailable(Survey survey) {
+        return survey.getMaxResponses() != null && survey.getResponseCount() != null
+                && survey.getResponseCount() < survey.getMaxResponses();
+    }
+    
+    // Drop a deleted survey; caller holds the lock. Nothing read before the delete may bring it back
+    private void forget(Long surveyId) {
+        live.remove(surveyId);
+        versions.remove(surveyId);
+        applied.put(surveyId, LocalDateTime.MAX);
+        noteResyncChange(surveyId);
+    }
+    
+    private List<Survey> select(Predicate<Survey> filter) {
+        return live.values().stream()
+                .filter(filter)
+                .sorted(Comparator.comparing(Survey::getId))
+                .collect(Collectors.toList());
+    }
+    
+    // Refresh the in-memory state of one survey and schedule its next boundary, unless a newer state was already
+    // applied; caller holds the lock. The version bump orphans boundaries scheduled for the replaced state
+    private void track(Survey survey, List<Boundary> due) {
+        LocalDateTime newest = applied.get(survey.getId());
+        if (newest != null && survey.getUpdatedAt() != null && newest.isAfter(survey.getUpdatedAt())) {
+            return;
+        }
+        applied.put(survey.getId(), survey.getUpdatedAt());
+        versions.merge(survey.getId(), 1L, Long::sum);
+        noteResyncChange(survey.getId());
+        if (survey.getStatus() == Survey.SurveyStatus.ACTIVE) {
+            live.put(survey.getId(), copy(survey));
+        } else {
+            live.remove(survey.getId());
+        }
+        LocalDateTime until = LocalDateTime.now().plus(properties.getHorizon());
+        if (survey.getStatus() == Survey.SurveyStatus.DRAFT && survey.getStartDate() != null
+                && !survey.getStartDate().isAfter(until)) {
+            schedule(survey.getId(), Kind.START, survey.getStartDate(), due);
+        }
+        if ((survey.getStatus() == Survey.SurveyStatus.ACTIVE || survey.getStatus() == Survey.SurveyStatus.PAUSED)
+                && survey.getEndDate() != null && !survey.getEndDate().isAfter(until)) {
+            schedule(survey.getId(), Kind.END, survey.getEndDate(), due);
+        }
+    }
+    
+    private void noteResyncChange(Long surveyId) {
+        if (changedDuringResync != null) {
+            changedDuringResync.add(surveyId);
+        }
+    }
+    
+    private void schedule(Long surveyId, Kind kind, LocalDateTime at, List<Boundary> due) {
+        Boundary boundary = new Boundary(surveyId, kind, versions.getOrDefault(surveyId, 0L));
+        if (!wheel.add(at.atZone(zone).toInstant().toEpochMilli(), boundary)) {
+            due.add(boundary);
+        }
+    }
+    
+    // Apply fired boundaries as batched conditional updates, then refresh those surveys in memory
+    private void fire(List<Boundary> due) {
+        List<Long> starting = new ArrayList<>();
+        List<Long> ending = new ArrayList<>();
+        synchronized (this) {
+            for (Boundary boundary : due) {
+                if (boundary.version != versions.getOrDefault(boundary.surveyId, 0L)) {
+                    continue;
+                }
+                (boundary.kind == Kind.START ? starting : ending).add(boundary.surveyId);
+            }
+        }
+        if (starting.isEmpty() && ending.isEmpty()) {
+            return;
+        }
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Survey> changed = transactionTemplate.execute(status -> {
+            int activated = 0;
+            int closed = 0;
+            for (List<Long> chunk : chunks(starting)) {
+                activated += surveyRepository.activateStarted(chunk, now);
+            }
+            for (List<Long> chunk : chunks(ending)) {
+                closed += surveyRepository.closeEnded(chunk, now);
+            }
+            log.info("Survey boundaries fired: {} activated, {} closed", activated, closed);
+            List<Long> ids = new ArrayList<>(starting);
+            ids.addAll(ending);
+            return surveyRepository.findAllById(ids);
+        });
+        
+        // Activated surveys now need their END boundary
+        List<Boundary> next = new ArrayList<>();
+        synchronized (this) {
+            for (Survey survey : changed) {
+                track(survey, next);
+            }
+        }
+        if (!next.isEmpty()) {
+            fire(next);
+        }
+    }
+    
+    private List<List<Long>> chunks(List<Long> ids) {
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += properties.getBatchSize()) {
+            chunks.add(ids.subList(from, Math.min(from + properties.getBatchSize(), ids.size())));
+        }
+        return chunks;
+    }
+    
+    private static Survey copy(Survey survey) {
+        return new Survey(survey.getId(), survey.getTitle(), survey.getDescription(), survey.getCreatorId(),
+                survey.getCreatorName(), survey.getStatus(), survey.getBookId(), survey.getStartDate(),
+                survey.getEndDate(), survey.getMaxResponses(), survey.getResponseCount(), survey.getCreatedAt(),
+                survey.getUpdatedAt());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.surveyservice.schedule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel. Each level is a ring of wheelSize buckets, each covering tickMillis; deadlines past
+ * the ring go to an overflow level whose tick is this level's whole span, created on demand. As the clock
+ * advances, overflow buckets are re-inserted into the finer levels, so adding and expiring are O(1) however far
+ * away the deadline is.
+ *
+ * Deadlines are rounded up to the tick: an item never expires before its deadline and at most one tick after.
+ * Not thread-safe; callers synchronize.
+ */
+public final class TimingWheel<T> {
+    
+    private static final class Entry<T> {
+        final long expiration;
+        final T item;
+        
+        Entry(long expiration, T item) {
+            this.expiration = expiration;
+            this.item = item;
+        }
+    }
+    
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long intervalMillis;
+    private final List<List<Entry<T>>> buckets;
+    // Start of the current tick; everything before it has been expired or cascaded
+    private long currentTime;
+    private TimingWheel<T> overflow;
+    
+    public TimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("tickMillis must be positive and wheelSize at least 2");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.intervalMillis = tickMillis * wheelSize;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.currentTime = startMillis - Math.floorMod(startMillis, tickMillis);
+    }
+    
+    // Schedule an item; false if the deadline falls in the current tick, i.e. the caller should run it now
+    public boolean add(long deadlineMillis, T item) {
+        long expiration = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis) * tickMillis;
+        return add(new Entry<>(expiration, item));
+    }
+    
+    // Move the clock to now, handing every item whose deadline has passed to expired, in deadline order per tick
+    public void advanceTo(long nowMillis, Consumer<T> expired) {
+        while (currentTime + tickMillis <= nowMillis) {
+            currentTime += tickMillis;
+            if (overflow != null) {
+                overflow.cascade(currentTime, this, expired);
+            }
+            for (Entry<T> entry : drain(currentTime)) {
+                expired.accept(entry.item);
+            }
+        }
+    }
+    
+    private boolean add(Entry<T> entry) {
+        if (entry.expiration < currentTime + tickMillis) {
+            return false;
+        }
+        if (entry.expiration < currentTime + intervalMillis) {
+            buckets.get(index(entry.expiration)).add(entry);
+            return true;
+        }
+        if (overflow == null) {
+            overflow = new TimingWheel<>(intervalMillis, wheelSize, currentTime);
+        }
+        return overflow.add(entry);
+    }
+    
+    // Overflow levels: when the finest level reaches one of our buckets, push its entries back down
+    private void cascade(long time, TimingWheel<T> root, Consumer<T> expired) {
+        while (currentTime + tickMillis <= time) {
+            currentTime += tickMillis;
+            if (overflow != null) {
+                overflow.cascade(currentTime, root, expired);
+            }
+            for (Entry<T> entry : drain(currentTime)) {
+                if (!root.add(entry)) {
+                    expired.accept(entry.item);
+                }
+            }
+        }
+    }
+    
+    private List<Entry<T>> drain(long slotStart) {
+        int index = index(slotStart);
+        List<Entry<T>> bucket = buckets.get(index);
+        if (bucket.isEmpty()) {
+            return bucket;
+        }
+        buckets.set(index, new ArrayList<>());
+        return bucket;
+    }
+    
+    private int index(long time) {
+        return (int) Math.floorMod(Math.floorDiv(time, tickMillis), (long) wheelSize);
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.surveyservice.service;
+
+import com.example.common.pagination.PageLimits;
+import com.example.surveyservice.config.ResponseLogProperties;
+import com.example.surveyservice.counter.ResponseCounter;
+import com.example.surveyservice.dto.SurveyResponseRequest;
+import com.example.surveyservice.entity.SurveyResponse;
+import com.example.surveyservice.repository.SurveyResponseRepository;
+import com.example.surveyservice.responselog.LogRecord;
+import com.example.surveyservice.responselog.ResponseLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Response capture: writes go to the local response log, reads merge its uncompacted tail with Postgres
+@Service
+@RequiredArgsConstructor
+public class SurveyResponseService {
+    
+    private final ResponseLog responseLog;
+    private final ResponseCounter responseCounter;
+    private final SurveyResponseRepository responseRepository;
+    private final ResponseLogProperties properties;
+    
+    // Record a response; counts it against maxResponses first, so a full survey throws SurveyFullException. A log
+    // too far behind compaction refuses it before it is counted
+    public SurveyResponse submitResponse(Long surveyId, SurveyResponseRequest request) {
+        if (request.getAnswers() == null) {
+            throw new IllegalArgumentException("answers are required");
+        }
+        String answers = request.getAnswers().toString();
+        if (answers.getBytes(StandardCharsets.UTF_8).length > properties.getMaxAnswerBytes()) {
+            throw new IllegalArgumentException("answers exceed " + properties.getMaxAnswerBytes() + " bytes");
+        }
+        responseLog.ensureCapacity();
+        responseCounter.record(surveyId);
+        LogRecord record;
+        try {
+            record = responseLog.write(surveyId, request.getRespondentId(), answers);
+        } catch (RuntimeException e) {
+            // Nothing was stored, so the response must not stay counted
+            responseCounter.release(surveyId);
+            throw e;
+        }
+        // Past this point the response is in the log and will be stored; only the fsync wait can still fail
+        responseLog.awaitDurable(record.getSeq());
+        return toResponse(record);
+    }
+    
+    // Latest responses of a survey, newest first. The tail is read before the database: a record compacted in
+    // between is then in one or both, never in neither.
+    public List<SurveyResponse> getRecentResponses(Long surveyId, Integer size) {
+        int limit = PageLimits.resolve(size);
+        List<SurveyResponse> merged = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (LogRecord record : responseLog.getTail(surveyId)) {
+            if (merged.size() >= limit) {
+                break;
+            }
+            merged.add(toResponse(record));
+            seen.add(record.getSeq());
+        }
+        String node = responseLog.getNodeId();
+        for (SurveyResponse stored : responseRepository.findBySurveyIdOrderBySubmittedAtDescIdDesc(
+                surveyId, PageRequest.ofSize(limit))) {
+            if (!(node.equals(stored.getLogNode()) && seen.contains(stored.getLogSeq()))) {
+                merged.add(stored);
+            }
+        }
+        merged.sort(Comparator.comparing(SurveyResponse::getSubmittedAt).reversed());
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+    
+    private SurveyResponse toResponse(LogRecord record) {
+        LocalDateTime submittedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(record.getSubmittedAtMillis()),
+                ZoneId.systemDefault());
+        return new SurveyResponse(null, record.getSurveyId(), record.getRespondentId(), record.getAnswers(),
+                submittedAt, responseLog.getNodeId(), record.getSeq());
+    }
+}
@@ -1,9 +1,19 @@
 package com.example.surveyservice.service;
 
+import com.example.common.pagination.Cursor;
+import com.example.common.pagination.CursorCodec;
+import com.example.common.pagination.CursorPage;
+import com.example.common.pagination.PageLimits;
+import com.example.surveyservice.counter.ResponseCounter;
 import com.example.surveyservice.entity.Survey;
+import com.example.surveyservice.event.SurveyChangedEvent;
 import com.example.surveyservice.repository.SurveyRepository;
+import com.example.surveyservice.schedule.SurveyLifecycleScheduler;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
@@ -16,16 +26,27 @@ import java.util.Optional;
 public class SurveyService {
     
     private final SurveyRepository surveyRepository;
+    private final ResponseCounter responseCounter;
+    private final SurveyLifecycleScheduler lifecycleScheduler;
+    private final ApplicationEventPublisher eventPublisher;
     
     // Create a new survey
     public Survey createSurvey(Survey survey) {
-        return surveyRepository.save(survey);
+        Survey savedSurvey = surveyRepository.save(survey);
+        eventPublisher.publishEvent(new SurveyChangedEvent(SurveyChangedEvent.ChangeType.CREATED, savedSurvey));
+        return savedSurvey;
     }
     
-    // Get all surveys
+    // Get a page of surveys ordered by ID
     @Transactional(readOnly = true)
-    public List<Survey> getAllSurveys() {
-        return surveyRepository.findAll();
+    public CursorPage<Survey> getSurveysPage(String cursor, Integer size) {
+        int limit = PageLimits.resolve(size);
+        Cursor after = CursorCodec.decode(cursor);
+        PageRequest probe = PageRequest.ofSize(PageLimits.probeSize(limit));
+        List<Survey> rows = after == null
+                ? surveyRepository.findAllByOrderByIdAsc(probe)
+                : surveyRepository.findByIdGreaterThanOrderByIdAsc(after.getId(), probe);
+        return CursorPage.of(rows, limit, survey -> Cursor.of(survey.getId()));
     }
     
     // Get survey by ID
@@ -48,7 +69,10 @@ public class SurveyService {
         survey.setMaxResponses(surveyDetails.getMaxResponses());
         survey.setCreatorName(surveyDetails.getCreatorName());
         
-        return surveyRepository.save(survey);
+        Survey savedSurvey = surveyRepository.save(survey);
+        responseCounter.surveyUpdated(savedSurvey);
+        eventPublisher.publishEvent(new SurveyChangedEvent(SurveyChangedEvent.ChangeType.UPDATED, savedSurvey));
+        return savedSurvey;
     }
     
     // Delete survey
@@ -56,6 +80,8 @@ public class SurveyService {
         Survey survey = surveyRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Survey not found with id: " + id));
         surveyRepository.delete(survey);
+        responseCounter.surveyDeleted(id);
+        eventPublisher.publishEvent(new SurveyChangedEvent(SurveyChangedEvent.ChangeType.DELETED, survey));
     }
     
     // Get surveys by creator ID
@@ -82,27 +108,37 @@ public class SurveyService {
         return surveyRepository.findByTitleContainingIgnoreCase(title);
     }
     
-    // Get active surveys
-    @Transactional(readOnly = true)
+    // Get active surveys, from memory once the lifecycle scheduler has loaded
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Survey> getActiveSurveys() {
+        if (lifecycleScheduler.isReady()) {
+            return lifecycleScheduler.getActiveSurveys();
+        }
         LocalDateTime now = LocalDateTime.now();
         return surveyRepository.findByStatusAndStartDateBeforeAndEndDateAfter(
                 Survey.SurveyStatus.ACTIVE, now, now);
     }
     
-    // Get available surveys (not at max capacity)
-    @Transactional(readOnly = true)
+    // Get available surveys (not at max capacity), from memory once the lifecycle scheduler has loaded
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<Survey> getAvailableSurveys() {
+        if (lifecycleScheduler.isReady()) {
+            return lifecycleScheduler.getAvailableSurveys();
+        }
         return surveyRepository.findAvailableSurveys(Survey.SurveyStatus.ACTIVE);
     }
     
-    // Increment response count
+    // Count a response; throws SurveyFullException once maxResponses is reached. Runs outside a transaction
+    // because responses to capped surveys wait for the counter's next flush.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public Survey incrementResponseCount(Long surveyId) {
+        responseCounter.record(surveyId);
         Survey survey = surveyRepository.findById(surveyId)
                 .orElseThrow(() -> new RuntimeException("Survey not found with id: " + surveyId));
-        
-        survey.setResponseCount(survey.getResponseCount() + 1);
-        return surveyRepository.save(survey);
+        // Detached copy, so including responses still buffered for an uncapped survey changes nothing stored
+        int stored = survey.getResponseCount() == null ? 0 : survey.getResponseCount();
+        survey.setResponseCount(stored + (int) responseCounter.getPending(surveyId));
+        return survey;
     }
     
     // Update survey status
@@ -111,6 +147,8 @@ public class SurveyService {
                 .orElseThrow(() -> new RuntimeException("Survey not found with id: " + id));
         
         survey.setStatus(status);
-        return surveyRepository.save(survey);
+        Survey savedSurvey = surveyRepository.save(survey);
+        eventPublisher.publishEvent(new SurveyChangedEvent(SurveyChangedEvent.ChangeType.UPDATED, savedSurvey));
+        return savedSurvey;
     }
 }
\ No newline at end of file
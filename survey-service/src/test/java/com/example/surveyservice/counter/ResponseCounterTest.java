@@ -0,0 +1,279 @@
+package com.example.surveyservice.counter;
+
+import com.example.surveyservice.config.SurveyCounterProperties;
+import com.example.surveyservice.entity.Survey;
+import com.example.surveyservice.repository.SurveyRepository;
+import com.example.surveyservice.schedule.SurveyLifecycleScheduler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Thousands of parallel responses against a flusher running flat out: totals must come out exact, the cap must
+// hold even when set through another replica, and a caller told its response was not confirmed must never have
+// been counted
+class ResponseCounterTest {
+    
+    private static final Long UNCAPPED = 1L;
+    private static final Long CAPPED = 2L;
+    
+    private final FakeSurveysTable table = new FakeSurveysTable();
+    private final SurveyCounterProperties properties = new SurveyCounterProperties();
+    private final AtomicBoolean flushing = new AtomicBoolean(true);
+    private final SurveyRepository surveyRepository = mock(SurveyRepository.class);
+    private ResponseCounter counter;
+    private ExecutorService callers;
+    private Thread flusher;
+    
+    @BeforeEach
+    void setUp() {
+        when(surveyRepository.findById(anyLong())).thenAnswer(invocation -> {
+            Survey survey = new Survey();
+            survey.setId(invocation.getArgument(0));
+            survey.setMaxResponses(table.maxResponses.get(survey.getId()));
+            return Optional.of(survey);
+        });
+        counter = new ResponseCounter(surveyRepository, table, properties, mock(SurveyLifecycleScheduler.class));
+        callers = Executors.newFixedThreadPool(64);
+        flusher = new Thread(() -> {
+            while (flushing.get()) {
+                counter.flush();
+            }
+        });
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        flushing.set(false);
+        flusher.join();
+        callers.shutdownNow();
+    }
+    
+    @Test
+    void uncappedSurveyCountsEveryResponse() throws Exception {
+        table.create(UNCAPPED, null);
+        flusher.start();
+        
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            calls.add(callers.submit(() -> counter.record(UNCAPPED)));
+        }
+        for (Future<?> call : calls) {
+            call.get(30, TimeUnit.SECONDS);
+        }
+        flushing.set(false);
+        flusher.join();
+        counter.flush();
+        
+        assertThat(table.count(UNCAPPED)).isEqualTo(20_000);
+        assertThat(counter.getPending(UNCAPPED)).isZero();
+    }
+    
+    @Test
+    void cappedSurveyAdmitsExactlyMaxResponses() throws Exception {
+        table.create(CAPPED, 1_000);
+        flusher.start();
+        
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger full = new AtomicInteger();
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            calls.add(callers.submit(() -> {
+                try {
+                    counter.record(CAPPED);
+                    admitted.incrementAndGet();
+                } catch (SurveyFullException e) {
+                    full.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> call : calls) {
+            call.get(30, TimeUnit.SECONDS);
+        }
+        
+        assertThat(admitted.get()).isEqualTo(1_000);
+        assertThat(full.get()).isEqualTo(4_000);
+        assertThat(table.count(CAPPED)).isEqualTo(1_000);
+    }
+    
+    @Test
+    void responsesReportedUnconfirmedAreNeverCounted() throws Exception {
+        // Admission takes longer than callers wait, so timeouts race both queued and in-flight requests
+        properties.setAdmissionTimeout(Duration.ofMillis(1));
+        table.admitDelayMillis = 3;
+        table.create(CAPPED, 1_000_000);
+        flusher.start();
+        
+        AtomicInteger admitted = new AtomicInteger();
+        AtomicInteger unconfirmed = new AtomicInteger();
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            calls.add(callers.submit(() -> {
+                try {
+                    counter.record(CAPPED);
+                    admitted.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    unconfirmed.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> call : calls) {
+            call.get(30, TimeUnit.SECONDS);
+        }
+        flushing.set(false);
+        flusher.join();
+        counter.flush();
+        
+        assertThat(admitted.get() + unconfirmed.get()).isEqualTo(5_000);
+        assertThat(unconfirmed.get()).isPositive();
+        assertThat(table.count(CAPPED)).isEqualTo(admitted.get());
+    }
+    
+    @Test
+    void capSetThroughAnotherReplicaIsEnforcedAtTheNextFlush() {
+        table.create(UNCAPPED, null);
+        for (int i = 0; i < 100; i++) {
+            counter.record(UNCAPPED);
+        }
+        // Another replica caps the survey before this one flushes what it acknowledged
+        table.maxResponses.put(UNCAPPED, 60);
+        counter.flush();
+        
+        assertThat(table.count(UNCAPPED)).isEqualTo(60);
+        flusher.start();
+        assertThatThrownBy(() -> counter.record(UNCAPPED)).isInstanceOf(SurveyFullException.class);
+        assertThat(table.count(UNCAPPED)).isEqualTo(60);
+    }
+    
+    @Test
+    void evictingIdleCountersLosesNoResponses() throws Exception {
+        // Every flush retires every counter, racing the callers that are adding to them
+        properties.setIdleEviction(Duration.ZERO);
+        table.create(UNCAPPED, null);
+        flusher.start();
+        
+        List<Future<?>> calls = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            calls.add(callers.submit(() -> counter.record(UNCAPPED)));
+        }
+        for (Future<?> call : calls) {
+            call.get(30, TimeUnit.SECONDS);
+        }
+        flushing.set(false);
+        flusher.join();
+        counter.flush();
+        
+        assertThat(table.count(UNCAPPED)).isEqualTo(20_000);
+        assertThat(counter.getPending(UNCAPPED)).isZero();
+        // Each counter created after an eviction read the survey again
+        verify(surveyRepository, atLeast(2)).findById(UNCAPPED);
+    }
+    
+    @Test
+    void releasedResponsesAreSubtracted() throws Exception {
+        table.create(UNCAPPED, null);
+        table.create(CAPPED, 10);
+        flusher.start();
+        for (int i = 0; i < 5; i++) {
+            counter.record(UNCAPPED);
+            counter.record(CAPPED);
+        }
+        counter.release(UNCAPPED);
+        counter.release(CAPPED);
+        flushing.set(false);
+        flusher.join();
+        counter.flush();
+        
+        assertThat(table.count(UNCAPPED)).isEqualTo(4);
+        assertThat(table.count(CAPPED)).isEqualTo(4);
+    }
+    
+    // The UPDATEs ResponseCounter issues, applied atomically to an in-memory surveys table
+    private static final class FakeSurveysTable extends NamedParameterJdbcTemplate {
+        
+        final Map<Long, Integer> maxResponses = new ConcurrentHashMap<>();
+        private final Map<Long, Integer> responseCounts = new ConcurrentHashMap<>();
+        volatile long admitDelayMillis;
+        
+        FakeSurveysTable() {
+            super(mock(DataSource.class));
+        }
+        
+        void create(Long id, Integer max) {
+            if (max != null) {
+                maxResponses.put(id, max);
+            }
+            responseCounts.put(id, 0);
+        }
+        
+        synchronized int count(Long id) {
+            return responseCounts.get(id);
+        }
+        
+        // ADMIT_SQL and RELEASE_SQL
+        @Override
+        public List<Map<String, Object>> queryForList(String sql, SqlParameterSource params) {
+            if (params.hasValue("released")) {
+                return release(params);
+            }
+            sleep(admitDelayMillis);
+            synchronized (this) {
+                Long id = (Long) params.getValue("id");
+                int requested = ((Number) params.getValue("requested")).intValue();
+                int before = responseCounts.get(id);
+                Integer max = maxResponses.get(id);
+                int after = max == null ? before + requested : Math.max(before, Math.min(before + requested, max));
+                responseCounts.put(id, after);
+                Map<String, Object> row = new HashMap<>();
+                row.put("granted", after - before);
+                row.put("response_count", after);
+                row.put("max_responses", max);
+                return List.of(row);
+            }
+        }
+        
+        private synchronized List<Map<String, Object>> release(SqlParameterSource params) {
+            Long id = (Long) params.getValue("id");
+            int after = Math.max(0, responseCounts.get(id) - ((Number) params.getValue("released")).intValue());
+            responseCounts.put(id, after);
+            Map<String, Object> row = new HashMap<>();
+            row.put("response_count", after);
+            row.put("max_responses", maxResponses.get(id));
+            return List.of(row);
+        }
+        
+        private static void sleep(long millis) {
+            if (millis > 0) {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
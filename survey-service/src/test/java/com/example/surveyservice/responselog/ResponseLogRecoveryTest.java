@@ -0,0 +1,251 @@
+package com.example.surveyservice.responselog;
+
+import com.example.surveyservice.config.ResponseLogProperties;
+import com.example.surveyservice.repository.SurveyResponseRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// A crash can leave the last record of the active segment half written. Reopening the log must replay every
+// intact record, continue numbering after the last of them, delete segments the database already has, and
+// compacting the replayed records must not store any response twice
+class ResponseLogRecoveryTest {
+    
+    private static final String NODE = "node-a";
+    private static final Long SURVEY = 7L;
+    
+    @TempDir
+    Path dir;
+    
+    private final ResponseLogProperties properties = new ResponseLogProperties();
+    private final SurveyResponseRepository responseRepository = mock(SurveyResponseRepository.class);
+    private final List<ResponseLog> opened = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        properties.setLogDir(dir.toString());
+        properties.setNodeId(NODE);
+        // Four records per segment
+        properties.setSegmentBytes(256);
+        when(responseRepository.findMaxLogSeq(NODE)).thenReturn(Optional.empty());
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        for (ResponseLog log : opened) {
+            log.close();
+        }
+    }
+    
+    @Test
+    void tornPayloadIsDroppedAndIntactRecordsReplayed() throws Exception {
+        ResponseLog log = open();
+        appendAll(log, 6);
+        log.close();
+        
+        // The header made it to disk but the end of the payload did not
+        Frame last = lastFrame();
+        try (FileChannel channel = FileChannel.open(last.file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4), last.offset + 8 + last.length - 4);
+        }
+        
+        ResponseLog reopened = open();
+        assertThat(seqsInTail(reopened)).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertThat(reopened.append(SURVEY, 1L, "{\"q1\":1}").getSeq()).isEqualTo(6);
+        reopened.close();
+        
+        // The record written over the torn one reads back after the next restart
+        assertThat(seqsInTail(open())).containsExactly(6L, 5L, 4L, 3L, 2L, 1L);
+    }
+    
+    @Test
+    void truncatedSegmentIsReplayedUpToTheLastWholeRecord() throws Exception {
+        ResponseLog log = open();
+        appendAll(log, 6);
+        log.close();
+        
+        // The file itself ends partway through the last record
+        Frame last = lastFrame();
+        try (FileChannel channel = FileChannel.open(last.file, StandardOpenOption.WRITE)) {
+            channel.truncate(last.offset + 8 + last.length / 2);
+        }
+        
+        ResponseLog reopened = open();
+        assertThat(seqsInTail(reopened)).containsExactly(5L, 4L, 3L, 2L, 1L);
+        assertThat(reopened.append(SURVEY, 1L, "{\"q1\":1}").getSeq()).isEqualTo(6);
+    }
+    
+    @Test
+    void compactedSegmentsAreDeletedOnReopen() throws Exception {
+        ResponseLog log = open();
+        appendAll(log, 20);
+        log.close();
+        assertThat(segmentFiles()).hasSize(5);
+        
+        when(responseRepository.findMaxLogSeq(NODE)).thenReturn(Optional.of(10L));
+        ResponseLog reopened = open();
+        
+        assertThat(seqsInTail(reopened)).containsExactly(20L, 19L, 18L, 17L, 16L, 15L, 14L, 13L, 12L, 11L);
+        // Seqs 1-8 filled the first two segments; the third still holds 11 and 12
+        assertThat(segmentFiles()).extracting(LogSegment::baseSeqOf).containsExactly(9L, 13L, 17L);
+        assertThat(reopened.append(SURVEY, 1L, "{\"q1\":1}").getSeq()).isEqualTo(21);
+        
+        // Once everything is compacted only the active segment is left
+        reopened.markCompacted(21);
+        assertThat(segmentFiles()).extracting(LogSegment::baseSeqOf).containsExactly(21L);
+    }
+    
+    @Test
+    void replayedRecordsAreNotInsertedTwice() throws Exception {
+        FakeResponsesTable table = new FakeResponsesTable();
+        ResponseLog log = open();
+        appendAll(log, 10);
+        
+        // The batch commits, but the acknowledgement is lost and the process dies before marking it compacted
+        table.loseNextAck = true;
+        new ResponseCompactor(log, properties, table, mock(PlatformTransactionManager.class)).compact();
+        assertThat(log.getTailSize()).isEqualTo(10);
+        log.close();
+        
+        // Worst case for the restart: nothing is known to be compacted, so the whole log is replayed
+        ResponseLog reopened = open();
+        assertThat(reopened.getTailSize()).isEqualTo(10);
+        new ResponseCompactor(reopened, properties, table, mock(PlatformTransactionManager.class)).compact();
+        
+        assertThat(reopened.getTailSize()).isZero();
+        assertThat(table.rows).hasSize(10);
+    }
+    
+    private ResponseLog open() throws IOException {
+        ResponseLog log = new ResponseLog(properties, responseRepository);
+        log.open();
+        opened.add(log);
+        return log;
+    }
+    
+    private static void appendAll(ResponseLog log, int count) {
+        for (int i = 1; i <= count; i++) {
+            log.append(SURVEY, (long) i, "{\"q1\":" + i + "}");
+        }
+    }
+    
+    private static List<Long> seqsInTail(ResponseLog log) {
+        return log.getTail(SURVEY).stream().map(LogRecord::getSeq).collect(Collectors.toList());
+    }
+    
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> listing = Files.list(dir)) {
+            return listing.filter(path -> path.getFileName().toString().endsWith(".seg"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+    
+    // Where the last record of the newest segment starts, following the [length][crc32][payload] framing
+    private Frame lastFrame() throws IOException {
+        List<Path> files = segmentFiles();
+        Path file = files.get(files.size() - 1);
+        ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(file));
+        int offset = 0;
+        int last = -1;
+        while (offset + 8 <= content.capacity() && content.getInt(offset) > 0) {
+            last = offset;
+            offset += 8 + content.getInt(offset);
+        }
+        assertThat(last).isNotNegative();
+        return new Frame(file, last, content.getInt(last));
+    }
+    
+    private static final class Frame {
+        
+        final Path file;
+        final int offset;
+        final int length;
+        
+        Frame(Path file, int offset, int length) {
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+    
+    // survey_responses with its unique (log_node, log_seq) key, enforced the way Postgres does: a duplicate fails
+    // the insert unless the statement says what to do on conflict
+    private static final class FakeResponsesTable extends JdbcTemplate {
+        
+        private static final String ON_CONFLICT = "ON CONFLICT (log_node, log_seq) DO NOTHING";
+        
+        final Map<String, Object[]> rows = new ConcurrentHashMap<>();
+        volatile boolean loseNextAck;
+        
+        FakeResponsesTable() {
+            super(mock(DataSource.class));
+        }
+        
+        @Override
+        public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+                                       ParameterizedPreparedStatementSetter<T> pss) {
+            int[] counts = new int[batchArgs.size()];
+            int i = 0;
+            for (T arg : batchArgs) {
+                Object[] values = new Object[7];
+                try {
+                    pss.setValues(statement(values), arg);
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+                String key = values[5] + "/" + values[6];
+                if (rows.putIfAbsent(key, values) == null) {
+                    counts[i] = 1;
+                } else if (!sql.contains(ON_CONFLICT)) {
+                    throw new DuplicateKeyException("uk_survey_responses_log: " + key);
+                }
+                i++;
+            }
+            if (loseNextAck) {
+                loseNextAck = false;
+                throw new IllegalStateException("Connection reset after commit");
+            }
+            return new int[][] {counts};
+        }
+        
+        // Captures the parameters the setter binds, by index
+        private static PreparedStatement statement(Object[] values) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                        if (method.getName().startsWith("set") && args != null && args.length >= 2
+                                && args[0] instanceof Integer) {
+                            values[(Integer) args[0]] = method.getName().equals("setNull") ? null : args[1];
+                        }
+                        return null;
+                    });
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.surveyservice.schedule;
+
+import com.example.surveyservice.config.SurveyScheduleProperties;
+import com.example.surveyservice.entity.Survey;
+import com.example.surveyservice.event.SurveyChangeMessage;
+import com.example.surveyservice.event.SurveyChangedEvent;
+import com.example.surveyservice.repository.SurveyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Rows read outside the scheduler's lock race with edits committed meanwhile; the newer state must win. Changes made
+// through other replicas arrive as announcements and are read from the database
+class SurveyLifecycleSchedulerTest {
+    
+    private final LocalDateTime now = LocalDateTime.now();
+    private SurveyRepository surveyRepository;
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private SurveyLifecycleScheduler scheduler;
+    
+    @BeforeEach
+    void setUp() {
+        surveyRepository = mock(SurveyRepository.class);
+        scheduler = new SurveyLifecycleScheduler(surveyRepository, new SurveyScheduleProperties(),
+                mock(PlatformTransactionManager.class), kafkaTemplate);
+        scheduler.start();
+    }
+    
+    @Test
+    void firedBoundaryDoesNotOverwriteNewerEdit() {
+        // The START boundary's re-read returns ACTIVE, but the survey was paused before the read came back
+        when(surveyRepository.activateStarted(anyCollection(), any())).thenReturn(1);
+        when(surveyRepository.findAllById(anyIterable())).thenAnswer(invocation -> {
+            changed(survey(Survey.SurveyStatus.PAUSED, now.plusSeconds(2)));
+            return List.of(survey(Survey.SurveyStatus.ACTIVE, now.plusSeconds(1)));
+        });
+        
+        changed(survey(Survey.SurveyStatus.DRAFT, now));
+        
+        assertThat(scheduler.getActiveSurveys()).isEmpty();
+    }
+    
+    @Test
+    void resyncDoesNotOverwriteEditsMadeWhileReading() {
+        changed(survey(Survey.SurveyStatus.ACTIVE, now));
+        
+        // The snapshot still has the survey ACTIVE; it was closed while the snapshot was being read
+        Survey closed = survey(Survey.SurveyStatus.CLOSED, now.plusSeconds(1));
+        when(surveyRepository.findByStatus(Survey.SurveyStatus.ACTIVE)).thenAnswer(invocation -> {
+            changed(closed);
+            return List.of(survey(Survey.SurveyStatus.ACTIVE, now));
+        });
+        when(surveyRepository.findAllById(anyIterable())).thenReturn(List.of(closed));
+        
+        scheduler.resync();
+        
+        assertThat(scheduler.getActiveSurveys()).isEmpty();
+    }
+    
+    @Test
+    void resyncKeepsSurveysActivatedWhileReading() {
+        Survey activated = survey(Survey.SurveyStatus.ACTIVE, now.plusSeconds(1));
+        when(surveyRepository.findByStatus(Survey.SurveyStatus.ACTIVE)).thenAnswer(invocation -> {
+            changed(activated);
+            return List.of();
+        });
+        when(surveyRepository.findAllById(anyIterable())).thenReturn(List.of(activated));
+        
+        scheduler.resync();
+        
+        assertThat(scheduler.getActiveSurveys()).extracting(Survey::getStatus)
+                .containsExactly(Survey.SurveyStatus.ACTIVE);
+    }
+    
+    @Test
+    void announcedChangeIsReadFromTheDatabase() {
+        changed(survey(Survey.SurveyStatus.ACTIVE, now));
+        when(surveyRepository.findById(1L)).thenReturn(Optional.of(survey(Survey.SurveyStatus.CLOSED,
+                now.plusSeconds(1))));
+        
+        scheduler.onRemoteChange(new SurveyChangeMessage(1L, "other-replica"));
+        
+        assertThat(scheduler.getActiveSurveys()).isEmpty();
+    }
+    
+    @Test
+    void announcedDeleteDropsTheSurvey() {
+        changed(survey(Survey.SurveyStatus.ACTIVE, now));
+        when(surveyRepository.findById(1L)).thenReturn(Optional.empty());
+        
+        scheduler.onRemoteChange(new SurveyChangeMessage(1L, "other-replica"));
+        
+        assertThat(scheduler.getActiveSurveys()).isEmpty();
+    }
+    
+    @Test
+    void ownAnnouncementsAreIgnored() {
+        changed(survey(Survey.SurveyStatus.ACTIVE, now));
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate).send(eq("survey-changes"), eq("1"), sent.capture());
+        
+        scheduler.onRemoteChange((SurveyChangeMessage) sent.getValue());
+        
+        verify(surveyRepository, never()).findById(anyLong());
+    }
+    
+    @Test
+    void fillingUpAndFreeingAPlaceAreAnnounced() {
+        Survey capped = survey(Survey.SurveyStatus.ACTIVE, now);
+        capped.setMaxResponses(2);
+        capped.setResponseCount(0);
+        changed(capped);
+        clearInvocations(kafkaTemplate);
+        
+        scheduler.responseCountChanged(1L, 1);
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+        scheduler.responseCountChanged(1L, 2);
+        assertThat(scheduler.getAvailableSurveys()).isEmpty();
+        scheduler.responseCountChanged(1L, 1);
+        
+        verify(kafkaTemplate, times(2)).send(eq("survey-changes"), eq("1"), any());
+    }
+    
+    private void changed(Survey survey) {
+        scheduler.onSurveyChanged(new SurveyChangedEvent(SurveyChangedEvent.ChangeType.UPDATED, survey));
+    }
+    
+    private Survey survey(Survey.SurveyStatus status, LocalDateTime updatedAt) {
+        Survey survey = new Survey();
+        survey.setId(1L);
+        survey.setStatus(status);
+        survey.setStartDate(now.minusMinutes(1));
+        survey.setEndDate(now.plusDays(7));
+        survey.setUpdatedAt(updatedAt);
+        return survey;
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.surveyservice.service;
+
+import com.example.surveyservice.config.ResponseLogProperties;
+import com.example.surveyservice.counter.ResponseCounter;
+import com.example.surveyservice.dto.SurveyResponseRequest;
+import com.example.surveyservice.repository.SurveyResponseRepository;
+import com.example.surveyservice.responselog.LogRecord;
+import com.example.surveyservice.responselog.ResponseLog;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// A counted response must end up stored, or be given back
+class SurveyResponseServiceTest {
+    
+    private final ResponseLog responseLog = mock(ResponseLog.class);
+    private final ResponseCounter responseCounter = mock(ResponseCounter.class);
+    private SurveyResponseService service;
+    private SurveyResponseRequest request;
+    
+    @BeforeEach
+    void setUp() {
+        service = new SurveyResponseService(responseLog, responseCounter, mock(SurveyResponseRepository.class),
+                new ResponseLogProperties());
+        request = new SurveyResponseRequest();
+        request.setRespondentId(42L);
+        request.setAnswers(JsonNodeFactory.instance.objectNode().put("q1", 5));
+    }
+    
+    @Test
+    void failedWriteReleasesTheCount() {
+        when(responseLog.write(anyLong(), any(), anyString()))
+                .thenThrow(new UncheckedIOException(new IOException("disk full")));
+        
+        assertThatThrownBy(() -> service.submitResponse(7L, request)).isInstanceOf(UncheckedIOException.class);
+        verify(responseCounter).record(7L);
+        verify(responseCounter).release(7L);
+    }
+    
+    @Test
+    void failedFsyncWaitKeepsTheCount() {
+        // The record is already in the log and is copied to the database once it reaches disk
+        when(responseLog.write(anyLong(), any(), anyString()))
+                .thenReturn(new LogRecord(1L, 7L, 42L, System.currentTimeMillis(), "{\"q1\":5}"));
+        doThrow(new IllegalStateException("Response log is closed")).when(responseLog).awaitDurable(1L);
+        
+        assertThatThrownBy(() -> service.submitResponse(7L, request)).isInstanceOf(IllegalStateException.class);
+        verify(responseCounter, never()).release(any());
+    }
+}